@@ -1,13 +1,13 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-
 /**
  * Implementação da função de ativação Argmax para uso 
  * dentro da {@code Rede Neural}.
  */
 public class Argmax extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Intancia uma nova função de ativação Softmax.
     * <p>
@@ -22,19 +22,50 @@ public class Argmax extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
+   public void calcular(double[] entrada, double[] saida, int n){
+      calcularLinha(entrada, saida, 0, n);
+   }
+
+   /**
+    * Aplica a Argmax em cada amostra do bloco separadamente.
+    */
+   @Override
+   public void calcularLote(double[] entradas, double[] saidas, int amostras, int n){
+      for(int a = 0; a < amostras; a++){
+         calcularLinha(entradas, saidas, a * n, n);
+      }
+   }
+
+   /**
+    * Calcula a Argmax de uma única amostra.
+    * @param entrada valores de entrada.
+    * @param saida array onde serão escritos os resultados.
+    * @param off índice inicial da amostra nos arrays.
+    * @param n quantidade de elementos da amostra.
+    */
+   private void calcularLinha(double[] entrada, double[] saida, int off, int n){
       int indiceMaximo = 0;
-      double valorMaximo = camada.neuronio(0).somatorio;
+      double valorMaximo = entrada[off];
 
-      for(int i = 1; i < camada.neuronios().length; i++){
-         if(camada.neuronio(i).somatorio > valorMaximo){
+      for(int i = 1; i < n; i++){
+         if(entrada[off + i] > valorMaximo){
             indiceMaximo = i;
-            valorMaximo = camada.neuronio(i).somatorio;
+            valorMaximo = entrada[off + i];
          }
       }
 
-      for(int i = 0; i < camada.neuronios().length; i++){
-         camada.neuronio(i).saida = (i == indiceMaximo) ? 1 : 0;
+      for(int i = 0; i < n; i++){
+         saida[off + i] = (i == indiceMaximo) ? 1 : 0;
+      }
+   }
+
+   /**
+    * A Argmax é constante por partes, então sua derivada é zero.
+    */
+   @Override
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      for(int i = 0; i < n; i++){
+         derivada[i] = 0;
       }
    }
 }
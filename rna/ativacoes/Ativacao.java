@@ -1,40 +1,94 @@
 package rna.ativacoes;
 
+import java.io.Serializable;
+
 import rna.estrutura.Camada;
 
 /**
  * Classe base para a implementação das funções de ativação.
  * <p>
- *    Novas funções de ativações devem sobrescrever os métodos existentes {@code ativar()} e {@code derivada()}.
+ *    As funções trabalham diretamente sobre arrays de valores, sem depender das
+ *    camadas ou dos neurônios, o que permite aplicá-las em qualquer buffer, como os
+ *    blocos de amostras usados no treino em lotes.
+ * </p>
+ * <p>
+ *    Novas funções de ativações devem sobrescrever os métodos existentes
+ *    {@code calcular(double[], double[], int)} e {@code derivada(double[], double[], double[], int)}.
  * </p>
  */
-public abstract class Ativacao{
+public abstract class Ativacao implements Serializable{
+
+   private static final long serialVersionUID = 1L;
 
    /**
-    * Calcula o resultado da ativação de acordo com a função configurada
+    * Calcula o resultado da ativação de acordo com a função configurada.
     * <p>
-    *    O resultado da derivada de cada neurônio é salvo na propriedade {@code neuronio.saida}.
+    *    Os arrays de entrada e saída podem ser o mesmo, permitindo o cálculo no próprio buffer.
     * </p>
-    * @param neuronios conjunto de neurônios para ativação.
-    * @param quantidade quantidade de neurônios que serão ativados, em ordem crescente.
+    * @param entrada valores de entrada (somatórios).
+    * @param saida array onde serão escritos os resultados da ativação.
+    * @param n quantidade de elementos que serão ativados, a partir do índice 0.
     */
-   public void calcular(Camada camada){
+   public void calcular(double[] entrada, double[] saida, int n){
       throw new UnsupportedOperationException(
          "Método de atualização da função de ativação não foi implementado."
       );
    }
 
    /**
-    * Calcula o resultado da derivada da função de ativação de acordo com a função configurada
+    * Calcula o resultado da derivada da função de ativação de acordo com a função configurada.
     * <p>
-    *    O resultado da derivada de cada neurônio é salvo na propriedade {@code neuronio.derivada}.
+    *    Algumas funções aproveitam os valores de saída já calculados para evitar refazer
+    *    as contas, então {@code saida} deve conter o resultado de {@code calcular()} para a
+    *    mesma entrada.
     * </p>
-    * @param neuronios conjunto de neurônios para ativação.
-    * @param quantidade quantidade de neurônios que serão ativados, em ordem crescente.
+    * @param entrada valores de entrada (somatórios).
+    * @param saida resultados da ativação já calculados para a entrada.
+    * @param derivada array onde serão escritos os resultados da derivada.
+    * @param n quantidade de elementos, a partir do índice 0.
     */
-   public void derivada(Camada camada){
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
       throw new UnsupportedOperationException(
          "Método de atualização da derivada da função de ativação não foi implementado."
       );
    }
-}
\ No newline at end of file
+
+   /**
+    * Calcula a ativação de um bloco de amostras contíguas, organizado em linhas de
+    * {@code n} elementos.
+    * <p>
+    *    Por padrão o bloco é tratado como um único array, o que é válido para as funções
+    *    aplicadas elemento a elemento. Funções que dependem de todos os valores da amostra
+    *    (como a Softmax) devem sobrescrever este método.
+    * </p>
+    * @param entradas valores de entrada das amostras.
+    * @param saidas array onde serão escritos os resultados, pode ser o mesmo das entradas.
+    * @param amostras quantidade de amostras do bloco.
+    * @param n quantidade de elementos de cada amostra.
+    */
+   public void calcularLote(double[] entradas, double[] saidas, int amostras, int n){
+      calcular(entradas, saidas, amostras * n);
+   }
+
+   /**
+    * Calcula o resultado da ativação dos neurônios da camada.
+    * <p>
+    *    O resultado é salvo na saída da camada, a partir do seu somatório.
+    * </p>
+    * @param camada camada que será ativada.
+    */
+   public void calcular(Camada camada){
+      calcular(camada.somatorio, camada.obterSaida(), camada.quantidadeNeuronios());
+   }
+
+   /**
+    * Calcula o resultado da derivada da função de ativação dos neurônios da camada.
+    * <p>
+    *    O resultado é salvo na propriedade {@code camada.derivada}.
+    * </p>
+    * @param camada camada que terá a derivada calculada.
+    */
+   public void derivada(Camada camada){
+      derivada(camada.somatorio, camada.obterSaida(), camada.derivada, camada.quantidadeNeuronios());
+   }
+}
@@ -1,7 +1,7 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.Aproximacoes;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação da função de ativação ELU para uso dentro 
@@ -12,6 +12,8 @@ import rna.estrutura.Neuronio;
  * </p>
  */
 public class ELU extends Ativacao{
+
+   private static final long serialVersionUID = 1L;
    
    /**
     * Valor alfa da função ELU.
@@ -39,16 +41,36 @@ public class ELU extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = (neuronio.somatorio > 0) ? neuronio.somatorio : alfa * (Math.exp(neuronio.somatorio) - 1);
+   public void calcular(double[] entrada, double[] saida, int n){
+      if(Aproximacoes.ativo()){
+         for(int i = 0; i < n; i++){
+            saida[i] = (entrada[i] > 0) ? entrada[i] : alfa * (Aproximacoes.exp(entrada[i]) - 1);
+         }
+         return;
+      }
+
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.elu(entrada, saida, n, alfa);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         saida[i] = (entrada[i] > 0) ? entrada[i] : alfa * (Math.exp(entrada[i]) - 1);
       }
    }
 
    @Override
-   public void derivada(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.derivada = (neuronio.somatorio > 0) ? 1 : alfa * Math.exp(neuronio.somatorio);
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      if(Aproximacoes.ativo()){
+         for(int i = 0; i < n; i++){
+            derivada[i] = (entrada[i] > 0) ? 1 : alfa * Aproximacoes.exp(entrada[i]);
+         }
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         derivada[i] = (entrada[i] > 0) ? 1 : alfa * Math.exp(entrada[i]);
       }
    }
 }
@@ -1,7 +1,6 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.Aproximacoes;
 
 /**
  * Implementação da função de ativação GELU para uso dentro 
@@ -9,6 +8,18 @@ import rna.estrutura.Neuronio;
  */
 public class GELU extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Valor pré calculado de {@code sqrt(2 / pi)}.
+    */
+   private static final double RAIZ_DOIS_SOBRE_PI = Math.sqrt(2.0 / Math.PI);
+
+   /**
+    * Valor pré calculado de {@code sqrt(2 * pi)}.
+    */
+   private static final double RAIZ_DOIS_PI = Math.sqrt(2.0 * Math.PI);
+
    /**
     * Intancia uma nova função de ativação GELU.
     */
@@ -17,22 +28,38 @@ public class GELU extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
+   public void calcular(double[] entrada, double[] saida, int n){
+      if(Aproximacoes.ativo()){
+         for(int i = 0; i < n; i++){
+            double x = entrada[i];
+            saida[i] = 0.5 * x * (1.0 + Aproximacoes.tanh(RAIZ_DOIS_SOBRE_PI * (x + 0.044715 * x * x * x)));
+         }
+         return;
+      }
+
       double x;
-      for(Neuronio neuronio : camada.neuronios()){
-         x = neuronio.somatorio;
-         x = 0.5 * x * (1.0 + Math.tanh(Math.sqrt(2.0 / Math.PI) * (x + 0.044715 * Math.pow(x, 3))));
-         neuronio.saida = x;
+      for(int i = 0; i < n; i++){
+         x = entrada[i];
+         saida[i] = 0.5 * x * (1.0 + Math.tanh(Math.sqrt(2.0 / Math.PI) * (x + 0.044715 * Math.pow(x, 3))));
       }
    }
 
    @Override
-   public void derivada(Camada camada){
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      if(Aproximacoes.ativo()){
+         for(int i = 0; i < n; i++){
+            double x = entrada[i];
+            double cdf = 0.5 * (1.0 + Aproximacoes.tanh(RAIZ_DOIS_SOBRE_PI * (x + 0.044715 * x * x * x)));
+            derivada[i] = 0.5 * (1.0 + cdf + x * Aproximacoes.exp(-(x * x) / 2.0) / RAIZ_DOIS_PI);
+         }
+         return;
+      }
+
       double x, cdf;
-      for(Neuronio neuronio : camada.neuronios()){
-         x = neuronio.somatorio;
+      for(int i = 0; i < n; i++){
+         x = entrada[i];
          cdf = 0.5 * (1.0 + Math.tanh(Math.sqrt(2.0 / Math.PI) * (x + 0.044715 * Math.pow(x, 3))));
-         neuronio.derivada = 0.5 * (1.0 + cdf + x * Math.exp(-Math.pow(x, 2) / 2.0) / Math.sqrt(2.0 * Math.PI));
+         derivada[i] = 0.5 * (1.0 + cdf + x * Math.exp(-Math.pow(x, 2) / 2.0) / Math.sqrt(2.0 * Math.PI));
       }
    }
 }
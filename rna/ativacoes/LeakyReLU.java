@@ -1,7 +1,6 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação da função de ativação LeakyReLU para uso dentro 
@@ -13,6 +12,8 @@ import rna.estrutura.Neuronio;
  */
 public class LeakyReLU extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Valor alfa da função LeakyReLU.
     */
@@ -47,16 +48,28 @@ public class LeakyReLU extends Ativacao{
    }
   
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = (neuronio.somatorio > 0) ? neuronio.somatorio : alfa * neuronio.somatorio;
+   public void calcular(double[] entrada, double[] saida, int n){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.leakyRelu(entrada, saida, n, alfa);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         saida[i] = (entrada[i] > 0) ? entrada[i] : alfa * entrada[i];
       }
    }
 
    @Override
-   public void derivada(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.derivada = (neuronio.somatorio > 0) ? 1 : alfa;
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.leakyReluDerivada(entrada, derivada, n, alfa);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         derivada[i] = (entrada[i] > 0) ? 1 : alfa;
       }
    }
 }
@@ -1,14 +1,13 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
-
 /**
  * Implementação da função de ativação Linear para uso dentro 
  * da {@code Rede Neural}.
  */
 public class Linear extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Instancia a função de ativação Linear.
     */
@@ -17,16 +16,16 @@ public class Linear extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = neuronio.somatorio;
+   public void calcular(double[] entrada, double[] saida, int n){
+      for(int i = 0; i < n; i++){
+         saida[i] = entrada[i];
       }
    }
 
    @Override
-   public void derivada(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.derivada = 1;
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      for(int i = 0; i < n; i++){
+         derivada[i] = 1;
       }
    }
 }
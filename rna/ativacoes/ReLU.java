@@ -1,7 +1,6 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação da função de ativação ReLU para uso dentro 
@@ -9,6 +8,8 @@ import rna.estrutura.Neuronio;
  */
 public class ReLU extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Instancia a função de ativação ReLU.
     * <p>
@@ -21,16 +22,28 @@ public class ReLU extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = (neuronio.somatorio > 0) ? neuronio.somatorio : 0;
+   public void calcular(double[] entrada, double[] saida, int n){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.relu(entrada, saida, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         saida[i] = (entrada[i] > 0) ? entrada[i] : 0;
       }
    }
 
    @Override
-   public void derivada(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.derivada = (neuronio.somatorio > 0) ? 1 : 0;
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.reluDerivada(entrada, derivada, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         derivada[i] = (entrada[i] > 0) ? 1 : 0;
       }
    }
 }
@@ -1,7 +1,6 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação da função de ativação Seno para uso dentro 
@@ -9,6 +8,8 @@ import rna.estrutura.Neuronio;
  */
 public class Seno extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Instancia a função de ativação Seno.
     */
@@ -17,16 +18,22 @@ public class Seno extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = Math.sin(neuronio.somatorio);
+   public void calcular(double[] entrada, double[] saida, int n){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.seno(entrada, saida, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         saida[i] = Math.sin(entrada[i]);
       }
    }
 
    @Override
-   public void derivada(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.derivada = Math.cos(neuronio.somatorio);
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      for(int i = 0; i < n; i++){
+         derivada[i] = Math.cos(entrada[i]);
       }
    }
    
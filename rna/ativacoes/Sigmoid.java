@@ -1,7 +1,7 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.Aproximacoes;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação da função de ativação Sigmóide para uso 
@@ -9,6 +9,8 @@ import rna.estrutura.Neuronio;
  */
 public class Sigmoid extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Instancia a função de ativação Sigmóide.
     * <p>
@@ -26,17 +28,36 @@ public class Sigmoid extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = sigmoid(neuronio.somatorio);
+   public void calcular(double[] entrada, double[] saida, int n){
+      if(Aproximacoes.ativo()){
+         for(int i = 0; i < n; i++){
+            saida[i] = Aproximacoes.sigmoid(entrada[i]);
+         }
+         return;
+      }
+
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.sigmoid(entrada, saida, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         saida[i] = sigmoid(entrada[i]);
       }
    }
 
    @Override
-   public void derivada(Camada camada){
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
       //aproveitando o valor pre calculado
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.derivada = neuronio.saida * (1 - neuronio.saida);
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.sigmoidDerivada(saida, derivada, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         derivada[i] = saida[i] * (1 - saida[i]);
       }
    }
 }
@@ -1,7 +1,6 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação da função de ativação SoftPlus para uso 
@@ -9,6 +8,8 @@ import rna.estrutura.Neuronio;
  */
 public class SoftPlus extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Instancia a função de ativação SoftPlus.
     */
@@ -17,17 +18,23 @@ public class SoftPlus extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = Math.log(1 + Math.exp(neuronio.somatorio));
+   public void calcular(double[] entrada, double[] saida, int n){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.softplus(entrada, saida, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         saida[i] = Math.log(1 + Math.exp(entrada[i]));
       }
    }
 
    @Override
-   public void derivada(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         double exp = Math.exp(neuronio.somatorio);
-         neuronio.derivada = exp / (1 + exp);
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      for(int i = 0; i < n; i++){
+         double exp = Math.exp(entrada[i]);
+         derivada[i] = exp / (1 + exp);
       }
    }
 }
@@ -1,7 +1,6 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.Aproximacoes;
 
 /**
  * Implementação da função de ativação Softmax para uso 
@@ -9,6 +8,8 @@ import rna.estrutura.Neuronio;
  */
 public class Softmax extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Instancia a função de ativação Softmax.
     * <p>
@@ -21,15 +22,59 @@ public class Softmax extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
+   public void calcular(double[] entrada, double[] saida, int n){
+      calcularLinha(entrada, saida, 0, n);
+   }
+
+   /**
+    * Aplica a Softmax em cada amostra do bloco separadamente, já que a
+    * normalização depende de todos os valores da mesma amostra.
+    */
+   @Override
+   public void calcularLote(double[] entradas, double[] saidas, int amostras, int n){
+      for(int a = 0; a < amostras; a++){
+         calcularLinha(entradas, saidas, a * n, n);
+      }
+   }
+
+   /**
+    * Calcula a Softmax de uma única amostra.
+    * @param entrada valores de entrada.
+    * @param saida array onde serão escritos os resultados.
+    * @param off índice inicial da amostra nos arrays.
+    * @param n quantidade de elementos da amostra.
+    */
+   private void calcularLinha(double[] entrada, double[] saida, int off, int n){
       double somaExp = 0;
 
-      for(Neuronio neuronio : camada.neuronios()){
-         somaExp += Math.exp(neuronio.somatorio);
+      if(Aproximacoes.ativo()){
+         for(int i = off; i < off + n; i++){
+            somaExp += Aproximacoes.exp(entrada[i]);
+         }
+
+         for(int i = off; i < off + n; i++){
+            saida[i] = Aproximacoes.exp(entrada[i]) / somaExp;
+         }
+         return;
+      }
+
+      for(int i = off; i < off + n; i++){
+         somaExp += Math.exp(entrada[i]);
+      }
+
+      for(int i = off; i < off + n; i++){
+         saida[i] = Math.exp(entrada[i]) / somaExp;
       }
+   }
 
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = Math.exp(neuronio.somatorio) / somaExp;
+   /**
+    * Calcula apenas a diagonal da matriz jacobiana da Softmax,
+    * {@code s * (1 - s)}, usando as saídas já calculadas.
+    */
+   @Override
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      for(int i = 0; i < n; i++){
+         derivada[i] = saida[i] * (1 - saida[i]);
       }
    }
 }
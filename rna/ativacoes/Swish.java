@@ -1,7 +1,7 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.Aproximacoes;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação da função de ativação Swish para uso 
@@ -9,6 +9,8 @@ import rna.estrutura.Neuronio;
  */
 public class Swish extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Instancia a função de ativação Swish.
     */
@@ -21,17 +23,38 @@ public class Swish extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = neuronio.somatorio * sigmoid(neuronio.somatorio);
+   public void calcular(double[] entrada, double[] saida, int n){
+      if(Aproximacoes.ativo()){
+         for(int i = 0; i < n; i++){
+            saida[i] = entrada[i] * Aproximacoes.sigmoid(entrada[i]);
+         }
+         return;
+      }
+
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.swish(entrada, saida, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         saida[i] = entrada[i] * sigmoid(entrada[i]);
       }
    }
 
    @Override
-   public void derivada(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         double sig = sigmoid(neuronio.somatorio);
-         neuronio.derivada = sig + (neuronio.somatorio * sig * (1 - sig));
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
+      if(Aproximacoes.ativo()){
+         for(int i = 0; i < n; i++){
+            double sig = Aproximacoes.sigmoid(entrada[i]);
+            derivada[i] = sig + (entrada[i] * sig * (1 - sig));
+         }
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         double sig = sigmoid(entrada[i]);
+         derivada[i] = sig + (entrada[i] * sig * (1 - sig));
       }
    }
 }
@@ -1,7 +1,7 @@
 package rna.ativacoes;
 
-import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.Aproximacoes;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação da função de ativação Tangente Hiperbólica 
@@ -9,6 +9,8 @@ import rna.estrutura.Neuronio;
  */
 public class TanH extends Ativacao{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Instancia a função de ativação Tangente Hiperbólica.
     */
@@ -22,17 +24,36 @@ public class TanH extends Ativacao{
    }
 
    @Override
-   public void calcular(Camada camada){
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.saida = tanh(neuronio.somatorio);
+   public void calcular(double[] entrada, double[] saida, int n){
+      if(Aproximacoes.ativo()){
+         for(int i = 0; i < n; i++){
+            saida[i] = Aproximacoes.tanh(entrada[i]);
+         }
+         return;
+      }
+
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.tanh(entrada, saida, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         saida[i] = tanh(entrada[i]);
       }
    }
 
    @Override
-   public void derivada(Camada camada){
+   public void derivada(double[] entrada, double[] saida, double[] derivada, int n){
       //aproveitando o valor pre calculado
-      for(Neuronio neuronio : camada.neuronios()){
-         neuronio.derivada = 1 - (neuronio.saida * neuronio.saida);
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.tanhDerivada(saida, derivada, n);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         derivada[i] = 1 - (saida[i] * saida[i]);
       }
    }
 }
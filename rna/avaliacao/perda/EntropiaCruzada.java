@@ -1,6 +1,9 @@
 package rna.avaliacao.perda;
 
 public class EntropiaCruzada extends Perda{
+
+   private static final long serialVersionUID = 1L;
+
    double eps = 1e-7;//evitar log 0
 
    private void verificarDimensoes(int tamPrevisto, int tamReal){
@@ -27,14 +30,19 @@ public class EntropiaCruzada extends Perda{
    
    @Override
    public double[] derivada(double[] previsto, double[] real){
+      double[] derivadas = new double[previsto.length];
+      derivada(previsto, real, derivadas);
+      return derivadas;
+   }
+
+   @Override
+   public void derivada(double[] previsto, double[] real, double[] derivadas){
       verificarDimensoes(previsto.length, real.length);
 
       //adaptação pra minha arquitetura por enquanto
       //não econtrei ainda uma boa resposta de como calcular isso
-      double[] derivadas = new double[previsto.length];
       for(int i = 0; i < previsto.length; i++){
          derivadas[i] = real[i] - previsto[i];
       }
-      return derivadas;
    }
 }
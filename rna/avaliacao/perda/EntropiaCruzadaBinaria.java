@@ -1,6 +1,9 @@
 package rna.avaliacao.perda;
 
 public class EntropiaCruzadaBinaria extends Perda{
+
+   private static final long serialVersionUID = 1L;
+
    double eps = 1e-7;
 
    private void verificarDimensoes(int tamPrevisto, int tamReal){
@@ -27,16 +30,21 @@ public class EntropiaCruzadaBinaria extends Perda{
 
    @Override
    public double[] derivada(double[] previsto, double[] real){
+      double[] derivadas = new double[previsto.length];
+      derivada(previsto, real, derivadas);
+      return derivadas;
+   }
+
+   @Override
+   public void derivada(double[] previsto, double[] real, double[] derivadas){
       verificarDimensoes(previsto.length, real.length);
 
       //também não econtrei ainda uma boa resposta de como calcular isso
-      double[] derivadas = new double[previsto.length];
       int n = previsto.length;
 
       for(int i = 0; i < n; i++){
          derivadas[i] = real[i] - previsto[i];
          // gradientes[i] = (1 / n) * (1 / previsto[i]) * (previsto[i] - real[i]);
       }
-      return derivadas;
    }
 }
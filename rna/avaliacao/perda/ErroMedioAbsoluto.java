@@ -2,6 +2,8 @@ package rna.avaliacao.perda;
 
 public class ErroMedioAbsoluto extends Perda{
 
+   private static final long serialVersionUID = 1L;
+
    private void verificarDimensoes(int tamPrevisto, int tamReal){
       if(tamPrevisto != tamReal){
          throw new IllegalArgumentException(
@@ -28,12 +30,17 @@ public class ErroMedioAbsoluto extends Perda{
    
    @Override
    public double[] derivada(double[] previsto, double[] real){
+      double[] derivadas = new double[previsto.length];
+      derivada(previsto, real, derivadas);
+      return derivadas;
+   }
+
+   @Override
+   public void derivada(double[] previsto, double[] real, double[] derivadas){
       verificarDimensoes(previsto.length, real.length);
 
-      double[] derivadas = new double[previsto.length];
       for(int i = 0; i < previsto.length; i++){
          derivadas[i] = real[i] - previsto[i];
       }
-      return derivadas;
    }
 }
@@ -2,6 +2,8 @@ package rna.avaliacao.perda;
 
 public class ErroMedioQuadradoLogaritmico extends Perda{
 
+   private static final long serialVersionUID = 1L;
+
    private void verificarDimensoes(int tamPrevisto, int tamReal){
       if(tamPrevisto != tamReal){
          throw new IllegalArgumentException(
@@ -29,12 +31,17 @@ public class ErroMedioQuadradoLogaritmico extends Perda{
    
    @Override
    public double[] derivada(double[] previsto, double[] real){
+      double[] derivadas = new double[previsto.length];
+      derivada(previsto, real, derivadas);
+      return derivadas;
+   }
+
+   @Override
+   public void derivada(double[] previsto, double[] real, double[] derivadas){
       verificarDimensoes(previsto.length, real.length);
 
-      double[] derivadas = new double[previsto.length];
       for (int i = 0; i < previsto.length; i++) {
          derivadas[i] = 2 * (Math.log(1 + real[i]) - Math.log(1 + previsto[i]));
       }
-      return derivadas;
    }
 }
@@ -1,9 +1,13 @@
 package rna.avaliacao.perda;
 
+import java.io.Serializable;
+
 /**
  * Classe base para criação de funções de perda.
  */
-public abstract class Perda{
+public abstract class Perda implements Serializable{
+
+   private static final long serialVersionUID = 1L;
 
    /**
     * Calcula a função de perda configurada.
@@ -28,4 +32,22 @@ public abstract class Perda{
          "É necessário implementar o cálculo de derivada."
       );
    }
+
+   /**
+    * Calcula a derivada da função de perda configurada, escrevendo o resultado
+    * no array fornecido em vez de alocar um novo.
+    * <p>
+    *    A implementação padrão usa {@link #derivada(double[], double[])} e copia o
+    *    resultado, as funções de perda devem sobrescrever esse método para que o
+    *    treinamento não aloque memória a cada amostra.
+    * </p>
+    * @param previsto dados previstos.
+    * @param real dados rotulados.
+    * @param derivadas array onde serão escritas as derivadas, com o mesmo tamanho
+    * dos dados previstos.
+    */
+   public void derivada(double[] previsto, double[] real, double[] derivadas){
+      double[] resultado = derivada(previsto, real);
+      System.arraycopy(resultado, 0, derivadas, 0, resultado.length);
+   }
 }
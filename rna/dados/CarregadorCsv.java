@@ -0,0 +1,552 @@
+package rna.dados;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Carregador de arquivos CSV para conjuntos de dados em memória.
+ * <p>
+ *    O arquivo é dividido em blocos de bytes alinhados ao início das linhas, que são
+ *    processados em paralelo em duas etapas: primeiro cada bloco conta suas amostras,
+ *    o que define a posição de cada uma no resultado, e depois cada bloco converte as
+ *    suas linhas diretamente nos arrays das amostras. Os números são lidos direto dos
+ *    bytes do arquivo (mapeado em memória), sem criar objetos {@code String} ou
+ *    {@code Double} para cada valor.
+ * </p>
+ * <p>
+ *    Cada linha deve conter os valores de entrada seguidos dos valores de saída. Com a
+ *    codificação one-hot, a saída é uma única coluna contendo o índice da classe, que é
+ *    convertida num vetor com {@code 1} na posição da classe e {@code 0} nas demais.
+ *    Linhas em branco são ignoradas.
+ * </p>
+ * <p>
+ *    A conversão dos números é exata: valores com mantissa de até 53 bits e expoente
+ *    pequeno são calculados diretamente, os demais usam {@code Double.parseDouble()}.
+ * </p>
+ * Exemplo:
+ * <pre>
+ *CarregadorCsv carregador = new CarregadorCsv(784, 1);
+ *carregador.configurarCabecalho(true);
+ *carregador.configurarOneHot(10);
+ *ConjuntoMemoria dados = carregador.carregar("mnist.csv");
+ *rede.treinar(dados, epochs);
+ * </pre>
+ */
+public class CarregadorCsv{
+
+   /**
+    * Potências de 10 representadas exatamente no tipo double.
+    */
+   private static final double[] POTENCIAS_10 = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+   };
+
+   /**
+    * Maior mantissa inteira representada exatamente no tipo double.
+    */
+   private static final long MANTISSA_MAXIMA = 1L << 53;
+
+   /**
+    * Tamanho mínimo de cada bloco do arquivo, em bytes.
+    */
+   private static final long BLOCO_MINIMO = 1 << 20;
+
+   /**
+    * Tamanho máximo de cada bloco do arquivo, em bytes.
+    */
+   private static final long BLOCO_MAXIMO = 1 << 28;
+
+   /**
+    * Quantidade de valores de entrada de cada linha.
+    */
+   private final int tamanhoEntrada;
+
+   /**
+    * Quantidade de colunas de saída de cada linha.
+    */
+   private final int colunasSaida;
+
+   /**
+    * Caractere que separa os valores de cada linha.
+    */
+   private char separador = ',';
+
+   /**
+    * Indica se a primeira linha do arquivo deve ser ignorada.
+    */
+   private boolean cabecalho = false;
+
+   /**
+    * Quantidade de classes da codificação one-hot, zero quando não é usada.
+    */
+   private int classes = 0;
+
+   /**
+    * Pool usado para processar os blocos, nulo para processar na thread atual.
+    */
+   private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+   /**
+    * Instancia um carregador de arquivos CSV.
+    * @param tamanhoEntrada quantidade de valores de entrada de cada linha.
+    * @param colunasSaida quantidade de colunas de saída de cada linha.
+    * @throws IllegalArgumentException se os tamanhos forem menores que um.
+    */
+   public CarregadorCsv(int tamanhoEntrada, int colunasSaida){
+      if(tamanhoEntrada < 1 || colunasSaida < 1){
+         throw new IllegalArgumentException(
+            "Os tamanhos de entrada (" + tamanhoEntrada + ") e saída (" + colunasSaida + 
+            ") devem ser maiores que zero."
+         );
+      }
+
+      this.tamanhoEntrada = tamanhoEntrada;
+      this.colunasSaida = colunasSaida;
+   }
+
+   /**
+    * Configura o caractere que separa os valores de cada linha.
+    * <p>
+    *    {@code O valor padrão é ','}
+    * </p>
+    * @param separador novo separador.
+    * @throws IllegalArgumentException se o separador não for um caractere ASCII ou for
+    * usado na escrita dos números.
+    */
+   public void configurarSeparador(char separador){
+      if(separador > 127 || separador == '\n' || separador == '.' || separador == '-' || 
+         separador == '+' || separador == 'e' || separador == 'E' || (separador >= '0' && separador <= '9')){
+         throw new IllegalArgumentException("Separador '" + separador + "' inválido.");
+      }
+
+      this.separador = separador;
+   }
+
+   /**
+    * Configura se a primeira linha do arquivo é um cabeçalho que deve ser ignorado.
+    * <p>
+    *    {@code O valor padrão é false}
+    * </p>
+    * @param cabecalho true para ignorar a primeira linha.
+    */
+   public void configurarCabecalho(boolean cabecalho){
+      this.cabecalho = cabecalho;
+   }
+
+   /**
+    * Configura a codificação one-hot das saídas.
+    * <p>
+    *    A coluna de saída deve conter o índice da classe, entre {@code 0} e
+    *    {@code classes-1}, e cada amostra de saída passa a ter {@code classes} elementos.
+    * </p>
+    * @param classes quantidade de classes, ou zero para usar os valores de saída diretamente.
+    * @throws IllegalArgumentException se a quantidade de classes for negativa ou se o
+    * carregador tiver mais de uma coluna de saída.
+    */
+   public void configurarOneHot(int classes){
+      if(classes < 0){
+         throw new IllegalArgumentException(
+            "A quantidade de classes (" + classes + ") não pode ser negativa."
+         );
+      }
+      if(classes > 0 && this.colunasSaida != 1){
+         throw new IllegalArgumentException(
+            "A codificação one-hot requer uma única coluna de saída, recebido " + this.colunasSaida + "."
+         );
+      }
+
+      this.classes = classes;
+   }
+
+   /**
+    * Configura o pool de threads usado para processar os blocos do arquivo.
+    * <p>
+    *    {@code O valor padrão é ForkJoinPool.commonPool()}
+    * </p>
+    * @param pool pool de threads, ou nulo para processar o arquivo na thread atual.
+    */
+   public void configurarParalelismo(ForkJoinPool pool){
+      this.pool = pool;
+   }
+
+   /**
+    * Carrega o arquivo CSV fornecido.
+    * @param caminho caminho do arquivo.
+    * @return conjunto de dados com as amostras do arquivo.
+    * @throws IllegalArgumentException se o arquivo não contiver amostras ou alguma linha
+    * não estiver no formato esperado.
+    * @throws UncheckedIOException se houver algum erro ao ler o arquivo.
+    */
+   public ConjuntoMemoria carregar(String caminho){
+      try(FileChannel canal = FileChannel.open(Path.of(caminho), StandardOpenOption.READ)){
+         Bloco[] blocos = dividir(canal);
+
+         //primeira etapa: quantidade de amostras de cada bloco
+         executar(blocos);
+
+         int amostras = 0;
+         for(Bloco bloco : blocos){
+            bloco.primeira = amostras;
+            if((long) amostras + bloco.amostras > Integer.MAX_VALUE){
+               throw new IllegalArgumentException("O arquivo possui mais amostras que o suportado.");
+            }
+            amostras += bloco.amostras;
+         }
+         if(amostras == 0){
+            throw new IllegalArgumentException(
+               "O arquivo \"" + caminho + "\" não contém nenhuma amostra."
+            );
+         }
+
+         //segunda etapa: conversão das linhas
+         double[][] entradas = new double[amostras][];
+         double[][] saidas = new double[amostras][];
+         for(Bloco bloco : blocos){
+            bloco.converter(entradas, saidas);
+         }
+         executar(blocos);
+
+         return new ConjuntoMemoria(entradas, saidas);
+
+      }catch(IOException e){
+         throw new UncheckedIOException("Erro ao ler o arquivo \"" + caminho + "\".", e);
+      }
+   }
+
+   /**
+    * Divide o arquivo em blocos que começam no início de uma linha.
+    * @param canal canal do arquivo.
+    * @return blocos do arquivo, em ordem.
+    */
+   private Bloco[] dividir(FileChannel canal) throws IOException{
+      long tamanho = canal.size();
+      int trabalhadores = (pool == null) ? 1 : Math.max(1, pool.getParallelism());
+      long tamanhoBloco = Math.max(BLOCO_MINIMO, Math.min(BLOCO_MAXIMO, tamanho / (4L * trabalhadores) + 1));
+
+      long inicio = cabecalho ? inicioLinha(canal, 1) : 0;
+      ArrayList<Bloco> blocos = new ArrayList<>();
+      while(inicio < tamanho){
+         long fim = (tamanho - inicio <= tamanhoBloco) ? tamanho : inicioLinha(canal, inicio + tamanhoBloco);
+         if(fim - inicio > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("O arquivo possui linhas longas demais.");
+         }
+
+         MappedByteBuffer bytes = canal.map(FileChannel.MapMode.READ_ONLY, inicio, fim - inicio);
+         blocos.add(new Bloco(bytes));
+         inicio = fim;
+      }
+
+      return blocos.toArray(new Bloco[0]);
+   }
+
+   /**
+    * Encontra o início da primeira linha que começa a partir da posição fornecida.
+    * @param canal canal do arquivo.
+    * @param posicao posição a partir da qual a linha pode começar.
+    * @return posição do início da linha, ou o tamanho do arquivo caso não exista.
+    */
+   private long inicioLinha(FileChannel canal, long posicao) throws IOException{
+      long tamanho = canal.size();
+      ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+
+      //a linha começa logo após uma quebra de linha
+      long pos = posicao - 1;
+      while(pos < tamanho){
+         buffer.clear();
+         int lidos = canal.read(buffer, pos);
+         if(lidos <= 0) break;
+
+         for(int i = 0; i < lidos; i++){
+            if(buffer.get(i) == '\n'){
+               return pos + i + 1;
+            }
+         }
+         pos += lidos;
+      }
+
+      return tamanho;
+   }
+
+   /**
+    * Processa os blocos no pool configurado.
+    * @param blocos blocos do arquivo.
+    */
+   private void executar(Bloco[] blocos){
+      if(pool == null || blocos.length == 1){
+         for(Bloco bloco : blocos){
+            bloco.reinitialize();
+            bloco.invoke();
+         }
+
+      }else{
+         for(Bloco bloco : blocos){
+            bloco.reinitialize();
+         }
+         pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(blocos)));
+      }
+   }
+
+   /**
+    * Bloco contíguo de linhas do arquivo.
+    * <p>
+    *    Na primeira execução conta as amostras do bloco e na segunda converte
+    *    as linhas nos arrays das amostras, a partir do índice {@code primeira}.
+    * </p>
+    */
+   private class Bloco extends RecursiveAction{
+      private static final long serialVersionUID = 1L;
+      private final MappedByteBuffer bytes;
+      private final int tamanho;
+
+      /**
+       * Quantidade de amostras do bloco.
+       */
+      int amostras;
+
+      /**
+       * Índice da primeira amostra do bloco no conjunto de dados.
+       */
+      int primeira;
+
+      private double[][] entradas;
+      private double[][] saidas;
+
+      /**
+       * Posição atual da leitura.
+       */
+      private int pos;
+
+      Bloco(MappedByteBuffer bytes){
+         this.bytes = bytes;
+         this.tamanho = bytes.limit();
+      }
+
+      /**
+       * Configura os arrays de destino da conversão.
+       */
+      void converter(double[][] entradas, double[][] saidas){
+         this.entradas = entradas;
+         this.saidas = saidas;
+      }
+
+      @Override
+      protected void compute(){
+         if(this.entradas == null){
+            contar();
+         }else{
+            lerAmostras();
+         }
+      }
+
+      /**
+       * Conta as linhas não vazias do bloco.
+       */
+      private void contar(){
+         int contagem = 0;
+         boolean vazia = true;
+         for(int i = 0; i < this.tamanho; i++){
+            byte b = this.bytes.get(i);
+            if(b == '\n'){
+               if(!vazia) contagem++;
+               vazia = true;
+            }else if(vazia && !espaco(b)){
+               vazia = false;
+            }
+         }
+         if(!vazia) contagem++;
+
+         this.amostras = contagem;
+      }
+
+      /**
+       * Converte as linhas do bloco nos arrays das amostras.
+       */
+      private void lerAmostras(){
+         int tamSaida = (classes > 0) ? classes : colunasSaida;
+         int amostra = this.primeira;
+         this.pos = 0;
+
+         while(this.pos < this.tamanho){
+            pularEspacos();
+            if(this.pos >= this.tamanho) break;
+            if(this.bytes.get(this.pos) == '\n'){
+               this.pos++;
+               continue;
+            }
+
+            double[] entrada = new double[tamanhoEntrada];
+            double[] saida = new double[tamSaida];
+            for(int i = 0; i < tamanhoEntrada; i++){
+               entrada[i] = lerValor(amostra, false);
+            }
+
+            if(classes > 0){
+               double classe = lerValor(amostra, true);
+               int id = (int) classe;
+               if(id != classe || id < 0 || id >= classes){
+                  throw new IllegalArgumentException(
+                     "Classe inválida (" + classe + ") na amostra " + (amostra+1) + "."
+                  );
+               }
+               saida[id] = 1;
+
+            }else{
+               for(int i = 0; i < colunasSaida; i++){
+                  saida[i] = lerValor(amostra, i == colunasSaida-1);
+               }
+            }
+
+            entradas[amostra] = entrada;
+            saidas[amostra] = saida;
+            amostra++;
+         }
+      }
+
+      /**
+       * Lê o próximo valor da linha, junto do separador ou do fim de linha seguinte.
+       * @param amostra índice da amostra, usado nas mensagens de erro.
+       * @param ultimo indica se é o último valor da linha.
+       * @return valor lido.
+       */
+      private double lerValor(int amostra, boolean ultimo){
+         pularEspacos();
+         int inicio = this.pos;
+         while(this.pos < this.tamanho){
+            byte b = this.bytes.get(this.pos);
+            if(b == separador || b == '\n') break;
+            this.pos++;
+         }
+         int fim = this.pos;
+         while(fim > inicio && espaco(this.bytes.get(fim-1))) fim--;
+
+         double valor = converterNumero(inicio, fim, amostra);
+
+         boolean fimLinha = (this.pos >= this.tamanho || this.bytes.get(this.pos) == '\n');
+         if(ultimo != fimLinha){
+            throw new IllegalArgumentException(
+               "A amostra " + (amostra+1) + " deve conter " + (tamanhoEntrada + colunasSaida) + " valores."
+            );
+         }
+         this.pos++;//separador ou quebra de linha
+
+         return valor;
+      }
+
+      /**
+       * Converte os bytes fornecidos num número.
+       * @param inicio posição do primeiro caractere.
+       * @param fim posição final (exclusiva).
+       * @param amostra índice da amostra, usado nas mensagens de erro.
+       * @return valor convertido.
+       */
+      private double converterNumero(int inicio, int fim, int amostra){
+         int i = inicio;
+         boolean negativo = false;
+         if(i < fim && (this.bytes.get(i) == '-' || this.bytes.get(i) == '+')){
+            negativo = this.bytes.get(i) == '-';
+            i++;
+         }
+
+         long mantissa = 0;
+         int digitos = 0;//dígitos significativos
+         int expoente = 0;
+         boolean valido = false;
+         byte b;
+
+         //parte inteira
+         while(i < fim && (b = this.bytes.get(i)) >= '0' && b <= '9'){
+            if(digitos < 18){
+               mantissa = mantissa * 10 + (b - '0');
+               if(mantissa != 0) digitos++;
+            }else{
+               expoente++;
+               digitos++;
+            }
+            valido = true;
+            i++;
+         }
+
+         //parte decimal
+         if(i < fim && this.bytes.get(i) == '.'){
+            i++;
+            while(i < fim && (b = this.bytes.get(i)) >= '0' && b <= '9'){
+               if(digitos < 18){
+                  mantissa = mantissa * 10 + (b - '0');
+                  if(mantissa != 0) digitos++;
+                  expoente--;
+               }else{
+                  digitos++;
+               }
+               valido = true;
+               i++;
+            }
+         }
+
+         //expoente
+         if(valido && i < fim && (this.bytes.get(i) == 'e' || this.bytes.get(i) == 'E')){
+            i++;
+            boolean expNegativo = false;
+            if(i < fim && (this.bytes.get(i) == '-' || this.bytes.get(i) == '+')){
+               expNegativo = this.bytes.get(i) == '-';
+               i++;
+            }
+
+            int exp = 0;
+            boolean expValido = false;
+            while(i < fim && (b = this.bytes.get(i)) >= '0' && b <= '9'){
+               if(exp < 100_000) exp = exp * 10 + (b - '0');
+               expValido = true;
+               i++;
+            }
+            valido = expValido;
+            expoente += expNegativo ? -exp : exp;
+         }
+
+         //caminho rápido: mantissa e potência de 10 exatas, resultado corretamente arredondado
+         if(valido && i == fim && digitos < 18 && mantissa <= MANTISSA_MAXIMA && expoente >= -22 && expoente <= 22){
+            double valor = (expoente < 0) ? mantissa / POTENCIAS_10[-expoente] : mantissa * POTENCIAS_10[expoente];
+            return negativo ? -valor : valor;
+         }
+
+         //demais casos (muitos dígitos, expoentes grandes, NaN, Infinity...)
+         byte[] texto = new byte[fim - inicio];
+         this.bytes.get(inicio, texto);
+         try{
+            return Double.parseDouble(new String(texto, StandardCharsets.US_ASCII));
+         }catch(NumberFormatException e){
+            throw new IllegalArgumentException(
+               "Valor inválido na amostra " + (amostra+1) + ": \"" + new String(texto, StandardCharsets.UTF_8) + "\".", e
+            );
+         }
+      }
+
+      /**
+       * Avança a leitura enquanto houver espaços.
+       */
+      private void pularEspacos(){
+         while(this.pos < this.tamanho && espaco(this.bytes.get(this.pos))){
+            this.pos++;
+         }
+      }
+   }
+
+   /**
+    * Verifica se o byte é um espaço em branco dentro de uma linha.
+    * @param b byte lido.
+    * @return true caso seja espaço, tabulação ou retorno de carro.
+    */
+   private static boolean espaco(byte b){
+      return b == ' ' || b == '\t' || b == '\r';
+   }
+}
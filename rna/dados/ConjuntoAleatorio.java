@@ -0,0 +1,56 @@
+package rna.dados;
+
+/**
+ * Classe base para conjuntos de dados com acesso aleatório.
+ * <p>
+ *    As implementações devem fornecer apenas a leitura por índice, a leitura
+ *    sequencial é feita percorrendo os índices em ordem.
+ * </p>
+ * <p>
+ *    A leitura por índice deve poder ser feita por várias threads ao mesmo tempo,
+ *    desde que cada uma use seus próprios buffers.
+ * </p>
+ */
+public abstract class ConjuntoAleatorio extends ConjuntoDados{
+
+   /**
+    * Índice da amostra atual da leitura sequencial.
+    */
+   private int atual = -1;
+
+   @Override
+   public boolean acessoAleatorio(){
+      return true;
+   }
+
+   @Override
+   public abstract double[] obterEntrada(int indice, double[] buffer);
+
+   @Override
+   public abstract double[] obterSaida(int indice, double[] buffer);
+
+   @Override
+   public void reiniciar(){
+      this.atual = -1;
+   }
+
+   @Override
+   public boolean proxima(){
+      if(this.atual + 1 < this.tamanho()){
+         this.atual++;
+         return true;
+      }
+
+      return false;
+   }
+
+   @Override
+   public double[] entradaAtual(double[] buffer){
+      return this.obterEntrada(this.atual, buffer);
+   }
+
+   @Override
+   public double[] saidaAtual(double[] buffer){
+      return this.obterSaida(this.atual, buffer);
+   }
+}
@@ -0,0 +1,326 @@
+package rna.dados;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Conjunto de dados armazenado num arquivo binário e acessado por mapeamento
+ * em memória ({@code FileChannel.map}).
+ * <p>
+ *    O arquivo não é carregado nem convertido ao abrir o conjunto: as amostras são lidas
+ *    diretamente das páginas do arquivo mapeadas pelo sistema operacional, então a abertura
+ *    é praticamente instantânea e o conjunto pode ser muito maior que a memória da JVM.
+ *    Cada leitura copia apenas os valores da amostra solicitada para o buffer fornecido.
+ * </p>
+ * <p>
+ *    Formato do arquivo, com todos os valores em little-endian:
+ * </p>
+ * <pre>
+ *byte  0: "RNAD"              identificador do formato
+ *byte  4: int versão          atualmente 1
+ *byte  8: int bytes por valor 8 (double) ou 4 (float)
+ *byte 12: int tamanhoEntrada
+ *byte 16: int tamanhoSaida
+ *byte 20: long amostras
+ *byte 28: int reservado       zero
+ *byte 32: amostras, uma por linha, com os valores de entrada seguidos dos de saída
+ * </pre>
+ * <p>
+ *    Arquivos nesse formato podem ser criados a partir de qualquer conjunto de dados com
+ *    {@link #escrever(ConjuntoDados, String, Class)}, por exemplo convertendo um arquivo
+ *    CSV uma única vez:
+ * </p>
+ * <pre>
+ *ConjuntoBinario.escrever(new ConjuntoCsv("dados.csv", 784, 10), "dados.bin", Float.TYPE);
+ *ConjuntoDados dados = new ConjuntoBinario("dados.bin");
+ * </pre>
+ * A leitura por índice pode ser feita por várias threads ao mesmo tempo.
+ */
+public class ConjuntoBinario extends ConjuntoAleatorio{
+
+   /**
+    * Identificador do formato, "RNAD" em ASCII.
+    */
+   private static final int IDENTIFICADOR = 0x44414E52;
+
+   /**
+    * Versão atual do formato.
+    */
+   private static final int VERSAO = 1;
+
+   /**
+    * Tamanho do cabeçalho em bytes.
+    */
+   private static final int TAMANHO_CABECALHO = 32;
+
+   /**
+    * Tamanho máximo, em bytes, de cada região mapeada do arquivo.
+    */
+   private static final int TAMANHO_BLOCO = 1 << 30;
+
+   /**
+    * Quantidade de amostras do arquivo.
+    */
+   private final int tamanho;
+
+   /**
+    * Quantidade de valores de entrada de cada amostra.
+    */
+   private final int tamanhoEntrada;
+
+   /**
+    * Quantidade de valores de saída de cada amostra.
+    */
+   private final int tamanhoSaida;
+
+   /**
+    * Quantidade de amostras contidas em cada região mapeada.
+    */
+   private final int amostrasPorBloco;
+
+   /**
+    * Regiões mapeadas quando os valores são do tipo double, nulo caso contrário.
+    */
+   private final DoubleBuffer[] blocosDouble;
+
+   /**
+    * Regiões mapeadas quando os valores são do tipo float, nulo caso contrário.
+    */
+   private final FloatBuffer[] blocosFloat;
+
+   /**
+    * Abre um conjunto de dados binário.
+    * @param caminho caminho do arquivo.
+    * @throws IllegalArgumentException se o arquivo não estiver no formato esperado.
+    * @throws UncheckedIOException se houver algum erro ao ler o arquivo.
+    */
+   public ConjuntoBinario(String caminho){
+      try(FileChannel canal = FileChannel.open(Path.of(caminho), StandardOpenOption.READ)){
+         ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO).order(ByteOrder.LITTLE_ENDIAN);
+         while(cabecalho.hasRemaining()){
+            if(canal.read(cabecalho) < 0) break;
+         }
+         cabecalho.flip();
+
+         if(cabecalho.remaining() < TAMANHO_CABECALHO || cabecalho.getInt(0) != IDENTIFICADOR){
+            throw new IllegalArgumentException(
+               "O arquivo \"" + caminho + "\" não é um conjunto de dados binário válido."
+            );
+         }
+         if(cabecalho.getInt(4) != VERSAO){
+            throw new IllegalArgumentException(
+               "Versão do conjunto de dados binário (" + cabecalho.getInt(4) + ") não suportada."
+            );
+         }
+
+         int bytesValor = cabecalho.getInt(8);
+         this.tamanhoEntrada = cabecalho.getInt(12);
+         this.tamanhoSaida = cabecalho.getInt(16);
+         long amostras = cabecalho.getLong(20);
+
+         if(bytesValor != Double.BYTES && bytesValor != Float.BYTES){
+            throw new IllegalArgumentException(
+               "Tamanho de valor (" + bytesValor + " bytes) não suportado."
+            );
+         }
+         if(this.tamanhoEntrada < 1 || this.tamanhoSaida < 1 || amostras < 1 || amostras > Integer.MAX_VALUE){
+            throw new IllegalArgumentException(
+               "Cabeçalho do arquivo \"" + caminho + "\" contém dimensões inválidas."
+            );
+         }
+
+         long valoresLinha = (long) this.tamanhoEntrada + this.tamanhoSaida;
+         long bytesLinha = valoresLinha * bytesValor;
+         if(bytesLinha > TAMANHO_BLOCO){
+            throw new IllegalArgumentException(
+               "Amostras com mais de " + TAMANHO_BLOCO + " bytes não são suportadas."
+            );
+         }
+         if(canal.size() < TAMANHO_CABECALHO + amostras * bytesLinha){
+            throw new IllegalArgumentException(
+               "O arquivo \"" + caminho + "\" é menor que o indicado pelo seu cabeçalho."
+            );
+         }
+
+         this.tamanho = (int) amostras;
+         this.amostrasPorBloco = (int) (TAMANHO_BLOCO / bytesLinha);
+
+         //as regiões sempre contêm amostras inteiras
+         int quantidadeBlocos = (this.tamanho + this.amostrasPorBloco - 1) / this.amostrasPorBloco;
+         this.blocosDouble = (bytesValor == Double.BYTES) ? new DoubleBuffer[quantidadeBlocos] : null;
+         this.blocosFloat = (bytesValor == Float.BYTES) ? new FloatBuffer[quantidadeBlocos] : null;
+
+         for(int i = 0; i < quantidadeBlocos; i++){
+            long primeira = (long) i * this.amostrasPorBloco;
+            long quantidade = Math.min(this.amostrasPorBloco, this.tamanho - primeira);
+
+            MappedByteBuffer regiao = canal.map(
+               FileChannel.MapMode.READ_ONLY,
+               TAMANHO_CABECALHO + primeira * bytesLinha,
+               quantidade * bytesLinha
+            );
+            regiao.order(ByteOrder.LITTLE_ENDIAN);
+
+            if(this.blocosDouble != null){
+               this.blocosDouble[i] = regiao.asDoubleBuffer();
+            }else{
+               this.blocosFloat[i] = regiao.asFloatBuffer();
+            }
+         }
+
+      }catch(IOException e){
+         throw new UncheckedIOException("Erro ao abrir o arquivo \"" + caminho + "\".", e);
+      }
+   }
+
+   @Override
+   public int tamanho(){
+      return this.tamanho;
+   }
+
+   @Override
+   public int tamanhoEntrada(){
+      return this.tamanhoEntrada;
+   }
+
+   @Override
+   public int tamanhoSaida(){
+      return this.tamanhoSaida;
+   }
+
+   @Override
+   public double[] obterEntrada(int indice, double[] buffer){
+      ler(indice, 0, buffer, this.tamanhoEntrada);
+      return buffer;
+   }
+
+   @Override
+   public double[] obterSaida(int indice, double[] buffer){
+      ler(indice, this.tamanhoEntrada, buffer, this.tamanhoSaida);
+      return buffer;
+   }
+
+   /**
+    * Copia valores de uma amostra para o buffer.
+    * <p>
+    *    Apenas leituras absolutas são feitas nas regiões mapeadas, que não alteram
+    *    o estado delas, por isso várias threads podem ler ao mesmo tempo.
+    * </p>
+    * @param indice índice da amostra.
+    * @param deslocamento posição do primeiro valor dentro da amostra.
+    * @param buffer array de destino.
+    * @param quantidade quantidade de valores copiados.
+    */
+   private void ler(int indice, int deslocamento, double[] buffer, int quantidade){
+      if(indice < 0 || indice >= this.tamanho){
+         throw new IndexOutOfBoundsException(
+            "Índice (" + indice + ") fora do conjunto de " + this.tamanho + " amostras."
+         );
+      }
+
+      int bloco = indice / this.amostrasPorBloco;
+      int pos = (indice % this.amostrasPorBloco) * (this.tamanhoEntrada + this.tamanhoSaida) + deslocamento;
+
+      if(this.blocosDouble != null){
+         this.blocosDouble[bloco].get(pos, buffer, 0, quantidade);
+
+      }else{
+         FloatBuffer valores = this.blocosFloat[bloco];
+         for(int i = 0; i < quantidade; i++){
+            buffer[i] = valores.get(pos + i);
+         }
+      }
+   }
+
+   /**
+    * Escreve um conjunto de dados no formato binário lido por esta classe.
+    * <p>
+    *    O conjunto é percorrido sequencialmente, então conjuntos maiores que a memória
+    *    (como um {@link ConjuntoCsv}) podem ser convertidos.
+    * </p>
+    * @param dados conjunto de dados de origem.
+    * @param caminho caminho do arquivo que será criado (ou sobrescrito).
+    * @param tipo tipo usado para armazenar os valores, {@code Double.TYPE} ou {@code Float.TYPE}.
+    * @throws IllegalArgumentException se o tipo não for suportado.
+    * @throws UncheckedIOException se houver algum erro ao escrever o arquivo.
+    */
+   public static void escrever(ConjuntoDados dados, String caminho, Class<?> tipo){
+      if(tipo != Double.TYPE && tipo != Float.TYPE){
+         throw new IllegalArgumentException("Tipo \"" + tipo.getSimpleName() + "\" não suportado.");
+      }
+
+      int bytesValor = (tipo == Double.TYPE) ? Double.BYTES : Float.BYTES;
+      int tamEntrada = dados.tamanhoEntrada();
+      int tamSaida = dados.tamanhoSaida();
+      double[] entrada = new double[tamEntrada];
+      double[] saida = new double[tamSaida];
+
+      long bytesLinha = (long) (tamEntrada + tamSaida) * bytesValor;
+      ByteBuffer buffer = ByteBuffer.allocate((int) Math.max(bytesLinha, 1 << 20)).order(ByteOrder.LITTLE_ENDIAN);
+
+      try(FileChannel canal = FileChannel.open(
+         Path.of(caminho), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)){
+         
+         //o cabeçalho é escrito por último, quando a quantidade de amostras é conhecida
+         canal.position(TAMANHO_CABECALHO);
+
+         long amostras = 0;
+         dados.reiniciar();
+         while(dados.proxima()){
+            if(buffer.remaining() < bytesLinha){
+               esvaziar(buffer, canal);
+            }
+
+            double[] e = dados.entradaAtual(entrada);
+            double[] s = dados.saidaAtual(saida);
+            for(int i = 0; i < tamEntrada; i++){
+               if(bytesValor == Double.BYTES) buffer.putDouble(e[i]);
+               else buffer.putFloat((float) e[i]);
+            }
+            for(int i = 0; i < tamSaida; i++){
+               if(bytesValor == Double.BYTES) buffer.putDouble(s[i]);
+               else buffer.putFloat((float) s[i]);
+            }
+            amostras++;
+         }
+         esvaziar(buffer, canal);
+
+         buffer.putInt(IDENTIFICADOR);
+         buffer.putInt(VERSAO);
+         buffer.putInt(bytesValor);
+         buffer.putInt(tamEntrada);
+         buffer.putInt(tamSaida);
+         buffer.putLong(amostras);
+         buffer.putInt(0);
+         buffer.flip();
+         long pos = 0;
+         while(buffer.hasRemaining()){
+            pos += canal.write(buffer, pos);
+         }
+
+      }catch(IOException e){
+         throw new UncheckedIOException("Erro ao escrever o arquivo \"" + caminho + "\".", e);
+      }
+   }
+
+   /**
+    * Escreve o conteúdo do buffer no canal e o deixa pronto para receber mais dados.
+    * @param buffer buffer com os dados.
+    * @param canal canal de escrita.
+    */
+   private static void esvaziar(ByteBuffer buffer, FileChannel canal) throws IOException{
+      buffer.flip();
+      while(buffer.hasRemaining()){
+         canal.write(buffer);
+      }
+      buffer.clear();
+   }
+}
@@ -0,0 +1,243 @@
+package rna.dados;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Conjunto de dados lido sequencialmente de um arquivo de texto, sem carregar
+ * o arquivo inteiro em memória.
+ * <p>
+ *    Cada linha do arquivo corresponde a uma amostra, contendo primeiro os valores
+ *    de entrada e em seguida os valores de saída, separados pelo separador configurado.
+ *    Linhas em branco são ignoradas.
+ * </p>
+ * <pre>
+ *0.5,1.2,3.0,1,0
+ *0.1,0.7,2.2,0,1
+ * </pre>
+ * <p>
+ *    O arquivo é percorrido uma vez na criação do conjunto para contar as amostras e
+ *    é lido novamente a cada chamada de {@link #reiniciar()}, então apenas a amostra
+ *    atual fica em memória. Como a leitura é apenas sequencial, o treino usa as amostras
+ *    na ordem do arquivo, sem embaralhamento.
+ * </p>
+ */
+public class ConjuntoCsv extends ConjuntoDados implements AutoCloseable{
+
+   /**
+    * Caminho do arquivo.
+    */
+   private final String caminho;
+
+   /**
+    * Quantidade de valores de entrada de cada linha.
+    */
+   private final int tamanhoEntrada;
+
+   /**
+    * Quantidade de valores de saída de cada linha.
+    */
+   private final int tamanhoSaida;
+
+   /**
+    * Caractere que separa os valores de cada linha.
+    */
+   private final char separador;
+
+   /**
+    * Quantidade de amostras do arquivo.
+    */
+   private final int tamanho;
+
+   /**
+    * Leitor da leitura sequencial atual, nulo quando não há leitura em andamento.
+    */
+   private BufferedReader leitor;
+
+   /**
+    * Valores da amostra atual, entrada seguida da saída.
+    */
+   private final double[] linha;
+
+   /**
+    * Número da linha atual do arquivo, usado nas mensagens de erro.
+    */
+   private int numeroLinha;
+
+   /**
+    * Instancia um conjunto de dados a partir de um arquivo de texto.
+    * @param caminho caminho do arquivo.
+    * @param tamanhoEntrada quantidade de valores de entrada de cada linha.
+    * @param tamanhoSaida quantidade de valores de saída de cada linha.
+    * @param separador caractere que separa os valores de cada linha.
+    * @throws IllegalArgumentException se os tamanhos forem menores que um ou se o
+    * arquivo não contiver nenhuma amostra.
+    * @throws UncheckedIOException se houver algum erro ao ler o arquivo.
+    */
+   public ConjuntoCsv(String caminho, int tamanhoEntrada, int tamanhoSaida, char separador){
+      if(tamanhoEntrada < 1 || tamanhoSaida < 1){
+         throw new IllegalArgumentException(
+            "Os tamanhos de entrada (" + tamanhoEntrada + ") e saída (" + tamanhoSaida + 
+            ") devem ser maiores que zero."
+         );
+      }
+
+      this.caminho = caminho;
+      this.tamanhoEntrada = tamanhoEntrada;
+      this.tamanhoSaida = tamanhoSaida;
+      this.separador = separador;
+      this.linha = new double[tamanhoEntrada + tamanhoSaida];
+      this.tamanho = contarAmostras();
+
+      if(this.tamanho == 0){
+         throw new IllegalArgumentException(
+            "O arquivo \"" + caminho + "\" não contém nenhuma amostra."
+         );
+      }
+   }
+
+   /**
+    * Instancia um conjunto de dados a partir de um arquivo de texto com os valores
+    * separados por vírgula.
+    * @param caminho caminho do arquivo.
+    * @param tamanhoEntrada quantidade de valores de entrada de cada linha.
+    * @param tamanhoSaida quantidade de valores de saída de cada linha.
+    * @throws IllegalArgumentException se os tamanhos forem menores que um ou se o
+    * arquivo não contiver nenhuma amostra.
+    * @throws UncheckedIOException se houver algum erro ao ler o arquivo.
+    */
+   public ConjuntoCsv(String caminho, int tamanhoEntrada, int tamanhoSaida){
+      this(caminho, tamanhoEntrada, tamanhoSaida, ',');
+   }
+
+   /**
+    * Conta as linhas não vazias do arquivo.
+    * @return quantidade de amostras.
+    */
+   private int contarAmostras(){
+      int amostras = 0;
+      try(BufferedReader reader = new BufferedReader(new FileReader(this.caminho))){
+         String texto;
+         while((texto = reader.readLine()) != null){
+            if(!texto.isBlank()) amostras++;
+         }
+
+      }catch(IOException e){
+         throw new UncheckedIOException("Erro ao ler o arquivo \"" + this.caminho + "\".", e);
+      }
+
+      return amostras;
+   }
+
+   @Override
+   public int tamanho(){
+      return this.tamanho;
+   }
+
+   @Override
+   public int tamanhoEntrada(){
+      return this.tamanhoEntrada;
+   }
+
+   @Override
+   public int tamanhoSaida(){
+      return this.tamanhoSaida;
+   }
+
+   @Override
+   public void reiniciar(){
+      close();
+      try{
+         this.leitor = new BufferedReader(new FileReader(this.caminho));
+         this.numeroLinha = 0;
+
+      }catch(IOException e){
+         throw new UncheckedIOException("Erro ao abrir o arquivo \"" + this.caminho + "\".", e);
+      }
+   }
+
+   @Override
+   public boolean proxima(){
+      if(this.leitor == null){
+         return false;
+      }
+
+      try{
+         String texto;
+         do{
+            texto = this.leitor.readLine();
+            this.numeroLinha++;
+         }while(texto != null && texto.isBlank());
+
+         if(texto == null){
+            close();
+            return false;
+         }
+
+         lerValores(texto);
+         return true;
+
+      }catch(IOException e){
+         close();
+         throw new UncheckedIOException("Erro ao ler o arquivo \"" + this.caminho + "\".", e);
+      }
+   }
+
+   /**
+    * Converte os valores da linha de texto para o array da amostra atual.
+    * @param texto linha do arquivo.
+    */
+   private void lerValores(String texto){
+      int inicio = 0;
+      for(int i = 0; i < this.linha.length; i++){
+         int fim = texto.indexOf(this.separador, inicio);
+         if(fim < 0) fim = texto.length();
+
+         if(inicio > texto.length() || (i == this.linha.length-1 && fim != texto.length())){
+            throw new IllegalArgumentException(
+               "A linha " + this.numeroLinha + " do arquivo \"" + this.caminho + 
+               "\" deve conter " + this.linha.length + " valores."
+            );
+         }
+
+         try{
+            this.linha[i] = Double.parseDouble(texto.substring(inicio, fim).trim());
+         }catch(NumberFormatException e){
+            throw new IllegalArgumentException(
+               "Valor inválido na linha " + this.numeroLinha + " do arquivo \"" + this.caminho + "\".", e
+            );
+         }
+
+         inicio = fim + 1;
+      }
+   }
+
+   @Override
+   public double[] entradaAtual(double[] buffer){
+      System.arraycopy(this.linha, 0, buffer, 0, this.tamanhoEntrada);
+      return buffer;
+   }
+
+   @Override
+   public double[] saidaAtual(double[] buffer){
+      System.arraycopy(this.linha, this.tamanhoEntrada, buffer, 0, this.tamanhoSaida);
+      return buffer;
+   }
+
+   /**
+    * Encerra a leitura sequencial em andamento, caso exista.
+    */
+   @Override
+   public void close(){
+      if(this.leitor != null){
+         try{
+            this.leitor.close();
+         }catch(IOException e){
+            //nada a fazer, o leitor não será mais usado
+         }
+         this.leitor = null;
+      }
+   }
+}
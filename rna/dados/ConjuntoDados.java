@@ -0,0 +1,111 @@
+package rna.dados;
+
+/**
+ * Classe base para os conjuntos de dados usados no treino da Rede Neural.
+ * <p>
+ *    Um conjunto de dados fornece pares de amostras de entrada e saída sem exigir
+ *    que todas estejam carregadas em memória no formato {@code double[][]}. Todo
+ *    conjunto pode ser percorrido sequencialmente:
+ * </p>
+ * <pre>
+ *dados.reiniciar();
+ *while(dados.proxima()){
+ *   double[] entrada = dados.entradaAtual(bufferEntrada);
+ *   double[] saida = dados.saidaAtual(bufferSaida);
+ *}
+ * </pre>
+ * <p>
+ *    Conjuntos que permitem acesso aleatório (veja {@link ConjuntoAleatorio}) também podem
+ *    ser lidos por índice, o que permite embaralhar a ordem das amostras e dividi-las entre
+ *    threads durante o treino.
+ * </p>
+ * <p>
+ *    Os métodos de leitura recebem um buffer que pode ser usado para armazenar a amostra.
+ *    O array retornado é o próprio buffer ou um array do conjunto que não é alterado durante
+ *    o treino, o que permite que conjuntos em memória sejam usados sem nenhuma cópia.
+ * </p>
+ */
+public abstract class ConjuntoDados{
+
+   /**
+    * Retorna a quantidade de amostras do conjunto.
+    * @return quantidade de amostras.
+    */
+   public abstract int tamanho();
+
+   /**
+    * Retorna a quantidade de elementos de cada amostra de entrada.
+    * @return tamanho das entradas.
+    */
+   public abstract int tamanhoEntrada();
+
+   /**
+    * Retorna a quantidade de elementos de cada amostra de saída.
+    * @return tamanho das saídas.
+    */
+   public abstract int tamanhoSaida();
+
+   /**
+    * Indica se o conjunto permite ler as amostras por índice.
+    * @return true caso o conjunto suporte acesso aleatório, false caso
+    * só possa ser lido sequencialmente.
+    */
+   public boolean acessoAleatorio(){
+      return false;
+   }
+
+   /**
+    * Lê a amostra de entrada do índice fornecido.
+    * @param indice índice da amostra.
+    * @param buffer array com tamanho {@code tamanhoEntrada()} que pode ser usado para
+    * armazenar a amostra.
+    * @return dados de entrada da amostra.
+    * @throws UnsupportedOperationException se o conjunto não suportar acesso aleatório.
+    */
+   public double[] obterEntrada(int indice, double[] buffer){
+      throw new UnsupportedOperationException(
+         "O conjunto de dados \"" + getClass().getSimpleName() + "\" não suporta acesso aleatório."
+      );
+   }
+
+   /**
+    * Lê a amostra de saída do índice fornecido.
+    * @param indice índice da amostra.
+    * @param buffer array com tamanho {@code tamanhoSaida()} que pode ser usado para
+    * armazenar a amostra.
+    * @return dados de saída da amostra.
+    * @throws UnsupportedOperationException se o conjunto não suportar acesso aleatório.
+    */
+   public double[] obterSaida(int indice, double[] buffer){
+      throw new UnsupportedOperationException(
+         "O conjunto de dados \"" + getClass().getSimpleName() + "\" não suporta acesso aleatório."
+      );
+   }
+
+   /**
+    * Posiciona a leitura sequencial antes da primeira amostra do conjunto.
+    */
+   public abstract void reiniciar();
+
+   /**
+    * Avança a leitura sequencial para a próxima amostra.
+    * @return true caso exista uma próxima amostra, false caso o conjunto tenha terminado.
+    */
+   public abstract boolean proxima();
+
+   /**
+    * Lê a amostra de entrada atual da leitura sequencial.
+    * @param buffer array com tamanho {@code tamanhoEntrada()} que pode ser usado para
+    * armazenar a amostra.
+    * @return dados de entrada da amostra atual.
+    */
+   public abstract double[] entradaAtual(double[] buffer);
+
+   /**
+    * Lê a amostra de saída atual da leitura sequencial.
+    * @param buffer array com tamanho {@code tamanhoSaida()} que pode ser usado para
+    * armazenar a amostra.
+    * @return dados de saída da amostra atual.
+    */
+   public abstract double[] saidaAtual(double[] buffer);
+}
@@ -0,0 +1,87 @@
+package rna.dados;
+
+/**
+ * Conjunto de dados mantido em memória no formato {@code double[][]}.
+ * <p>
+ *    Os arrays fornecidos não são copiados, as amostras são lidas diretamente
+ *    das suas linhas, então eles não devem ser alterados durante o treino.
+ * </p>
+ */
+public class ConjuntoMemoria extends ConjuntoAleatorio{
+
+   /**
+    * Amostras de entrada.
+    */
+   private final double[][] entradas;
+
+   /**
+    * Amostras de saída.
+    */
+   private final double[][] saidas;
+
+   /**
+    * Instancia um conjunto de dados em memória.
+    * @param entradas amostras de entrada, uma por linha.
+    * @param saidas amostras de saída correspondentes às entradas.
+    * @throws IllegalArgumentException se as quantidades de amostras de entrada e
+    * saída forem diferentes ou se o conjunto estiver vazio.
+    */
+   public ConjuntoMemoria(double[][] entradas, double[][] saidas){
+      if(entradas.length != saidas.length){
+         throw new IllegalArgumentException(
+            "Quantidade de amostras de dados de entrada (" + entradas.length +
+            ") e saída (" + saidas.length + 
+            ") devem ser iguais."
+         );
+      }
+      if(entradas.length == 0){
+         throw new IllegalArgumentException(
+            "O conjunto de dados deve conter ao menos uma amostra."
+         );
+      }
+
+      this.entradas = entradas;
+      this.saidas = saidas;
+   }
+
+   @Override
+   public int tamanho(){
+      return this.entradas.length;
+   }
+
+   @Override
+   public int tamanhoEntrada(){
+      return this.entradas[0].length;
+   }
+
+   @Override
+   public int tamanhoSaida(){
+      return this.saidas[0].length;
+   }
+
+   @Override
+   public double[] obterEntrada(int indice, double[] buffer){
+      return this.entradas[indice];
+   }
+
+   @Override
+   public double[] obterSaida(int indice, double[] buffer){
+      return this.saidas[indice];
+   }
+
+   /**
+    * Retorna as amostras de entrada do conjunto.
+    * @return matriz de entradas, sem cópia.
+    */
+   public double[][] obterEntradas(){
+      return this.entradas;
+   }
+
+   /**
+    * Retorna as amostras de saída do conjunto.
+    * @return matriz de saídas, sem cópia.
+    */
+   public double[][] obterSaidas(){
+      return this.saidas;
+   }
+}
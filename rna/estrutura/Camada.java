@@ -6,6 +6,7 @@ import rna.ativacoes.ReLU;
 import rna.serializacao.DicionarioAtivacoes;
 
 import rna.inicializadores.Inicializador;
+import rna.matematica.AlgebraLinear;
 
 /**
  * Representa uma camada densa de neurônios dentro da Rede Neural.
@@ -27,12 +28,22 @@ import rna.inicializadores.Inicializador;
  *    Toda camada instanciada só pode ser usada depois da instanciação e inicialização de
  *    seus atributos por meio do método {@code inicializar()}.
  * </p>
- * Exemplificação da organização de neurônios dentro da camada:
+ * <p>
+ *    Os pesos de todos os neurônios ficam armazenados num único array contíguo, organizado
+ *    por linhas, onde cada linha corresponde aos pesos de um neurônio. Os valores de bias
+ *    ficam num vetor separado. Os neurônios da camada funcionam apenas como visões sobre
+ *    esses dados.
+ * </p>
+ * Exemplificação da organização dos pesos dentro da camada:
  * <pre>
- * camada.neuronios = [
- *    n0,
- *    n1,
- *    n2
+ * camada.pesos = [
+ *    p00, p01, p02, //n0
+ *    p10, p11, p12, //n1
+ *    p20, p21, p22  //n2
+ * ]
+ * 
+ * camada.bias = [
+ *    b0, b1, b2
  * ]
  * </pre>
  */
@@ -42,7 +53,82 @@ public class Camada implements Cloneable{
     * <p>
     *    Região crítica.
     * </p>
-    * Conjunto de neurônios artificiais da camada.
+    * Pesos de todos os neurônios da camada, organizados por linha.
+    * <p>
+    *    O peso da conexão {@code j} do neurônio {@code i} fica localizado 
+    *    no índice {@code i * tamanhoEntrada + j}.
+    * </p>
+    */
+   public double[] pesos;
+
+   /**
+    * Valores de bias de cada neurônio da camada.
+    * <p>
+    *    Caso a camada não possua bias configurado, o vetor terá tamanho zero.
+    * </p>
+    */
+   public double[] bias;
+
+   /**
+    * Gradientes dos pesos da camada, utilizados pelos otimizadores para
+    * ajustar os pesos durante o treinamento.
+    * <p>
+    *    Segue a mesma organização do array de pesos.
+    * </p>
+    */
+   public double[] gradPesos;
+
+   /**
+    * Gradientes dos bias da camada.
+    */
+   public double[] gradBias;
+
+   /**
+    * Auxiliar usado durante o treinamento em lotes. Soma os
+    * gradientes dos pesos.
+    */
+   public double[] gradAcumuladoPesos;
+
+   /**
+    * Auxiliar usado durante o treinamento em lotes. Soma os
+    * gradientes dos bias.
+    */
+   public double[] gradAcumuladoBias;
+
+   /**
+    * Referência aos últimos dados de entrada processados pela camada.
+    * <p>
+    *    Os dados não são copiados, a camada apenas guarda o array recebido em
+    *    {@code calcularSaida()}, que é o mesmo usado pela retropropagação. Por isso o
+    *    array de entrada não deve ser alterado entre a propagação e o cálculo dos
+    *    gradientes.
+    * </p>
+    * <p>
+    *    Fica nulo até a primeira chamada de {@code calcularSaida()}.
+    * </p>
+    */
+   public double[] entrada;
+
+   /**
+    * Resultado do produto entre os dados de entrada com os pesos de cada
+    * neurônio com a adição do bias (se houver).
+    */
+   public double[] somatorio;
+
+   /**
+    * Resultado da derivada da função de ativação aplicada ao somatório
+    * de cada neurônio.
+    */
+   public double[] derivada;
+
+   /**
+    * Gradiente local de cada neurônio, utilizado durante o treinamento
+    * na etapa de backpropagation.
+    */
+   public double[] gradiente;
+
+   /**
+    * Visões dos neurônios da camada.
     */
    Neuronio[] neuronios;
 
@@ -55,12 +141,12 @@ public class Camada implements Cloneable{
     * Auxiliar na verificação de bias aplicado aos
     * neurônios da camada.
     */
-   private boolean bias;
+   boolean usarBias;
 
    /**
     * Capacidade de entrada de dados da camada.
     */
-   private int tamanhoEntrada;
+   int tamanhoEntrada;
 
    /**
     * Função de ativação da camada que atuará no resultado do somatório entre
@@ -97,7 +183,7 @@ public class Camada implements Cloneable{
    public Camada(int neuronios, boolean usarBias){
       this.neuronios = new Neuronio[neuronios];
 
-      this.bias = usarBias;
+      this.usarBias = usarBias;
       this.ativacao = new ReLU();
    }
 
@@ -129,17 +215,61 @@ public class Camada implements Cloneable{
          throw new IllegalArgumentException("O inicializador não pode ser nulo.");
       }
 
-      this.tamanhoEntrada = entrada;
-      this.saida = new double[this.neuronios.length];
+      this.alocar(entrada);
 
-      for(int i = 0; i < this.neuronios.length; i++){
-         this.neuronios[i] = new Neuronio(entrada, this.bias);
-         this.neuronios[i].inicializarPesos(inicializador, alcancePeso, this.neuronios.length);
+      int n = this.neuronios.length;
+      for(int i = 0; i < n; i++){
+         this.neuronios[i] = new Neuronio(this, i);
+         this.neuronios[i].inicializarPesos(inicializador, alcancePeso, n);
       }
 
       this.inicializada = true;//camada pode ser usada
    }
 
+   /**
+    * Aloca os arrays de pesos, gradientes e resultados da camada, com todos os
+    * valores zerados.
+    * @param entrada capacidade de dados de entrada da camada.
+    */
+   private void alocar(int entrada){
+      int n = this.neuronios.length;
+      this.tamanhoEntrada = entrada;
+
+      this.pesos = new double[n * entrada];
+      this.gradPesos = new double[n * entrada];
+      this.gradAcumuladoPesos = new double[n * entrada];
+
+      int numBias = (this.usarBias) ? n : 0;
+      this.bias = new double[numBias];
+      this.gradBias = new double[numBias];
+      this.gradAcumuladoBias = new double[numBias];
+
+      this.somatorio = new double[n];
+      this.derivada = new double[n];
+      this.gradiente = new double[n];
+      this.saida = new double[n];
+   }
+
+   /**
+    * Cria a camada de um único neurônio usada para armazenar os dados de um
+    * neurônio instanciado fora de uma Rede Neural.
+    * <p>
+    *    Os pesos da camada são iniciados com zero e ela já é considerada inicializada.
+    * </p>
+    * @param neuronio neurônio que será a visão da camada.
+    * @param entrada capacidade de entrada do neurônio.
+    * @param usarBias define se o neurônio terá bias.
+    * @return camada que armazena os dados do neurônio.
+    */
+   static Camada avulsa(Neuronio neuronio, int entrada, boolean usarBias){
+      Camada camada = new Camada(1, usarBias);
+      camada.alocar(entrada);
+      camada.neuronios[0] = neuronio;
+      camada.inicializada = true;
+
+      return camada;
+   }
+
    /**
     * Verificador de inicialização da camada para evitar problemas.
     * @throws IllegalArgumentException caso a camada não esteja inicializada.
@@ -218,19 +348,103 @@ public class Camada implements Cloneable{
     *    Para obter o resultado da propagação dos dados pela camada, é necessário usar o método
     *    {@code obterSaida()}
     * </p>
+    * <p>
+    *    O somatório dos neurônios é calculado pelo produto entre a matriz de pesos da
+    *    camada e o vetor de entrada, usando os núcleos de {@code AlgebraLinear}.
+    * </p>
+    * <p>
+    *    A camada guarda apenas a referência do array de entrada, sem copiá-lo, então ele
+    *    não deve ser alterado enquanto seus valores ainda forem necessários pelo treino.
+    * </p>
     * @param entrada dados de entrada que serão processados pelos neurônios.
+    * @throws IllegalArgumentException se o tamanho dos dados de entrada for diferente
+    * da capacidade de entrada da camada.
     */
    public void calcularSaida(double[] entrada){
       this.verificarInicializacao();
 
-      for(int i = 0; i < this.neuronios.length; i++){
-         this.neuronios[i].calcularSaida(entrada);
+      if(entrada.length != this.tamanhoEntrada){
+         throw new IllegalArgumentException(
+            "Incompatibilidade de tamanho entre os dados de entrada (" + entrada.length +
+            ") e a entrada da camada (" + this.tamanhoEntrada + ")."
+         );
+      }
+
+      this.entrada = entrada;
+
+      int n = this.neuronios.length;
+      AlgebraLinear.gemv(n, this.tamanhoEntrada, this.pesos, 0, this.tamanhoEntrada, this.entrada, 0, this.somatorio, 0);
+      if(this.usarBias){
+         for(int i = 0; i < n; i++){
+            this.somatorio[i] += this.bias[i];
+         }
+      }
+
+      this.ativacao.calcular(this.somatorio, this.saida, n);
+   }
+
+   /**
+    * Alimenta um bloco de amostras pelos neurônios da camada de uma única vez, realizando
+    * o produto matricial entre as entradas e a matriz de pesos, adicionando bias e aplicando
+    * a função de ativação.
+    * <p>
+    *    Os dados de entrada e saída devem estar organizados por linhas, onde cada linha
+    *    corresponde a uma amostra:
+    * </p>
+    * <pre>
+    * entradas = [amostras x tamanhoEntrada]
+    * saidas   = [amostras x quantidadeNeuronios]
+    * </pre>
+    * <p>
+    *    O produto é feito em blocos por {@code AlgebraLinear.gemmNT()}, reaproveitando as
+    *    linhas de pesos para várias amostras enquanto ainda estão em cache e evitando as
+    *    cópias e chamadas feitas por amostra no cálculo individual.
+    * </p>
+    * O resultado fica apenas no array de saídas fornecido, sem alterar os valores de
+    * somatório e saída salvos na camada.
+    * @param entradas bloco de dados de entrada, organizado por linhas.
+    * @param saidas bloco onde serão escritos os resultados, organizado por linhas.
+    * @param amostras quantidade de amostras contidas no bloco.
+    * @throws IllegalArgumentException se os tamanhos dos blocos forem incompatíveis com a
+    * quantidade de amostras fornecida.
+    */
+   public void calcularSaidaLote(double[] entradas, double[] saidas, int amostras){
+      this.somatorioLote(entradas, saidas, amostras);
+
+      //ativação aplicada diretamente no bloco de saídas
+      this.ativacao.calcularLote(saidas, saidas, amostras, this.neuronios.length);
+   }
+
+   /**
+    * Calcula apenas o somatório (produto com os pesos mais o bias) de um bloco de
+    * amostras, sem aplicar a função de ativação.
+    * @param entradas bloco de dados de entrada, organizado por linhas.
+    * @param somatorios bloco onde serão escritos os somatórios, organizado por linhas.
+    * @param amostras quantidade de amostras contidas no bloco.
+    * @throws IllegalArgumentException se os tamanhos dos blocos forem incompatíveis com a
+    * quantidade de amostras fornecida.
+    */
+   void somatorioLote(double[] entradas, double[] somatorios, int amostras){
+      this.verificarInicializacao();
+
+      int n = this.neuronios.length;
+      int m = this.tamanhoEntrada;
+      if(entradas.length < amostras * m || somatorios.length < amostras * n){
+         throw new IllegalArgumentException(
+            "Tamanho dos blocos de entrada (" + entradas.length + ") e saída (" + somatorios.length + 
+            ") incompatíveis com a quantidade de amostras (" + amostras + ")."
+         );
       }
-      this.ativacao.calcular(this);
 
-      //copiar valores de saída dos neurônios para a saída da camada
-      for(int i = 0; i < this.neuronios.length; i++){
-         this.saida[i] = this.neuronios[i].saida;
+      //produto matricial somatorios = entradas * pesosᵀ
+      AlgebraLinear.gemmNT(amostras, n, m, entradas, 0, m, this.pesos, 0, m, somatorios, 0, n);
+      if(this.usarBias){
+         for(int a = 0; a < amostras; a++){
+            int linha = a * n;
+            for(int i = 0; i < n; i++){
+               somatorios[linha + i] += this.bias[i];
+            }
+         }
       }
    }
 
@@ -238,13 +452,13 @@ public class Camada implements Cloneable{
     * Executa a derivada da função de ativação específica da camada
     * em todos os neurônios dela.
     * <p>
-    *    O resultado da derivada de cada neurônio é salvo na 
-    *    propriedade {@code neuronio.derivada}.
+    *    O resultado da derivada de cada neurônio é salvo no 
+    *    array {@code camada.derivada}.
     * </p>
     */
    public void ativacaoDerivada(){
       this.verificarInicializacao();
-      this.ativacao.derivada(this);
+      this.ativacao.derivada(this.somatorio, this.saida, this.derivada, this.neuronios.length);
    }
 
    /**
@@ -307,7 +521,7 @@ public class Camada implements Cloneable{
     */
    public boolean temBias(){
       this.verificarInicializacao();
-      return this.bias;
+      return this.usarBias;
    }
 
    /**
@@ -319,11 +533,7 @@ public class Camada implements Cloneable{
    public int numParametros(){
       this.verificarInicializacao();
 
-      int parametros = 0;
-      for(Neuronio neuronio : this.neuronios){
-         parametros += neuronio.numPesos();
-      }
-      return parametros;
+      return this.pesos.length + this.bias.length;
    }
 
    /**
@@ -396,7 +606,7 @@ public class Camada implements Cloneable{
       
       if(this.inicializada){
          buffer += espacamento + "Quantidade de conexões: " + this.numParametros() + "\n";
-         buffer += espacamento + "Bias: " + this.bias + "\n";
+         buffer += espacamento + "Bias: " + this.usarBias + "\n";
          buffer += espacamento + "Tamanho Entrada: " + this.tamanhoEntrada + "\n";
          
       }else{
@@ -410,6 +620,78 @@ public class Camada implements Cloneable{
       return buffer;
    }
 
+   /**
+    * Cria uma réplica da camada que compartilha os arrays de {@code pesos} e {@code bias}
+    * com a camada original, mas possui seus próprios arrays de entrada, somatório, saída,
+    * derivada, gradiente local e gradientes dos pesos.
+    * <p>
+    *    Réplicas permitem que várias threads propaguem dados e calculem gradientes usando
+    *    os mesmos pesos ao mesmo tempo sem cópias, desde que os pesos não sejam alterados
+    *    enquanto elas estão em uso. Qualquer atualização feita nos pesos da camada original
+    *    é vista imediatamente pelas réplicas.
+    * </p>
+    * @return réplica da camada com pesos compartilhados.
+    */
+   public Camada replicar(){
+      return replicar(true);
+   }
+
+   /**
+    * Verifica se a camada é uma réplica ainda válida da camada fornecida, ou seja,
+    * se compartilha os mesmos arrays de pesos e bias e usa a mesma função de ativação.
+    * @param camada camada original.
+    * @return true caso a camada seja uma réplica válida da original, false caso contrário.
+    */
+   public boolean replicaDe(Camada camada){
+      return this.pesos == camada.pesos &&
+         this.bias == camada.bias &&
+         this.ativacao == camada.ativacao;
+   }
+
+   /**
+    * Cria uma réplica da camada com pesos compartilhados destinada apenas à propagação
+    * dos dados, sem alocar os arrays usados no cálculo dos gradientes.
+    * @return réplica da camada para inferência.
+    */
+   Camada replicarInferencia(){
+      return replicar(false);
+   }
+
+   /**
+    * Cria a réplica da camada com pesos compartilhados.
+    * @param treino se verdadeiro, aloca também os arrays usados pelo treinamento.
+    * @return réplica da camada.
+    */
+   private Camada replicar(boolean treino){
+      verificarInicializacao();
+
+      try{
+         Camada replica = (Camada) super.clone();
+
+         int n = this.neuronios.length;
+         replica.pesos = this.pesos;
+         replica.bias = this.bias;
+         replica.gradPesos = new double[treino ? this.gradPesos.length : 0];
+         replica.gradBias = new double[treino ? this.gradBias.length : 0];
+         replica.gradAcumuladoPesos = new double[treino ? this.gradAcumuladoPesos.length : 0];
+         replica.gradAcumuladoBias = new double[treino ? this.gradAcumuladoBias.length : 0];
+         replica.entrada = null;
+         replica.somatorio = new double[n];
+         replica.derivada = new double[treino ? n : 0];
+         replica.gradiente = new double[treino ? n : 0];
+         replica.saida = new double[n];
+
+         replica.neuronios = new Neuronio[n];
+         for(int i = 0; i < n; i++){
+            replica.neuronios[i] = new Neuronio(replica, i);
+         }
+
+         return replica;
+      }catch(Exception e){
+         throw new RuntimeException(e);
+      }
+   }
+
    /**
     * Clona a instância da camada, criando um novo objeto com as 
     * mesmas características mas em outro espaço de memória.
@@ -422,16 +704,26 @@ public class Camada implements Cloneable{
       try{
          Camada clone = (Camada) super.clone();
 
+         clone.pesos = this.pesos.clone();
+         clone.bias = this.bias.clone();
+         clone.gradPesos = this.gradPesos.clone();
+         clone.gradBias = this.gradBias.clone();
+         clone.gradAcumuladoPesos = this.gradAcumuladoPesos.clone();
+         clone.gradAcumuladoBias = this.gradAcumuladoBias.clone();
+         clone.entrada = (this.entrada == null) ? null : this.entrada.clone();
+         clone.somatorio = this.somatorio.clone();
+         clone.derivada = this.derivada.clone();
+         clone.gradiente = this.gradiente.clone();
+         clone.saida = this.saida.clone();
+
          clone.neuronios = new Neuronio[this.neuronios.length];
          for(int i = 0; i < clone.neuronios.length; i++){
-            clone.neuronios[i] = this.neuronio(i).clone();
+            clone.neuronios[i] = new Neuronio(clone, i);
          }
 
-         clone.saida = new double[this.saida.length];
-         System.arraycopy(this.saida, 0, clone.saida, 0, this.saida.length);
-
          clone.ativacao = this.ativacao;
-         clone.bias = this.bias;
+         clone.usarBias = this.usarBias;
+         clone.tamanhoEntrada = this.tamanhoEntrada;
          clone.inicializada = this.inicializada;
          clone.id = this.id;
 
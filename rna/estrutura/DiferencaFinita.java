@@ -0,0 +1,303 @@
+package rna.estrutura;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Treino da Rede Neural por diferenças finitas.
+ * <p>
+ *    O gradiente de cada parâmetro é estimado perturbando apenas aquele parâmetro e
+ *    medindo a variação do erro médio quadrado sobre todo o conjunto de dados. Como as
+ *    perturbações são independentes entre si, os parâmetros podem ser divididos em
+ *    faixas contíguas entre as threads de um pool, que escrevem os gradientes da sua
+ *    faixa diretamente nos arrays de gradientes da rede.
+ * </p>
+ * <p>
+ *    A cada época os somatórios e as saídas de todas as camadas são calculados uma única
+ *    vez para todas as amostras e mantidos em cache. Perturbar um parâmetro da camada
+ *    {@code L} altera apenas o somatório de um neurônio dela, em {@code eps * entrada}
+ *    (ou {@code eps} no caso do bias), então a reavaliação parte do somatório em cache
+ *    da camada {@code L} com apenas esse neurônio ajustado, e só as camadas seguintes
+ *    são recalculadas. O cache ocupa {@code 2 * amostras * neurônios} valores por camada.
+ * </p>
+ * <p>
+ *    Cada perda é calculada sempre da mesma forma, então o resultado não depende da
+ *    quantidade de threads.
+ * </p>
+ */
+class DiferencaFinita{
+
+   /**
+    * Camadas da rede treinada.
+    */
+   private final Camada[] camadas;
+
+   /**
+    * Índice global do primeiro parâmetro de cada camada, seguindo a ordem
+    * pesos e depois bias. A última posição contém o total de parâmetros.
+    */
+   private final int[] inicioCamada;
+
+   /**
+    * Pool usado para dividir os parâmetros entre threads, nulo para o cálculo sequencial.
+    */
+   private final ForkJoinPool pool;
+
+   /**
+    * Tarefas de cada thread.
+    */
+   private final Trabalhador[] trabalhadores;
+
+   /**
+    * Quantidade máxima de amostras reavaliadas de uma vez por cada tarefa.
+    */
+   private final int tamBloco;
+
+   /**
+    * Dados de entrada organizados por linhas, usados como entrada da primeira camada.
+    */
+   private double[] entradaPlana;
+
+   /**
+    * Somatórios e saídas de cada camada para todas as amostras, organizados por linhas.
+    */
+   private double[][] somatorios, ativacoes;
+
+   /**
+    * Instancia o treino por diferenças finitas.
+    * @param camadas camadas da rede.
+    * @param tamBloco quantidade máxima de amostras reavaliadas de uma vez.
+    * @param pool pool de threads, ou nulo para o cálculo sequencial.
+    */
+   DiferencaFinita(Camada[] camadas, int tamBloco, ForkJoinPool pool){
+      this.camadas = camadas;
+      this.pool = pool;
+      this.tamBloco = tamBloco;
+
+      this.inicioCamada = new int[camadas.length + 1];
+      for(int i = 0; i < camadas.length; i++){
+         this.inicioCamada[i+1] = this.inicioCamada[i] + camadas[i].pesos.length + camadas[i].bias.length;
+      }
+
+      int total = this.inicioCamada[camadas.length];
+      int quantidade = (pool == null) ? 1 : Math.max(1, Math.min(pool.getParallelism(), total));
+      this.trabalhadores = new Trabalhador[quantidade];
+      for(int t = 0; t < quantidade; t++){
+         this.trabalhadores[t] = new Trabalhador(
+            (int)((long) total * t / quantidade),
+            (int)((long) total * (t+1) / quantidade)
+         );
+      }
+   }
+
+   /**
+    * Treina a rede ajustando os pesos na direção contrária dos gradientes estimados.
+    * @param entradas dados de entrada de treino.
+    * @param saidas dados de saída correspondente a entrada.
+    * @param eps valor de perturbação.
+    * @param tA taxa de aprendizagem.
+    * @param epochs quantidade de épocas de treinamento.
+    * @param perdaMinima perda que finaliza o treino ao ser atingida.
+    */
+   void treinar(double[][] entradas, double[][] saidas, double eps, double tA, int epochs, double perdaMinima){
+      prepararCache(entradas);
+
+      for(int epocas = 0; epocas < epochs; epocas++){
+         atualizarCache();
+
+         double[] saidaRede = this.ativacoes[this.camadas.length-1];
+         double perda = somaErros(saidaRede, saidas, 0, saidas.length) / saidas.length;
+         if(perda < perdaMinima) break;
+
+         for(Trabalhador trabalhador : this.trabalhadores){
+            trabalhador.preparar(saidas, eps, perda);
+         }
+         if(this.trabalhadores.length == 1){
+            this.trabalhadores[0].invoke();
+         }else{
+            this.pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(this.trabalhadores)));
+         }
+
+         //atualizar pesos
+         for(Camada camada : this.camadas){
+            for(int i = 0; i < camada.pesos.length; i++){
+               camada.pesos[i] -= tA * camada.gradPesos[i];
+            }
+            for(int i = 0; i < camada.bias.length; i++){
+               camada.bias[i] -= tA * camada.gradBias[i];
+            }
+         }
+      }
+   }
+
+   /**
+    * Aloca o cache das camadas e copia as entradas para o formato por linhas.
+    * @param entradas dados de entrada de treino.
+    */
+   private void prepararCache(double[][] entradas){
+      int amostras = entradas.length;
+      int tamEntrada = entradas[0].length;
+
+      this.entradaPlana = new double[amostras * tamEntrada];
+      for(int i = 0; i < amostras; i++){
+         System.arraycopy(entradas[i], 0, this.entradaPlana, i * tamEntrada, tamEntrada);
+      }
+
+      this.somatorios = new double[this.camadas.length][];
+      this.ativacoes = new double[this.camadas.length][];
+      for(int i = 0; i < this.camadas.length; i++){
+         int n = amostras * this.camadas[i].quantidadeNeuronios();
+         this.somatorios[i] = new double[n];
+         this.ativacoes[i] = new double[n];
+      }
+   }
+
+   /**
+    * Calcula os somatórios e saídas de todas as camadas com os pesos atuais da rede.
+    */
+   private void atualizarCache(){
+      int amostras = this.entradaPlana.length / this.camadas[0].tamanhoEntrada();
+
+      double[] anterior = this.entradaPlana;
+      for(int i = 0; i < this.camadas.length; i++){
+         Camada camada = this.camadas[i];
+         camada.somatorioLote(anterior, this.somatorios[i], amostras);
+         camada.obterAtivacao().calcularLote(this.somatorios[i], this.ativacoes[i], amostras, camada.quantidadeNeuronios());
+         anterior = this.ativacoes[i];
+      }
+   }
+
+   /**
+    * Calcula a soma do erro médio quadrado de cada amostra fornecida.
+    * @param previsto saídas da rede organizadas por linhas, começando na amostra {@code inicio}.
+    * @param saidas dados de saída esperados.
+    * @param inicio índice da primeira amostra.
+    * @param amostras quantidade de amostras.
+    * @return soma dos erros das amostras.
+    */
+   static double somaErros(double[] previsto, double[][] saidas, int inicio, int amostras){
+      int tamSaida = saidas[0].length;
+      double emq = 0;
+      for(int i = 0; i < amostras; i++){
+         double[] real = saidas[inicio + i];
+         int linha = i * tamSaida;
+         double erro = 0;
+         for(int j = 0; j < tamSaida; j++){
+            double d = real[j] - previsto[linha + j];
+            erro += d * d;
+         }
+         emq += erro / tamSaida;
+      }
+
+      return emq;
+   }
+
+   /**
+    * Tarefa de uma thread, calcula os gradientes de uma faixa de parâmetros.
+    */
+   private class Trabalhador extends RecursiveAction{
+
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * Buffers alternados entre as camadas na reavaliação dos blocos.
+       */
+      private final double[] blocoA, blocoB;
+
+      /**
+       * Faixa de parâmetros (índices globais) da tarefa.
+       */
+      private final int inicio, fim;
+
+      private double[][] saidas;
+      private double eps;
+      private double perdaBase;
+
+      Trabalhador(int inicio, int fim){
+         this.inicio = inicio;
+         this.fim = fim;
+
+         int maiorCamada = 0;
+         for(Camada camada : camadas){
+            maiorCamada = Math.max(maiorCamada, camada.quantidadeNeuronios());
+         }
+         this.blocoA = new double[tamBloco * maiorCamada];
+         this.blocoB = new double[tamBloco * maiorCamada];
+      }
+
+      /**
+       * Configura os dados da próxima época.
+       */
+      void preparar(double[][] saidas, double eps, double perdaBase){
+         this.saidas = saidas;
+         this.eps = eps;
+         this.perdaBase = perdaBase;
+         reinitialize();
+      }
+
+      @Override
+      protected void compute(){
+         int c = 0;
+         for(int g = this.inicio; g < this.fim; g++){
+            while(g >= inicioCamada[c+1]) c++;
+
+            //parâmetro local: primeiro os pesos, depois os bias
+            Camada camada = camadas[c];
+            int id = g - inicioCamada[c];
+            int m = camada.tamanhoEntrada();
+
+            if(id < camada.pesos.length){
+               camada.gradPesos[id] = gradiente(c, id / m, id % m);
+
+            }else{
+               id -= camada.pesos.length;
+               //sem bias a perturbação não altera a saída
+               camada.gradBias[id] = camada.temBias() ? gradiente(c, id, -1) : 0;
+            }
+         }
+      }
+
+      /**
+       * Estima o gradiente de um parâmetro da camada a partir do cache.
+       * @param c índice da camada.
+       * @param neuronio neurônio ao qual o parâmetro pertence.
+       * @param entrada índice da entrada ligada ao peso, ou {@code -1} para o bias.
+       * @return gradiente estimado.
+       */
+      private double gradiente(int c, int neuronio, int entrada){
+         Camada camada = camadas[c];
+         int n = camada.quantidadeNeuronios();
+         int m = camada.tamanhoEntrada();
+         double[] anterior = (c == 0) ? entradaPlana : ativacoes[c-1];
+         int nAmostras = this.saidas.length;
+
+         double perda = 0;
+         for(int inicio = 0; inicio < nAmostras; inicio += tamBloco){
+            int amostras = Math.min(tamBloco, nAmostras - inicio);
+
+            //somatório em cache com a contribuição perturbada de um único neurônio
+            System.arraycopy(somatorios[c], inicio * n, this.blocoB, 0, amostras * n);
+            for(int i = 0; i < amostras; i++){
+               double x = (entrada < 0) ? 1 : anterior[(inicio + i) * m + entrada];
+               this.blocoB[i * n + neuronio] += this.eps * x;
+            }
+            camada.obterAtivacao().calcularLote(this.blocoB, this.blocoA, amostras, n);
+
+            //as camadas seguintes são recalculadas a partir da saída perturbada
+            double[] atual = this.blocoA;
+            double[] proximo = this.blocoB;
+            for(int i = c+1; i < camadas.length; i++){
+               camadas[i].calcularSaidaLote(atual, proximo, amostras);
+               double[] temp = atual;
+               atual = proximo;
+               proximo = temp;
+            }
+
+            perda += somaErros(atual, this.saidas, inicio, amostras);
+         }
+
+         return (perda / nAmostras - this.perdaBase) / this.eps;
+      }
+   }
+}
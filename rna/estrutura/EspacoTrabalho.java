@@ -0,0 +1,82 @@
+package rna.estrutura;
+
+/**
+ * Espaço de trabalho usado para calcular saídas da Rede Neural de forma segura
+ * entre threads.
+ * <p>
+ *    O espaço contém réplicas das camadas da rede que compartilham os mesmos arrays
+ *    de pesos e bias, mas possuem seus próprios buffers de entrada, somatório e saída.
+ *    Assim várias threads podem usar o mesmo modelo ao mesmo tempo, sem travas e sem
+ *    copiar os pesos, desde que cada uma use o seu próprio espaço de trabalho e os
+ *    pesos não sejam alterados (por exemplo, por um treino) durante o uso.
+ * </p>
+ * <p>
+ *    Um espaço de trabalho não deve ser usado por mais de uma thread ao mesmo tempo.
+ *    Caso a rede seja compilada novamente ou tenha as funções de ativação alteradas,
+ *    os espaços criados anteriormente deixam de ser válidos e precisam ser recriados.
+ * </p>
+ * Exemplo:
+ * <pre>
+ *EspacoTrabalho espaco = rede.criarEspacoTrabalho();
+ *double[] saida = rede.calcularSaida(entrada, espaco);
+ * </pre>
+ */
+public class EspacoTrabalho{
+
+   /**
+    * Camadas da rede que deram origem ao espaço de trabalho.
+    */
+   private final Camada[] origem;
+
+   /**
+    * Réplicas das camadas com pesos compartilhados.
+    */
+   final Camada[] camadas;
+
+   /**
+    * Instancia um espaço de trabalho a partir das camadas da rede.
+    * @param origem camadas da rede.
+    */
+   EspacoTrabalho(Camada[] origem){
+      this.origem = origem;
+      this.camadas = new Camada[origem.length];
+      for(int i = 0; i < origem.length; i++){
+         this.camadas[i] = origem[i].replicarInferencia();
+      }
+   }
+
+   /**
+    * Verifica se o espaço de trabalho ainda corresponde às camadas fornecidas,
+    * ou seja, se as réplicas compartilham os mesmos pesos e usam as mesmas
+    * funções de ativação.
+    * @param camadas camadas atuais da rede.
+    * @return true caso o espaço possa ser usado, false caso contrário.
+    */
+   boolean compativel(Camada[] camadas){
+      if(camadas != this.origem){
+         return false;
+      }
+
+      for(int i = 0; i < camadas.length; i++){
+         if(!this.camadas[i].replicaDe(camadas[i])){
+            return false;
+         }
+      }
+
+      return true;
+   }
+
+   /**
+    * Alimenta os dados de entrada pelas réplicas das camadas.
+    * @param entrada dados de entrada.
+    * @return array de saída da última réplica, que é reaproveitado a cada chamada.
+    */
+   double[] calcularSaida(double[] entrada){
+      this.camadas[0].calcularSaida(entrada);
+      for(int i = 1; i < this.camadas.length; i++){
+         this.camadas[i].calcularSaida(this.camadas[i-1].obterSaida());
+      }
+
+      return this.camadas[this.camadas.length-1].obterSaida();
+   }
+}
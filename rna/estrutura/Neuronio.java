@@ -10,14 +10,14 @@ import rna.inicializadores.Xavier;
 /**
  * Representa um neurônio individual dentro da estrutura da Rede Neural.
  * <p>
- *    Cada neurônio possui um conjunto de pesos para suas conexões com os 
- *    neurônios da camada anterior, além de valores de entrada, saída e 
- *    alguns parâmetros adicionais para facilitar o manuseio de durante 
- *    o treinamento.
+ *    O neurônio não armazena seus próprios dados, ele funciona como uma
+ *    visão sobre uma linha da matriz de pesos da {@code Camada} em que está
+ *    inserido. Os pesos, entradas, saídas e gradientes são lidos e escritos
+ *    diretamente nos arrays contíguos da camada.
  * </p>
- * O neurônio oferece métodos de inicialização de pesos e cálculo do somatório
- * de seus pesos multiplicados pelas entradas. Métodos de funções de ativação
- * e treino do neurônio se encontram em outros componentes da Rede Neural.
+ * O neurônio oferece métodos de inicialização de pesos e acesso aos seus
+ * valores individuais. Métodos de funções de ativação e treino do neurônio
+ * se encontram em outros componentes da Rede Neural.
  * <p>
  *    Exemplificação de organização da estrutura no neurônio:
  * </p>
@@ -29,68 +29,39 @@ import rna.inicializadores.Xavier;
  *    1 , pb
  * ]
  * </pre>
+ * Onde os pesos {@code p} correspondem a linha do neurônio na matriz de pesos
+ * da camada e o peso {@code pb} corresponde ao valor do bias do neurônio.
+ * <p>
+ *    Neurônios instanciados diretamente pelos construtores públicos não pertencem a
+ *    nenhuma camada da rede e possuem seu próprio armazenamento.
+ * </p>
  */
 public class Neuronio implements Cloneable{
 
    /**
-    * Dados de entrada que serão processados pelo neurônio.
-    */
-   public double[] entradas;
-
-   /**
-    * <p>
-    *    Região crítica
-    * </p>
-    * Representa os pesos responsáveis por associar a conexão recebida com a 
-    * intensidade que ela deve receber.
-    * Essa região é fundamental para o cálculo da saída de cada neurônio e
-    * para a propagação da informação através da Rede Neural.
-    */
-   public double[] pesos;
-
-   /**
-    * Resultado do produto entre os dados de entrada com os pesos do neurônio com 
-    * a adição do bias (se houver).
-    */
-   public double somatorio;
-
-   /**
-    * Resultado da função de ativação aplicada ao somatório do neurônio.
-    */
-   public double saida;
-
-   /**
-    * Resultado da derivada da função de ativação aplicada ao somatório do neurônio.
+    * Camada em que o neurônio está inserido e que armazena seus valores.
     */
-   public double derivada;
+   private Camada camada;
 
    /**
-    * Auxiliar utilizado durante o treinamento do neurônio na etapa de backpropagation.
-    */
-   public double gradiente;
-
-   /**
-    * Vetor de gradientes do neurônio utilizado pelos otimizadores para 
-    * ajustar os pesos da Rede Neural durante o treinamento.
-    * <p>
-    *    Cada elemento do vetor de gradientes {@code g[i]} corresponde ao 
-    *    gradiente da conexão entre a entrada {@code en[i]} e o peso 
-    *    correspondente {@code p[i]}.
-    * </p>
+    * Índice do neurônio dentro da camada.
     */
-   public double[] gradientes;
+   private int indice;
 
    /**
-    * Auxiliar usado durante o treinamento em lotes. Soma
-    * os gradientes acumulados.
+    * Indica se o neurônio possui seu próprio armazenamento, fora de uma camada da rede.
     */
-   public double[] gradientesAcumulados;
+   private boolean avulso = false;
 
    /**
-    * Constante auxiliar que ajuda no controle do bias atuando como
-    * entrada e pesos adicionais para o neurônio.
+    * Instancia uma visão de neurônio artificial sobre os dados da camada.
+    * @param camada camada que armazena os dados do neurônio.
+    * @param indice índice do neurônio dentro da camada.
     */
-   private boolean bias = true;
+   Neuronio(Camada camada, int indice){
+      this.camada = camada;
+      this.indice = indice;
+   }
 
    /**
     * Instancia um neurônio artificial.
@@ -101,21 +72,9 @@ public class Neuronio implements Cloneable{
     * @param bias aplicar víes ao neurônio.
     */
    public Neuronio(int entrada, boolean bias){
-      this.bias = bias;
-      int conexoes = entrada + ((bias) ? 1 : 0);
-
-      this.pesos = new double[conexoes];
-      this.entradas = new double[conexoes];
-      this.gradientes = new double[conexoes];
-      this.gradientesAcumulados = new double[conexoes];
-
-      this.saida = 0;
-      this.gradiente = 0;
-
-      //entrada do bias
-      if(bias){
-         this.entradas[this.entradas.length-1] = 1;
-      }
+      this.camada = Camada.avulsa(this, entrada, bias);
+      this.indice = 0;
+      this.avulso = true;
    }
 
    /**
@@ -129,7 +88,7 @@ public class Neuronio implements Cloneable{
    public Neuronio(int entrada){
       this(entrada, true);
    }
-    
+
    /**
     * Inicialza os pesos do neurônio baseado no otimizador fornecido.
     * @param inicializador inicializador usado na geração dos valores iniciais de pesos.
@@ -142,65 +101,238 @@ public class Neuronio implements Cloneable{
          throw new IllegalArgumentException("O inicializador não pode ser nulo.");
       }
 
+      //os inicializadores trabalham com o vetor completo de conexões do neurônio
+      double[] pesos = new double[this.numPesos()];
+
       if(inicializador instanceof Aleatorio || inicializador instanceof AleatorioPositivo){
-         inicializador.inicializar(this.pesos, alcance);
-      
+         inicializador.inicializar(pesos, alcance);
+
       }else if(inicializador instanceof He || inicializador instanceof LeCun){
-         inicializador.inicializar(this.pesos, this.pesos.length);
+         inicializador.inicializar(pesos, pesos.length);
 
       }else if(inicializador instanceof Xavier){
-         inicializador.inicializar(this.pesos, this.pesos.length, tamSaida);
-      
+         inicializador.inicializar(pesos, pesos.length, tamSaida);
+
       }else{
          throw new IllegalArgumentException(
-            "Inicializador (" + inicializador.getClass().getSimpleName() + 
+            "Inicializador (" + inicializador.getClass().getSimpleName() +
             ") não suportado"
          );
       }
 
       //tentar usar um valor pequeno pra ter menos influência no começo
-      if(this.bias){
-         // this.pesos[this.pesos.length-1] = 0.5;
-         this.pesos[this.pesos.length-1] = inicializador.gerarDouble() / 2;
+      if(this.temBias()){
+         pesos[pesos.length-1] = inicializador.gerarDouble() / 2;
+      }
+
+      for(int i = 0; i < pesos.length; i++){
+         this.configurarPeso(i, pesos[i]);
       }
    }
 
    /**
-    * Calcula o resultado do somatório da multiplicação entre os elementos do
-    * array de entradas pelo array de pesos. O resultado será usado como entrada 
-    * para a função de ativação.
+    * Retorna o valor do peso do neurônio de acordo com o índice fornecido.
     * <p>
-    *    Os dados devem ser carregados para a entrada previamente.
+    *    Caso o neurônio possua bias, o último índice ({@code numPesos() - 1})
+    *    corresponde ao valor do bias.
     * </p>
+    * @param id índice do peso.
+    * @return valor do peso.
+    */
+   public double obterPeso(int id){
+      int entrada = this.tamanhoEntrada();
+      if(id == entrada && this.temBias()){
+         return this.camada.bias[this.indice];
+      }
+
+      return this.camada.pesos[this.indice * entrada + id];
+   }
+
+   /**
+    * Configura o valor do peso do neurônio de acordo com o índice fornecido.
     * <p>
-    *    O algoritmo padrão do feedforward se baseia em fazer o somatório dos 
-    *    produtos entre a entrada com o peso respectivo e ao final adicionar o bias. 
-    *    Nesse modelo de arquitetura o bias é um parâmetro adicional nas entradas dos
-    *    neurônios e possui valor de saída sempre igual a 1, então é possível generalizar
-    *    num único loop.
+    *    Caso o neurônio possua bias, o último índice ({@code numPesos() - 1})
+    *    corresponde ao valor do bias.
+    * </p>
+    * @param id índice do peso.
+    * @param valor novo valor do peso.
+    */
+   public void configurarPeso(int id, double valor){
+      int entrada = this.tamanhoEntrada();
+      if(id == entrada && this.temBias()){
+         this.camada.bias[this.indice] = valor;
+
+      }else{
+         this.camada.pesos[this.indice * entrada + id] = valor;
+      }
+   }
+
+   /**
+    * Retorna o gradiente do peso do neurônio de acordo com o índice fornecido.
+    * <p>
+    *    Caso o neurônio possua bias, o último índice ({@code numPesos() - 1})
+    *    corresponde ao gradiente do bias.
+    * </p>
+    * @param id índice do peso.
+    * @return valor do gradiente do peso.
+    */
+   public double obterGradientePeso(int id){
+      int entrada = this.tamanhoEntrada();
+      if(id == entrada && this.temBias()){
+         return this.camada.gradBias[this.indice];
+      }
+
+      return this.camada.gradPesos[this.indice * entrada + id];
+   }
+
+   /**
+    * Calcula o resultado do somatório da multiplicação entre os elementos do
+    * array de entradas pelos pesos do neurônio, com a adição do bias (se houver). 
+    * O resultado será usado como entrada para a função de ativação.
+    * <p>
+    *    O resultado é salvo no somatório da camada na posição do neurônio. Neurônios 
+    *    avulsos também guardam uma cópia dos dados de entrada.
     * </p>
     * @param entrada array com os dados de entrada para alimentar o neurônio.
     * @throws IllegalArgumentException se o tamanho dos dados de entrada for diferente
     * da capacidade de entrada do neurônio.
     */
    public void calcularSaida(double[] entrada){
-      if(this.tamanhoEntrada() != entrada.length){
+      int n = this.tamanhoEntrada();
+      if(n != entrada.length){
          throw new IllegalArgumentException(
             "Incompatibilidade de tamanho entre os dados de entrada (" + entrada.length +
-            ") e a entrada do neurônio (" + this.tamanhoEntrada() + ")."
+            ") e a entrada do neurônio (" + n + ")."
          );
       }
 
-      //esse método de cópia ta sendo mais eficiente
-      //do que usar o system.arraycopy
-      for(int i = 0; i < this.tamanhoEntrada(); i++){
-         this.entradas[i] = entrada[i];
+      if(this.avulso){
+         if(this.camada.entrada == null || this.camada.entrada.length != n){
+            this.camada.entrada = new double[n];
+         }
+         System.arraycopy(entrada, 0, this.camada.entrada, 0, n);
+      }
+
+      double[] pesos = this.camada.pesos;
+      int linha = this.indice * n;
+      double soma = 0;
+      for(int i = 0; i < n; i++){
+         soma += entrada[i] * pesos[linha + i];
+      }
+      if(this.temBias()){
+         soma += this.camada.bias[this.indice];
+      }
+
+      this.camada.somatorio[this.indice] = soma;
+   }
+
+   /**
+    * Retorna o resultado do produto entre os dados de entrada com os pesos do
+    * neurônio com a adição do bias (se houver).
+    * @return somatório do neurônio.
+    */
+   public double obterSomatorio(){
+      return this.camada.somatorio[this.indice];
+   }
+
+   /**
+    * Retorna o resultado da função de ativação aplicada ao somatório do neurônio.
+    * @return saída do neurônio.
+    */
+   public double obterSaida(){
+      return this.camada.obterSaida()[this.indice];
+   }
+
+   /**
+    * Retorna o resultado da derivada da função de ativação aplicada ao
+    * somatório do neurônio.
+    * @return derivada do neurônio.
+    */
+   public double obterDerivada(){
+      return this.camada.derivada[this.indice];
+   }
+
+   /**
+    * Retorna o gradiente local do neurônio calculado durante o backpropagation.
+    * @return gradiente do neurônio.
+    */
+   public double obterGradiente(){
+      return this.camada.gradiente[this.indice];
+   }
+
+   /**
+    * Retorna uma cópia dos pesos do neurônio, incluindo o bias na última posição (se houver).
+    * @return pesos do neurônio.
+    * @deprecated substitui o antigo atributo {@code pesos}. Os pesos ficam armazenados na
+    * camada e o array retornado é uma cópia, use {@link #obterPeso(int)} e
+    * {@link #configurarPeso(int, double)} para acessar os valores diretamente.
+    */
+   @Deprecated
+   public double[] obterPesos(){
+      double[] pesos = new double[this.numPesos()];
+      for(int i = 0; i < pesos.length; i++){
+         pesos[i] = this.obterPeso(i);
+      }
+
+      return pesos;
+   }
+
+   /**
+    * Retorna uma cópia dos últimos dados de entrada processados, incluindo a entrada
+    * do bias (sempre 1) na última posição (se houver).
+    * @return entradas do neurônio.
+    * @deprecated substitui o antigo atributo {@code entradas}. As entradas ficam
+    * armazenadas na camada ({@code camada.entrada}) e o array retornado é uma cópia.
+    */
+   @Deprecated
+   public double[] obterEntradas(){
+      int n = this.tamanhoEntrada();
+      double[] entradas = new double[this.numPesos()];
+      if(this.camada.entrada != null){
+         System.arraycopy(this.camada.entrada, 0, entradas, 0, n);
       }
+      if(this.temBias()){
+         entradas[n] = 1;
+      }
+
+      return entradas;
+   }
 
-      this.somatorio = 0;
-      for(int i = 0; i < this.entradas.length; i++){
-         this.somatorio += this.entradas[i] * this.pesos[i];
+   /**
+    * Retorna uma cópia dos gradientes dos pesos do neurônio, incluindo o gradiente do
+    * bias na última posição (se houver).
+    * @return gradientes dos pesos do neurônio.
+    * @deprecated substitui o antigo atributo {@code gradientes}. Os gradientes ficam
+    * armazenados na camada e o array retornado é uma cópia, use
+    * {@link #obterGradientePeso(int)} para acessar os valores diretamente.
+    */
+   @Deprecated
+   public double[] obterGradientes(){
+      double[] gradientes = new double[this.numPesos()];
+      for(int i = 0; i < gradientes.length; i++){
+         gradientes[i] = this.obterGradientePeso(i);
       }
+
+      return gradientes;
+   }
+
+   /**
+    * Retorna uma cópia dos gradientes acumulados dos pesos do neurônio durante o treino 
+    * em lotes, incluindo o do bias na última posição (se houver).
+    * @return gradientes acumulados dos pesos do neurônio.
+    * @deprecated substitui o antigo atributo {@code gradientesAcumulados}. Os gradientes
+    * acumulados ficam armazenados na camada e o array retornado é uma cópia.
+    */
+   @Deprecated
+   public double[] obterGradientesAcumulados(){
+      int n = this.tamanhoEntrada();
+      double[] gradientes = new double[this.numPesos()];
+      System.arraycopy(this.camada.gradAcumuladoPesos, this.indice * n, gradientes, 0, n);
+      if(this.temBias()){
+         gradientes[n] = this.camada.gradAcumuladoBias[this.indice];
+      }
+
+      return gradientes;
    }
 
    /**
@@ -208,7 +340,7 @@ public class Neuronio implements Cloneable{
     * @return quantidade de conexões presentes totais.
     */
    public int numPesos(){
-      return this.pesos.length;
+      return this.tamanhoEntrada() + ((this.temBias()) ? 1 : 0);
    }
 
    /**
@@ -216,7 +348,15 @@ public class Neuronio implements Cloneable{
     * @return capacidade de entrada do neurônio.
     */
    public int tamanhoEntrada(){
-      return this.entradas.length - ((this.bias) ? 1 : 0);
+      return this.camada.tamanhoEntrada;
+   }
+
+   /**
+    * Verifica se o neurônio possui bias configurado.
+    * @return true caso possua bias, false caso contrário.
+    */
+   public boolean temBias(){
+      return this.camada.usarBias;
    }
 
    /**
@@ -229,12 +369,12 @@ public class Neuronio implements Cloneable{
    public void configurarPesos(double[] pesos){
       if(pesos.length != this.tamanhoEntrada()){
          throw new IllegalArgumentException(
-            "A quantidade de pesos fornecida (" + pesos.length + 
+            "A quantidade de pesos fornecida (" + pesos.length +
             ") é diferente da quantidade de pesos do neurônio (" + this.tamanhoEntrada() + ")"
          );
       }
 
-      System.arraycopy(pesos, 0, this.pesos, 0, pesos.length);
+      System.arraycopy(pesos, 0, this.camada.pesos, this.indice * pesos.length, pesos.length);
    }
 
    /**
@@ -244,13 +384,13 @@ public class Neuronio implements Cloneable{
     * suporte ao bias.
     */
    public void configurarBias(double bias){
-      if(!this.bias){
+      if(!this.temBias()){
          throw new IllegalArgumentException(
             "O neurônio não foi configurado para suportar um bias (viés)."
          );
       }
 
-      this.pesos[this.pesos.length-1] = bias;
+      this.camada.bias[this.indice] = bias;
    }
 
    /**
@@ -262,15 +402,15 @@ public class Neuronio implements Cloneable{
       String espacamento = "    ";
 
       buffer += "Informações " + this.getClass().getSimpleName() + " = [\n";
-      buffer += espacamento + "Bias: " + this.bias + "\n";
+      buffer += espacamento + "Bias: " + this.temBias() + "\n";
 
       buffer += espacamento + "Quantidade de pesos: " + this.numPesos() + "\n\n";
-      for(int i = 0; i < this.pesos.length; i++){
-         if(this.bias && i == this.pesos.length-1){
-            buffer += espacamento + "pb: " + this.pesos[i] + "\n";
+      for(int i = 0; i < this.numPesos(); i++){
+         if(this.temBias() && i == this.numPesos()-1){
+            buffer += espacamento + "pb: " + this.obterPeso(i) + "\n";
 
          }else{
-            buffer += espacamento + "p" + i + ": " + this.pesos[i] + "\n";
+            buffer += espacamento + "p" + i + ": " + this.obterPeso(i) + "\n";
          }
       }
 
@@ -282,21 +422,26 @@ public class Neuronio implements Cloneable{
    /**
     * Clona a instância do neurônio, criando um novo objeto com as 
     * mesmas características mas em outro espaço de memória.
+    * <p>
+    *    O clone é um neurônio avulso, que não pertence a nenhuma camada da rede.
+    * </p>
     * @return clone do neurônio.
     */
    @Override
    public Neuronio clone(){
       try{
          Neuronio clone = (Neuronio) super.clone();
-         clone.bias = this.bias;
-
-         //considerar a entrada do bias
-         clone.entradas = new double[this.entradas.length];
-         clone.pesos = new double[this.pesos.length];
-         for(int i = 0; i < this.pesos.length; i++){
-            clone.pesos[i] = this.pesos[i];
-            clone.entradas[i] = this.entradas[i];
+         clone.camada = Camada.avulsa(clone, this.tamanhoEntrada(), this.temBias());
+         clone.indice = 0;
+         clone.avulso = true;
+
+         for(int i = 0; i < this.numPesos(); i++){
+            clone.configurarPeso(i, this.obterPeso(i));
+         }
+         if(this.camada.entrada != null){
+            clone.camada.entrada = this.camada.entrada.clone();
          }
+         clone.camada.somatorio[0] = this.obterSomatorio();
 
          return clone;
       }catch(Exception e){
@@ -1,9 +1,15 @@
 package rna.estrutura;
 
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
 import rna.ativacoes.Ativacao;
 import rna.avaliacao.Avaliador;
 import rna.avaliacao.perda.ErroMedioQuadrado;
 import rna.avaliacao.perda.Perda;
+import rna.dados.ConjuntoDados;
+import rna.dados.ConjuntoMemoria;
 import rna.inicializadores.Aleatorio;
 import rna.inicializadores.Inicializador;
 import rna.otimizadores.Otimizador;
@@ -90,6 +96,20 @@ public class RedeNeural implements Cloneable{
     * </p>
     */
    private long seedInicial = 0;
+
+   /**
+    * Seed base das direções usadas pelo treino {@code spsa()}.
+    */
+   private long seedSpsa;
+
+   /**
+    * Índice do próximo passo do treino {@code spsa()}.
+    * <p>
+    *    Mantido entre as chamadas para que cada chamada continue a sequência de
+    *    direções de onde a anterior parou.
+    * </p>
+    */
+   private long passoSpsa;
     
    /**
     * Auxiliar no controle da compilação da Rede Neural, ajuda a evitar uso 
@@ -98,6 +118,28 @@ public class RedeNeural implements Cloneable{
     */
    private boolean compilado;
 
+   /**
+    * Quantidade máxima de amostras processadas de uma vez no cálculo de
+    * saída de várias amostras.
+    */
+   private int tamBlocoSaida = 64;
+
+   /**
+    * Espaços de trabalho disponíveis para o cálculo concorrente das saídas.
+    */
+   private ConcurrentLinkedQueue<EspacoTrabalho> espacosLivres = new ConcurrentLinkedQueue<>();
+
+   /**
+    * Pool usado no treino por diferenças finitas, nulo para o cálculo sequencial.
+    */
+   private ForkJoinPool poolDiferencaFinita = null;
+
+   /**
+    * Pool usado na atualização dos parâmetros pelo otimizador, nulo para a
+    * atualização sequencial.
+    */
+   private ForkJoinPool poolOtimizador = null;
+
    /**
     * Função de perda usada durante o processo de treinamento.
     */
@@ -309,6 +351,29 @@ public class RedeNeural implements Cloneable{
       this.seedInicial = seed;
    }
 
+   /**
+    * Configura a quantidade máxima de amostras que serão processadas juntas
+    * ao calcular a saída da Rede Neural para um conjunto de dados.
+    * <p>
+    *    Blocos maiores aproveitam melhor os pesos carregados em cache, mas usam
+    *    mais memória para os resultados intermediários de cada camada.
+    * </p>
+    * <p>
+    *    O valor padrão é 64.
+    * </p>
+    * @param tamBloco quantidade de amostras por bloco.
+    * @throws IllegalArgumentException se o tamanho do bloco for menor que um.
+    */
+   public void configurarTamanhoBlocoSaida(int tamBloco){
+      if(tamBloco < 1){
+         throw new IllegalArgumentException(
+            "O tamanho do bloco (" + tamBloco + ") deve ser maior que zero."
+         );
+      }
+
+      this.tamBlocoSaida = tamBloco;
+   }
+
    /**
     * Configura a função de ativação de todas as camadas da rede. É preciso
     * compilar o modelo previamente para poder configurar suas funções de ativação.
@@ -551,15 +616,19 @@ public class RedeNeural implements Cloneable{
       }
 
       this.otimizador = otimizador;
+      if(this.poolOtimizador != null){
+         this.otimizador.configurarParalelismo(this.poolOtimizador);
+      }
    }
 
    /**
     * Define se durante o processo de treinamento, a rede vai salvar dados relacionados a 
     * função de custo/perda de cada época.
     * <p>
-    *    Calcular a perda é uma operação que pode ser computacionalmente cara dependendo do 
-    *    tamanho da rede e do conjunto de dados, então deve ser bem avaliado querer habilitar 
-    *    ou não esse recurso.
+    *    A perda e a acurácia são calculadas a partir das saídas que o próprio treino já
+    *    calcula para cada amostra, sem uma passagem adicional pelos dados, então o custo
+    *    extra é apenas o da função de perda. Como os pesos mudam ao longo da época, os
+    *    valores são uma estimativa do desempenho durante a época, e não do modelo final.
     * </p>
     * <p>
     *    {@code O valor padrão é false}
@@ -570,6 +639,185 @@ public class RedeNeural implements Cloneable{
       this.treinador.configurarHistoricoCusto(calcular);
    }
 
+   /**
+    * Define se o treino em lote também vai salvar a perda média de cada lote, além
+    * da perda de cada época. Só tem efeito com o histórico de perda habilitado.
+    * <p>
+    *    {@code O valor padrão é false}
+    * </p>
+    * @param calcular se verdadeiro, a rede armazenará a perda de cada lote.
+    */
+   public void configurarHistoricoLotes(boolean calcular){
+      this.treinador.configurarHistoricoLotes(calcular);
+   }
+
+   /**
+    * Configura o pool de threads usado para calcular os gradientes de cada lote
+    * em paralelo durante o treino em lote.
+    * <p>
+    *    As amostras de cada lote são divididas entre as threads, onde cada uma usa
+    *    réplicas das camadas que compartilham os pesos da rede, com seus próprios
+    *    buffers de ativação e gradientes. Os gradientes são combinados antes da
+    *    atualização do otimizador, sempre na mesma ordem.
+    * </p>
+    * <p>
+    *    A ordem das somas é diferente do treino sequencial, então os resultados podem
+    *    diferir dele nas últimas casas decimais, mas se repetem para o mesmo nível de
+    *    paralelismo do pool.
+    * </p>
+    * <p>
+    *    {@code O valor padrão é null (treino sequencial)}
+    * </p>
+    * Exemplo:
+    * <pre>
+    *rede.configurarParalelismoLote(new ForkJoinPool(8));
+    * </pre>
+    * @param pool pool de threads, ou nulo para usar o treino sequencial.
+    */
+   public void configurarParalelismoLote(ForkJoinPool pool){
+      this.treinador.configurarParalelismoLote(pool);
+   }
+
+   /**
+    * Configura o pool de threads usado para calcular os gradientes dos treinos sem
+    * retropropagação ({@code diferencaFinita()} e {@code spsa()}) em paralelo.
+    * <p>
+    *    Nas diferenças finitas os parâmetros da rede são divididos em faixas entre as
+    *    threads, e no SPSA são divididas as direções de perturbação de cada passo. Cada
+    *    perda é calculada da mesma forma que no cálculo sequencial, então os resultados
+    *    são idênticos para qualquer quantidade de threads.
+    * </p>
+    * <p>
+    *    {@code O valor padrão é null (cálculo sequencial)}
+    * </p>
+    * Exemplo:
+    * <pre>
+    *rede.configurarParalelismoDiferencaFinita(new ForkJoinPool(8));
+    * </pre>
+    * @param pool pool de threads, ou nulo para usar o cálculo sequencial.
+    */
+   public void configurarParalelismoDiferencaFinita(ForkJoinPool pool){
+      this.poolDiferencaFinita = pool;
+   }
+
+   /**
+    * Configura o pool de threads usado pelo otimizador para atualizar os parâmetros
+    * da rede em paralelo.
+    * <p>
+    *    Os parâmetros são divididos em faixas contíguas atualizadas ao mesmo tempo, o que
+    *    ajuda em redes grandes com otimizadores mais custosos, como o Adam, o Nadam e o
+    *    AMSGrad. Redes pequenas continuam sendo atualizadas em uma única thread. Os
+    *    resultados são idênticos aos da atualização sequencial.
+    * </p>
+    * <p>
+    *    {@code O valor padrão é null (atualização sequencial)}
+    * </p>
+    * Exemplo:
+    * <pre>
+    *rede.configurarParalelismoOtimizador(new ForkJoinPool(8));
+    * </pre>
+    * @param pool pool de threads, ou nulo para usar a atualização sequencial.
+    */
+   public void configurarParalelismoOtimizador(ForkJoinPool pool){
+      this.poolOtimizador = pool;
+      if(this.otimizador != null){
+         this.otimizador.configurarParalelismo(pool);
+      }
+   }
+
+   /**
+    * Configura a quantidade de lotes preparados antecipadamente por uma thread em
+    * segundo plano durante o treino em lote.
+    * <p>
+    *    Enquanto um lote é treinado, os próximos já são lidos do conjunto de dados para
+    *    um anel limitado de buffers reaproveitáveis, então a leitura e decodificação dos
+    *    dados (por exemplo de arquivos CSV ou binários) acontece em paralelo ao cálculo.
+    *    Os lotes gerados são os mesmos do treino sem pré-carregamento. Para dados já
+    *    em memória o ganho é pequeno, já que as amostras não precisam ser preparadas.
+    * </p>
+    * <p>
+    *    {@code O valor padrão é 0 (lotes montados na thread de treino)}
+    * </p>
+    * Exemplo:
+    * <pre>
+    *rede.configurarPreCarregamento(4);
+    *rede.treinar(new ConjuntoCsv("dados.csv", 784, 10), epochs, 64);
+    * </pre>
+    * @param lotes quantidade de lotes preparados antecipadamente, ou zero para desativar.
+    * @throws IllegalArgumentException se a quantidade de lotes for negativa.
+    */
+   public void configurarPreCarregamento(int lotes){
+      if(lotes < 0){
+         throw new IllegalArgumentException(
+            "A quantidade de lotes pré-carregados (" + lotes + ") não pode ser negativa."
+         );
+      }
+      this.treinador.configurarPreCarregamento(lotes);
+   }
+
+   /**
+    * Configura a quantidade de lotes cujos gradientes são acumulados antes de cada
+    * atualização do otimizador durante o treino em lote.
+    * <p>
+    *    Os gradientes de cada lote são somados aos dos lotes anteriores e o otimizador
+    *    é chamado uma única vez com a média de todas as amostras acumuladas, então o
+    *    lote efetivo é {@code tamLote * lotes} enquanto a memória usada continua
+    *    proporcional a apenas um lote. No fim de cada época os lotes restantes são
+    *    aplicados mesmo que a quantidade não tenha sido atingida.
+    * </p>
+    * <p>
+    *    {@code O valor padrão é 1 (uma atualização por lote)}
+    * </p>
+    * Exemplo:
+    * <pre>
+    *rede.configurarAcumulacaoGradientes(64);
+    *rede.treinar(dados, epochs, 256);//lote efetivo de 16384 amostras
+    * </pre>
+    * @param lotes quantidade de lotes por atualização do otimizador.
+    * @throws IllegalArgumentException se a quantidade de lotes for menor que um.
+    */
+   public void configurarAcumulacaoGradientes(int lotes){
+      if(lotes < 1){
+         throw new IllegalArgumentException(
+            "A quantidade de lotes acumulados (" + lotes + ") deve ser maior que zero."
+         );
+      }
+      this.treinador.configurarAcumulacaoGradientes(lotes);
+   }
+
+   /**
+    * Configura o pool de threads usado no treino assíncrono, aplicado ao treino
+    * sem lotes.
+    * <p>
+    *    Em cada época as amostras são divididas entre as threads, e cada uma atualiza
+    *    os pesos compartilhados da rede logo após processar cada amostra, sem travas
+    *    (no estilo Hogwild!). As atualizações concorrentes podem se sobrepor, então o
+    *    resultado não é determinístico, mas o treino escala com a quantidade de threads,
+    *    principalmente quando as entradas são esparsas e cada amostra altera poucos pesos
+    *    em comum.
+    * </p>
+    * <p>
+    *    O estado interno do otimizador também é compartilhado sem sincronização, então
+    *    otimizadores mais simples (como o SGD) são os mais indicados para esse modo. Isso
+    *    inclui o contador de passos do agendador da taxa de aprendizagem, que passa a
+    *    seguir o agendamento apenas de forma aproximada. O treino assíncrono não pode ser
+    *    combinado com {@link #configurarParalelismoOtimizador(ForkJoinPool)}.
+    * </p>
+    * <p>
+    *    {@code O valor padrão é null (treino sequencial)}
+    * </p>
+    * Exemplo:
+    * <pre>
+    *rede.configurarTreinoAssincrono(new ForkJoinPool(8));
+    *rede.treinar(entradas, saidas, epochs);
+    *double[] taxas = rede.obterAmostrasPorSegundo();
+    * </pre>
+    * @param pool pool de threads, ou nulo para usar o treino sequencial.
+    */
+   public void configurarTreinoAssincrono(ForkJoinPool pool){
+      this.treinador.configurarTreinoAssincrono(pool);
+   }
+
    /**
     * Compila o modelo de Rede Neural inicializando as camadas, neurônios e pesos respectivos, 
     * baseado nos valores fornecidos.
@@ -758,6 +1006,8 @@ public class RedeNeural implements Cloneable{
          inicializador.configurarSeed(seedInicial);
          this.treinador.configurarSeed(seedInicial);
       }
+      this.seedSpsa = (this.seedInicial != 0) ? this.seedInicial : new SplittableRandom().nextLong();
+      this.passoSpsa = 0;
 
       //inicializar camadas
       this.camadas = new Camada[this.arquitetura.length-1];
@@ -771,6 +1021,9 @@ public class RedeNeural implements Cloneable{
 
       this.otimizador = otimizador;
       this.otimizador.inicializar(this.obterQuantidadeParametros());
+      if(this.poolOtimizador != null){
+         this.otimizador.configurarParalelismo(this.poolOtimizador);
+      }
 
       this.compilado = true;//modelo pode ser usado
    }
@@ -786,6 +1039,31 @@ public class RedeNeural implements Cloneable{
       }
    }
 
+   /**
+    * Verifica se as dimensões das amostras do conjunto de dados correspondem
+    * à camada de entrada e à camada de saída da rede.
+    * @param dados conjunto de dados.
+    */
+   private void consistenciaDados(ConjuntoDados dados){
+      int tamEntrada = this.obterTamanhoEntrada();
+      if(tamEntrada != dados.tamanhoEntrada()){
+         throw new IllegalArgumentException(
+         "Dimensões dos dados de entrada (" + dados.tamanhoEntrada() +
+         ") e capacidade de entrada da rede (" + tamEntrada + 
+         ") incompatíveis."
+         );
+      }
+
+      int tamSaida = this.obterTamanhoSaida();
+      if(tamSaida != dados.tamanhoSaida()){
+         throw new IllegalArgumentException(
+            "Dados de saída (" + dados.tamanhoSaida() +
+            ") e neurônios de saída da rede (" + tamSaida + 
+            ") incompatíveis."
+         );
+      }
+   }
+
    /**
     * Verifica se os dados são apropriados para serem usados dentro da rede neural, incluindo:
     * <ul>
@@ -848,15 +1126,7 @@ public class RedeNeural implements Cloneable{
     */
    public void calcularSaida(double[] entrada){
       this.verificarCompilacao();
-      
-      int tamEntrada = this.obterTamanhoEntrada();
-      if(entrada.length != tamEntrada){
-         throw new IllegalArgumentException(
-            "Dimensões dos dados de entrada (" + entrada.length +
-            ") e capacidade de entrada da rede (" + tamEntrada + 
-            ") incompatíveis."
-         );
-      }
+      this.verificarEntrada(entrada);
 
       //feedforward
       this.camadas[0].calcularSaida(entrada);
@@ -873,6 +1143,10 @@ public class RedeNeural implements Cloneable{
     *    com os pesos. No final é aplicado a função de ativação da camada no neurônio e o resultado 
     *    fica armazenado na saída dele.
     * </p>
+    * <p>
+    *    As amostras são propagadas em blocos, e ao final a saída da última amostra fica 
+    *    disponível em {@code obterSaidas()}.
+    * </p>
     * @param entradas dados usados para alimentar a camada de entrada.
     * @throws IllegalArgumentException se o modelo não foi compilado previamente.
     * @throws IllegalArgumentException se a quantidade de amostras em cada linha dos dados for diferente.
@@ -882,7 +1156,180 @@ public class RedeNeural implements Cloneable{
     */
    public double[][] calcularSaida(double[][] entradas){
       this.verificarCompilacao();
+      this.verificarEntradas(entradas);
+
+      double[][] resultados = this.propagarLote(this.camadas, entradas);
+
+      //os blocos não passam pelas saídas das camadas, então a última amostra é propagada
+      //novamente para deixar a rede no mesmo estado da propagação amostra por amostra
+      if(entradas.length > 0){
+         this.calcularSaida(entradas[entradas.length-1]);
+      }
+
+      return resultados;
+   }
+
+   /**
+    * Cria um novo espaço de trabalho para calcular as saídas da Rede Neural de forma
+    * segura entre threads.
+    * <p>
+    *    O espaço de trabalho compartilha os pesos da rede e possui seus próprios buffers
+    *    de ativação, então várias threads podem calcular saídas ao mesmo tempo usando a
+    *    mesma instância da rede, cada uma com o seu espaço.
+    * </p>
+    * O espaço de trabalho deve ser recriado caso a rede seja compilada novamente ou tenha
+    * suas funções de ativação alteradas.
+    * @return novo espaço de trabalho.
+    * @throws IllegalArgumentException se o modelo não foi compilado previamente.
+    */
+   public EspacoTrabalho criarEspacoTrabalho(){
+      this.verificarCompilacao();
+      return new EspacoTrabalho(this.camadas);
+   }
+
+   /**
+    * Alimenta os dados pela rede neural usando o espaço de trabalho fornecido, sem
+    * alterar nenhum estado da própria rede.
+    * <p>
+    *    Pode ser chamado por várias threads ao mesmo tempo desde que cada uma use o
+    *    seu próprio espaço de trabalho e os pesos da rede não sejam alterados durante
+    *    o cálculo.
+    * </p>
+    * @param entrada dados usados para alimentar a camada de entrada.
+    * @param espaco espaço de trabalho usado no cálculo.
+    * @return array com a saída da rede, que pertence ao espaço de trabalho e será
+    * sobrescrito no próximo uso dele.
+    * @throws IllegalArgumentException se o modelo não foi compilado previamente.
+    * @throws IllegalArgumentException se o espaço de trabalho for nulo ou não corresponder
+    * à configuração atual da rede.
+    * @throws IllegalArgumentException se o tamanho dos dados de entrada for diferente da capacidade
+    * de entrada da rede.
+    */
+   public double[] calcularSaida(double[] entrada, EspacoTrabalho espaco){
+      this.verificarCompilacao();
+      this.verificarEspacoTrabalho(espaco);
+      this.verificarEntrada(entrada);
+
+      return espaco.calcularSaida(entrada);
+   }
+
+   /**
+    * Alimenta o conjunto de dados pela rede neural usando o espaço de trabalho fornecido,
+    * sem alterar nenhum estado da própria rede.
+    * @param entradas dados usados para alimentar a camada de entrada.
+    * @param espaco espaço de trabalho usado no cálculo.
+    * @return matriz contendo os resultados das predições da rede.
+    * @throws IllegalArgumentException se o modelo não foi compilado previamente.
+    * @throws IllegalArgumentException se o espaço de trabalho for nulo ou não corresponder
+    * à configuração atual da rede.
+    * @throws IllegalArgumentException se a quantidade de amostras em cada linha dos dados for diferente.
+    * @throws IllegalArgumentException se o tamanho dos dados de entrada for diferente da capacidade
+    * de entrada da rede.
+    */
+   public double[][] calcularSaida(double[][] entradas, EspacoTrabalho espaco){
+      this.verificarCompilacao();
+      this.verificarEspacoTrabalho(espaco);
+      this.verificarEntradas(entradas);
+
+      return this.propagarLote(espaco.camadas, entradas);
+   }
+
+   /**
+    * Alimenta os dados pela rede neural de forma segura entre threads, usando um espaço
+    * de trabalho obtido de um conjunto interno reaproveitado entre as chamadas.
+    * @param entrada dados usados para alimentar a camada de entrada.
+    * @return novo array com a saída da rede.
+    * @throws IllegalArgumentException se o modelo não foi compilado previamente.
+    * @throws IllegalArgumentException se o tamanho dos dados de entrada for diferente da capacidade
+    * de entrada da rede.
+    */
+   public double[] calcularSaidaConcorrente(double[] entrada){
+      this.verificarCompilacao();
+      this.verificarEntrada(entrada);
+
+      EspacoTrabalho espaco = this.obterEspacoLivre();
+      try{
+         return espaco.calcularSaida(entrada).clone();
+      }finally{
+         this.espacosLivres.offer(espaco);
+      }
+   }
+
+   /**
+    * Alimenta o conjunto de dados pela rede neural de forma segura entre threads, usando
+    * um espaço de trabalho obtido de um conjunto interno reaproveitado entre as chamadas.
+    * @param entradas dados usados para alimentar a camada de entrada.
+    * @return matriz contendo os resultados das predições da rede.
+    * @throws IllegalArgumentException se o modelo não foi compilado previamente.
+    * @throws IllegalArgumentException se a quantidade de amostras em cada linha dos dados for diferente.
+    * @throws IllegalArgumentException se o tamanho dos dados de entrada for diferente da capacidade
+    * de entrada da rede.
+    */
+   public double[][] calcularSaidaConcorrente(double[][] entradas){
+      this.verificarCompilacao();
+      this.verificarEntradas(entradas);
+
+      EspacoTrabalho espaco = this.obterEspacoLivre();
+      try{
+         return this.propagarLote(espaco.camadas, entradas);
+      }finally{
+         this.espacosLivres.offer(espaco);
+      }
+   }
+
+   /**
+    * Retorna um espaço de trabalho livre do conjunto interno, descartando os que não
+    * correspondem mais à configuração da rede, ou cria um novo caso não haja nenhum.
+    * @return espaço de trabalho que pode ser usado pela thread atual.
+    */
+   private EspacoTrabalho obterEspacoLivre(){
+      EspacoTrabalho espaco;
+      while((espaco = this.espacosLivres.poll()) != null){
+         if(espaco.compativel(this.camadas)){
+            return espaco;
+         }
+      }
+
+      return new EspacoTrabalho(this.camadas);
+   }
+
+   /**
+    * Verifica se o espaço de trabalho pode ser usado com a configuração atual da rede.
+    * @param espaco espaço de trabalho.
+    */
+   private void verificarEspacoTrabalho(EspacoTrabalho espaco){
+      if(espaco == null){
+         throw new IllegalArgumentException("O espaço de trabalho não pode ser nulo.");
+      }
+      if(!espaco.compativel(this.camadas)){
+         throw new IllegalArgumentException(
+            "O espaço de trabalho não corresponde à configuração atual da rede, " +
+            "crie um novo usando criarEspacoTrabalho()."
+         );
+      }
+   }
 
+   /**
+    * Verifica se os dados de entrada são compatíveis com a entrada da rede.
+    * @param entrada dados de entrada.
+    */
+   private void verificarEntrada(double[] entrada){
+      int tamEntrada = this.obterTamanhoEntrada();
+      if(entrada.length != tamEntrada){
+         throw new IllegalArgumentException(
+            "Dimensões dos dados de entrada (" + entrada.length +
+            ") e capacidade de entrada da rede (" + tamEntrada + 
+            ") incompatíveis."
+         );
+      }
+   }
+
+   /**
+    * Verifica se o conjunto de dados de entrada é consistente e compatível com a
+    * entrada da rede.
+    * @param entradas conjunto de dados de entrada.
+    */
+   private void verificarEntradas(double[][] entradas){
       int cols = entradas[0].length;
       for(int i = 1; i < entradas.length; i++){
          if(entradas[i].length != cols){
@@ -900,20 +1347,50 @@ public class RedeNeural implements Cloneable{
             ") incompatíveis."
          );
       }
+   }
 
+   /**
+    * Alimenta o conjunto de dados pelas camadas fornecidas em blocos de amostras.
+    * @param camadas camadas usadas no cálculo, da rede ou de um espaço de trabalho.
+    * @param entradas conjunto de dados de entrada.
+    * @return matriz contendo os resultados das predições.
+    */
+   private double[][] propagarLote(Camada[] camadas, double[][] entradas){
       //dimensões dos dados
       int nAmostras = entradas.length;
       int tamEntrada = this.obterTamanhoEntrada();
       int tamSaida = this.obterTamanhoSaida();
       double[][] resultados = new double[nAmostras][tamSaida];
-      double[] entradaRede = new double[tamEntrada];
-      double[] saidaRede = new double[tamSaida];
 
-      for(int i = 0; i < nAmostras; i++){
-         System.arraycopy(entradas[i], 0, entradaRede, 0, entradas[i].length);
-         this.calcularSaida(entradaRede);
-         System.arraycopy(this.obterSaidas(), 0, saidaRede, 0, saidaRede.length);
-         System.arraycopy(saidaRede, 0, resultados[i], 0, saidaRede.length);
+      //buffers alternados entre as camadas, com espaço para a maior delas
+      int maiorCamada = tamEntrada;
+      for(Camada camada : camadas){
+         maiorCamada = Math.max(maiorCamada, camada.quantidadeNeuronios());
+      }
+      int tamBloco = Math.min(this.tamBlocoSaida, nAmostras);
+      double[] blocoA = new double[tamBloco * maiorCamada];
+      double[] blocoB = new double[tamBloco * maiorCamada];
+
+      for(int inicio = 0; inicio < nAmostras; inicio += tamBloco){
+         int amostras = Math.min(tamBloco, nAmostras - inicio);
+
+         for(int i = 0; i < amostras; i++){
+            System.arraycopy(entradas[inicio + i], 0, blocoA, i * tamEntrada, tamEntrada);
+         }
+
+         //feedforward do bloco inteiro, camada por camada
+         double[] atual = blocoA;
+         double[] proximo = blocoB;
+         for(Camada camada : camadas){
+            camada.calcularSaidaLote(atual, proximo, amostras);
+            double[] temp = atual;
+            atual = proximo;
+            proximo = temp;
+         }
+
+         for(int i = 0; i < amostras; i++){
+            System.arraycopy(atual, i * tamSaida, resultados[inicio + i], 0, tamSaida);
+         }
       }
 
       return resultados;
@@ -935,6 +1412,27 @@ public class RedeNeural implements Cloneable{
    public void treinar(double[][] entradas, double[][] saidas, int epochs){
       this.verificarCompilacao();
       consistenciaDados(entradas, saidas);
+      treinar(new ConjuntoMemoria(entradas, saidas), epochs);
+   }
+
+   /**
+    * Treina a Rede Neural de acordo com as configurações predefinidas, usando
+    * um conjunto de dados.
+    * <p>
+    *    O conjunto não é copiado, as amostras são lidas dele durante o treino, o que
+    *    permite treinar com dados que não cabem inteiros em memória (por exemplo com
+    *    {@link rna.dados.ConjuntoCsv}). Conjuntos sem acesso aleatório são lidos na
+    *    própria ordem, sem embaralhamento.
+    * </p>
+    * @param dados conjunto de dados de treino.
+    * @param epochs quantidade de épocas de treinamento.
+    * @throws IllegalArgumentException se o modelo não foi compilado previamente.
+    * @throws IllegalArgumentException se as dimensões do conjunto de dados forem incompatíveis com a rede.
+    * @throws IllegalArgumentException se o valor de épocas for menor que um.
+    */
+   public void treinar(ConjuntoDados dados, int epochs){
+      this.verificarCompilacao();
+      consistenciaDados(dados);
 
       if(epochs < 1){
          throw new IllegalArgumentException(
@@ -946,8 +1444,7 @@ public class RedeNeural implements Cloneable{
          this,
          this.perda,
          this.otimizador,
-         entradas,
-         saidas,
+         dados,
          epochs
       );
    }
@@ -976,13 +1473,33 @@ public class RedeNeural implements Cloneable{
    public void treinar(double[][] entradas, double[][] saidas, int epochs, int tamLote){
       this.verificarCompilacao();
       consistenciaDados(entradas, saidas);
+      treinar(new ConjuntoMemoria(entradas, saidas), epochs, tamLote);
+   }
+
+   /**
+    * Treina a rede em lotes de acordo com as configurações predefinidas, usando
+    * um conjunto de dados.
+    * <p>
+    *    O conjunto não é copiado, as amostras são lidas dele durante o treino. Conjuntos
+    *    sem acesso aleatório são lidos na própria ordem, um lote por vez.
+    * </p>
+    * @param dados conjunto de dados de treino.
+    * @param epochs quantidade de épocas de treinamento.
+    * @param tamLote tamanho que o lote vai assumir durante o treino.
+    * @throws IllegalArgumentException se o modelo não foi compilado previamente.
+    * @throws IllegalArgumentException se as dimensões do conjunto de dados forem incompatíveis com a rede.
+    * @throws IllegalArgumentException se o valor de épocas for menor que um.
+    */
+   public void treinar(ConjuntoDados dados, int epochs, int tamLote){
+      this.verificarCompilacao();
+      consistenciaDados(dados);
 
       if(epochs < 1){
          throw new IllegalArgumentException(
             "O valor de epochs (" + epochs + ") não pode ser menor que um"
          );
       }
-      if(tamLote <= 0 || tamLote > entradas.length){
+      if(tamLote <= 0 || tamLote > dados.tamanho()){
          throw new IllegalArgumentException(
             "O valor de tamanho do lote (" + tamLote + ") é inválido."
          );
@@ -992,8 +1509,7 @@ public class RedeNeural implements Cloneable{
          this,
          this.perda,
          this.otimizador,
-         entradas,
-         saidas,
+         dados,
          epochs,
          tamLote
       );
@@ -1012,6 +1528,10 @@ public class RedeNeural implements Cloneable{
     * <p>
     *    Ainda sim não deixa de ser uma abordagem válida.
     * </p>
+    * <p>
+    *    As perturbações dos parâmetros podem ser calculadas em paralelo, veja
+    *    {@link #configurarParalelismoDiferencaFinita(ForkJoinPool)}.
+    * </p>
     * @param entradas matriz com os dados de entrada 
     * @param saidas matriz com os dados de saída
     * @param eps valor de perturbação
@@ -1047,32 +1567,76 @@ public class RedeNeural implements Cloneable{
          );
       }
 
-      for(int epocas = 0; epocas < epochs; epocas++){    
-         double perda = avaliador.erroMedioQuadrado(entradas, saidas);
-         if(perda < perdaMinima) break;
-
-         double valorAnterior = 0;
-         for(Camada camada : this.camadas){
-            for(Neuronio neuronio : camada.neuronios){
-               for(int i = 0; i < neuronio.pesos.length; i++){
-                  valorAnterior = neuronio.pesos[i];
-                  neuronio.pesos[i] += eps;
-                  neuronio.gradientes[i] = ((avaliador.erroMedioQuadrado(entradas, saidas) - perda)/eps);
-                  neuronio.pesos[i] = valorAnterior;
-               }
-            }
-         }
+      DiferencaFinita treino = new DiferencaFinita(this.camadas, this.tamBlocoSaida, this.poolDiferencaFinita);
+      treino.treinar(entradas, saidas, eps, tA, epochs, perdaMinima);
+   }
 
-         //atualizar pesos
-         for(Camada camada : this.camadas){
-            for(Neuronio neuronio : camada.neuronios){
-               for(int i = 0; i < neuronio.pesos.length; i++){
-                  neuronio.pesos[i] -= tA * neuronio.gradientes[i];
-               }
-            }
-         }
+   /**
+    * Método alternativo no treino da rede neural usando perturbação simultânea (SPSA), que
+    * estima o gradiente do erro médio quadrado sem retropropagação e o aplica usando o
+    * otimizador configurado da rede.
+    * <p>
+    *    Em cada passo todos os parâmetros são perturbados ao mesmo tempo, somando e subtraindo
+    *    {@code eps} em direções aleatórias de sinais {@code ±1}, e a variação da perda entre as
+    *    duas perturbações dá a estimativa do gradiente. Diferente da {@code diferencaFinita()},
+    *    cada direção custa apenas duas avaliações do conjunto de dados, independente da
+    *    quantidade de parâmetros da rede. Usar mais direções por passo reduz a variância da
+    *    estimativa, e elas podem ser avaliadas em paralelo, veja
+    *    {@link #configurarParalelismoDiferencaFinita(ForkJoinPool)}.
+    * </p>
+    * <p>
+    *    As direções são geradas a partir da seed configurada da rede (quando existir), então
+    *    o treino pode ser reproduzido. A sequência de direções continua entre as chamadas,
+    *    então várias chamadas com poucos passos equivalem a uma chamada com todos eles.
+    * </p>
+    * Exemplo:
+    * <pre>
+    *rede.compilar(new Adam());
+    *rede.spsa(entradas, saidas, 1e-3, 8, 2000, 0);
+    * </pre>
+    * @param entradas matriz com os dados de entrada 
+    * @param saidas matriz com os dados de saída
+    * @param eps valor de perturbação
+    * @param direcoes quantidade de direções aleatórias avaliadas em cada passo.
+    * @param epochs número de passos do treinamento, cada um avaliando {@code 2 * direcoes}
+    * vezes o conjunto de dados.
+    * @param perdaMinima valor de perda desejável, o treino será finalizado caso a média das
+    * perdas perturbadas fique abaixo dele. Caso a perda mínima seja zero, o treino irá continuar
+    * até o final dos passos fornecidos.
+    * @throws IllegalArgumentException se o modelo não foi compilado previamente.
+    * @throws IllegalArgumentException se houver alguma inconsistência dos dados de entrada e saída para a operação.
+    * @throws IllegalArgumentException se o valor de perturbação for igual a zero.
+    * @throws IllegalArgumentException se a quantidade de direções for menor que um.
+    * @throws IllegalArgumentException se o valor de épocas for menor que um.
+    * @throws IllegalArgumentException se o valor de custo mínimo for menor que zero.
+    */
+   public void spsa(double[][] entradas, double[][] saidas, double eps, int direcoes, int epochs, double perdaMinima){
+      this.verificarCompilacao();
+      consistenciaDados(entradas, saidas);
+      
+      if(eps == 0){
+         throw new IllegalArgumentException(
+            "O valor de perturbação (" + eps + ") não pode ser igual a zero."
+         );
+      }
+      if(direcoes < 1){
+         throw new IllegalArgumentException(
+            "A quantidade de direções (" + direcoes + ") não pode ser menor que um."
+         );
+      }
+      if(epochs < 1){
+         throw new IllegalArgumentException(
+            "O valor de epochs (" + epochs + ") não pode ser menor que um."
+         );
+      }
+      if(perdaMinima < 0){
+         throw new IllegalArgumentException(
+            "O valor de perda mínima (" + perdaMinima + ") não pode ser negativo."
+         );
       }
 
+      Spsa treino = new Spsa(this.camadas, this.tamBlocoSaida, this.poolDiferencaFinita, direcoes, this.seedSpsa);
+      this.passoSpsa = treino.treinar(entradas, saidas, this.otimizador, eps, epochs, perdaMinima, this.passoSpsa);
    }
 
    /**
@@ -1091,6 +1655,27 @@ public class RedeNeural implements Cloneable{
       return this.otimizador;
    }
 
+   /**
+    * Retorna o treinador responsável pelos treinos da Rede Neural.
+    * <p>
+    *    Usado principalmente para salvar e restaurar o estado do treino, como é
+    *    feito pelo {@code Checkpoint}.
+    * </p>
+    * @return treinador da rede.
+    */
+   public Treinador obterTreinador(){
+      return this.treinador;
+   }
+
+   /**
+    * Retorna a quantidade de épocas treinadas pelos métodos {@code treinar()},
+    * somando todas as chamadas, inclusive as anteriores a um checkpoint restaurado.
+    * @return quantidade de épocas treinadas.
+    */
+   public long obterEpocasTreinadas(){
+      return this.treinador.obterEpocas();
+   }
+
    /**
     * Retorna a {@code camada} da Rede Neural correspondente ao índice fornecido.
     * @param id índice da busca.
@@ -1177,7 +1762,7 @@ public class RedeNeural implements Cloneable{
 
    /**
     * Disponibiliza o histórico da função de custo da rede neural durante cada época
-    * de treinamento.
+    * de treinamento, como a perda média das amostras da época.
     * <p>
     *    O histórico será o do ultimo processo de treinamento usado, seja ele sequencial ou em
     *    lotes. Sendo assim, por exemplo, caso o treino seja em sua maioria feito pelo modo sequencial
@@ -1196,6 +1781,54 @@ public class RedeNeural implements Cloneable{
       return this.treinador.obterHistorico();
    }
 
+   /**
+    * Disponibiliza o histórico da acurácia das previsões feitas pela rede durante cada
+    * época de treinamento.
+    * <p>
+    *    Com mais de uma saída, uma previsão é correta quando o maior valor previsto
+    *    corresponde ao maior valor esperado, com uma única saída quando os dois estão do
+    *    mesmo lado de {@code 0.5}. Assim como o histórico de custo, é o do último
+    *    processo de treinamento usado.
+    * </p>
+    * @return lista contendo o histórico de acurácia durante o treinamento da rede.
+    * @throws IllegalArgumentException se não foi habilitado previamente o cálculo do 
+    * histórico de custos.
+    */
+   public double[] obterHistoricoAcuracia(){
+      if(!this.treinador.calcularHistorico){
+         throw new IllegalArgumentException(
+            "O histórico de custo da rede deve ser habilitado previamente."
+         );
+      }
+      return this.treinador.obterHistoricoAcuracia();
+   }
+
+   /**
+    * Disponibiliza o histórico da perda média de cada lote do treino em lote.
+    * @return lista contendo a perda de cada lote, vazia caso o histórico por lote
+    * não tenha sido habilitado.
+    * @throws IllegalArgumentException se não foi habilitado previamente o cálculo do 
+    * histórico de custos.
+    */
+   public double[] obterHistoricoLotes(){
+      if(!this.treinador.calcularHistorico){
+         throw new IllegalArgumentException(
+            "O histórico de custo da rede deve ser habilitado previamente."
+         );
+      }
+      return this.treinador.obterHistoricoLotes();
+   }
+
+   /**
+    * Disponibiliza a quantidade de amostras processadas por segundo em cada thread
+    * durante o último treino assíncrono.
+    * @return amostras por segundo de cada thread, vazio caso o treino assíncrono
+    * não tenha sido usado.
+    */
+   public double[] obterAmostrasPorSegundo(){
+      return this.treinador.obterAmostrasPorSegundo();
+   }
+
    /**
     * Retorna a quantidade total de parâmetros da rede.
     * <p>
@@ -1329,6 +1962,16 @@ public class RedeNeural implements Cloneable{
 
          clone.nome = "Clone de " + this.nome;
 
+         //o treinador guarda o estado dos treinos (épocas, históricos, embaralhamento),
+         //então o clone recebe um novo treinador apenas com as mesmas configurações
+         clone.treinador = this.treinador.copiarConfiguracao();
+         if(this.seedInicial != 0){
+            clone.treinador.configurarSeed(this.seedInicial);
+         }
+         clone.seedSpsa = this.seedSpsa;
+         clone.passoSpsa = this.passoSpsa;
+
+         clone.espacosLivres = new ConcurrentLinkedQueue<>();
          clone.camadas = new Camada[this.camadas.length];
          for(int i = 0; i < this.camadas.length; i++){
             clone.camadas[i] = this.camadas[i].clone();
@@ -1356,11 +1999,12 @@ public class RedeNeural implements Cloneable{
          for(int j = 0; j < this.camadas[i].quantidadeNeuronios(); j++){
 
             buffer += espacamentoDuplo + "n" + j + " = [\n";
-            for(int k = 0; k < this.camadas[i].neuronio(j).pesos.length; k++){
-               if(k == this.camadas[i].neuronio(j).pesos.length-1 && this.bias){
-                  buffer += espacamentoTriplo + "pb" + " = " + this.camadas[i].neuronio(j).pesos[k] + "\n";
+            Neuronio neuronio = this.camadas[i].neuronio(j);
+            for(int k = 0; k < neuronio.numPesos(); k++){
+               if(k == neuronio.numPesos()-1 && this.bias){
+                  buffer += espacamentoTriplo + "pb" + " = " + neuronio.obterPeso(k) + "\n";
                }else{
-                  buffer += espacamentoTriplo + "p" + k + " = " + this.camadas[i].neuronio(j).pesos[k] + "\n";
+                  buffer += espacamentoTriplo + "p" + k + " = " + neuronio.obterPeso(k) + "\n";
                }
             }
             buffer += espacamentoDuplo + "]\n";
@@ -0,0 +1,334 @@
+package rna.estrutura;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import rna.otimizadores.Otimizador;
+
+/**
+ * Treino da Rede Neural por perturbação simultânea (SPSA, Simultaneous Perturbation
+ * Stochastic Approximation).
+ * <p>
+ *    Em cada passo todos os parâmetros são perturbados ao mesmo tempo numa direção
+ *    aleatória {@code d} de valores {@code ±1}, e o gradiente é estimado a partir de
+ *    apenas duas avaliações da perda, independente do tamanho do modelo:
+ * </p>
+ * <pre>
+ *    g = (perda(p + eps*d) - perda(p - eps*d)) / (2*eps) * d
+ * </pre>
+ * <p>
+ *    A estimativa é a média de várias direções, que são avaliadas em paralelo quando há
+ *    um pool configurado, cada thread usando cópias próprias das camadas. As direções
+ *    não são armazenadas: cada uma é gerada novamente a partir da sua seed sempre que
+ *    é necessária. O gradiente estimado é escrito em {@code gradPesos} e {@code gradBias}
+ *    e aplicado pelo otimizador da rede.
+ * </p>
+ */
+class Spsa{
+
+   /**
+    * Constante usada para derivar a seed de cada direção a partir da seed do passo.
+    */
+   private static final long MISTURA = 0xD1B54A32D192ED03L;
+
+   /**
+    * Incremento usado para derivar a seed de cada passo a partir do seu índice.
+    */
+   private static final long GAMA = 0x9E3779B97F4A7C15L;
+
+   /**
+    * Camadas da rede treinada.
+    */
+   private final Camada[] camadas;
+
+   /**
+    * Pool usado para dividir as direções entre threads, nulo para o cálculo sequencial.
+    */
+   private final ForkJoinPool pool;
+
+   /**
+    * Quantidade de direções avaliadas em cada passo.
+    */
+   private final int direcoes;
+
+   /**
+    * Quantidade máxima de amostras propagadas de uma vez.
+    */
+   private final int tamBloco;
+
+   /**
+    * Seed base das seeds de cada passo.
+    */
+   private final long seed;
+
+   /**
+    * Tarefas de cada thread.
+    */
+   private final Trabalhador[] trabalhadores;
+
+   /**
+    * Derivada direcional estimada e perda média das perturbações de cada direção no passo atual.
+    */
+   private final double[] coeficientes, perdas;
+
+   /**
+    * Instancia o treino por perturbação simultânea.
+    * @param camadas camadas da rede.
+    * @param tamBloco quantidade máxima de amostras propagadas de uma vez.
+    * @param pool pool de threads, ou nulo para o cálculo sequencial.
+    * @param direcoes quantidade de direções avaliadas em cada passo.
+    * @param seed seed base das seeds de cada passo.
+    */
+   Spsa(Camada[] camadas, int tamBloco, ForkJoinPool pool, int direcoes, long seed){
+      this.camadas = camadas;
+      this.tamBloco = tamBloco;
+      this.pool = pool;
+      this.direcoes = direcoes;
+      this.seed = seed;
+      this.coeficientes = new double[direcoes];
+      this.perdas = new double[direcoes];
+
+      int quantidade = (pool == null) ? 1 : Math.max(1, Math.min(pool.getParallelism(), direcoes));
+      this.trabalhadores = new Trabalhador[quantidade];
+      for(int t = 0; t < quantidade; t++){
+         this.trabalhadores[t] = new Trabalhador(
+            direcoes * t / quantidade,
+            direcoes * (t+1) / quantidade
+         );
+      }
+   }
+
+   /**
+    * Treina a rede usando o gradiente estimado em cada passo.
+    * @param entradas dados de entrada de treino.
+    * @param saidas dados de saída correspondente a entrada.
+    * @param otimizador otimizador que aplica o gradiente estimado.
+    * @param eps valor de perturbação.
+    * @param epochs quantidade de passos de treinamento.
+    * @param perdaMinima perda que finaliza o treino ao ser atingida.
+    * @param passo índice do primeiro passo, continuando a sequência de direções de
+    * treinos anteriores.
+    * @return índice do passo seguinte ao último executado.
+    */
+   long treinar(double[][] entradas, double[][] saidas, Otimizador otimizador, double eps, int epochs, double perdaMinima, long passo){
+      for(int epocas = 0; epocas < epochs; epocas++){
+         long seed = seedPasso(this.seed, passo++);
+
+         for(Trabalhador trabalhador : this.trabalhadores){
+            trabalhador.preparar(entradas, saidas, eps, seed);
+         }
+         if(this.trabalhadores.length == 1){
+            this.trabalhadores[0].invoke();
+         }else{
+            this.pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(this.trabalhadores)));
+         }
+
+         //a média das perdas perturbadas aproxima a perda atual, com erro da ordem de eps²
+         double perda = 0;
+         for(int k = 0; k < this.direcoes; k++){
+            perda += this.perdas[k];
+         }
+         if(perda / this.direcoes < perdaMinima) break;
+
+         //gradiente como média das direções, geradas novamente a partir das seeds
+         for(Camada camada : this.camadas){
+            Arrays.fill(camada.gradPesos, 0);
+            Arrays.fill(camada.gradBias, 0);
+         }
+         for(int k = 0; k < this.direcoes; k++){
+            Direcao direcao = new Direcao(seedDirecao(seed, k));
+            double coeficiente = this.coeficientes[k] / this.direcoes;
+            for(Camada camada : this.camadas){
+               for(int i = 0; i < camada.gradPesos.length; i++){
+                  camada.gradPesos[i] += coeficiente * direcao.proximo();
+               }
+               for(int i = 0; i < camada.gradBias.length; i++){
+                  camada.gradBias[i] += coeficiente * direcao.proximo();
+               }
+            }
+         }
+
+         otimizador.atualizar(this.camadas);
+      }
+
+      return passo;
+   }
+
+   /**
+    * Calcula a seed de um passo, misturando a seed base com o índice do passo.
+    * @param seed seed base.
+    * @param passo índice do passo.
+    * @return seed do passo.
+    */
+   private static long seedPasso(long seed, long passo){
+      long z = seed + (passo + 1) * GAMA;
+      z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+      z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+      return z ^ (z >>> 31);
+   }
+
+   /**
+    * Calcula a seed de uma direção do passo.
+    * @param seed seed do passo.
+    * @param k índice da direção.
+    * @return seed da direção.
+    */
+   private static long seedDirecao(long seed, int k){
+      return seed ^ ((k + 1) * MISTURA);
+   }
+
+   /**
+    * Gerador dos valores {@code ±1} de uma direção, na ordem dos parâmetros da rede
+    * (pesos e depois bias de cada camada).
+    */
+   private static class Direcao{
+      private final SplittableRandom random;
+      private long bits;
+      private int restantes = 0;
+
+      Direcao(long seed){
+         this.random = new SplittableRandom(seed);
+      }
+
+      /**
+       * Retorna o valor da direção para o próximo parâmetro.
+       * @return {@code 1} ou {@code -1}.
+       */
+      double proximo(){
+         if(this.restantes == 0){
+            this.bits = this.random.nextLong();
+            this.restantes = 64;
+         }
+         double valor = ((this.bits & 1) == 0) ? 1 : -1;
+         this.bits >>>= 1;
+         this.restantes--;
+
+         return valor;
+      }
+   }
+
+   /**
+    * Tarefa de uma thread, avalia uma faixa de direções do passo usando suas
+    * próprias cópias das camadas.
+    */
+   private class Trabalhador extends RecursiveAction{
+
+      private static final long serialVersionUID = 1L;
+
+      /**
+       * Cópias das camadas com pesos e bias próprios.
+       */
+      private final Camada[] copias;
+
+      /**
+       * Buffers alternados entre as camadas na propagação dos blocos.
+       */
+      private final double[] blocoA, blocoB;
+
+      /**
+       * Faixa de direções da tarefa.
+       */
+      private final int inicio, fim;
+
+      private double[][] entradas;
+      private double[][] saidas;
+      private double eps;
+      private long seed;
+
+      Trabalhador(int inicio, int fim){
+         this.inicio = inicio;
+         this.fim = fim;
+
+         int maiorCamada = camadas[0].tamanhoEntrada();
+         this.copias = new Camada[camadas.length];
+         for(int i = 0; i < camadas.length; i++){
+            this.copias[i] = camadas[i].replicarInferencia();
+            this.copias[i].pesos = camadas[i].pesos.clone();
+            this.copias[i].bias = camadas[i].bias.clone();
+            maiorCamada = Math.max(maiorCamada, camadas[i].quantidadeNeuronios());
+         }
+         this.blocoA = new double[tamBloco * maiorCamada];
+         this.blocoB = new double[tamBloco * maiorCamada];
+      }
+
+      /**
+       * Configura os dados do próximo passo.
+       */
+      void preparar(double[][] entradas, double[][] saidas, double eps, long seed){
+         this.entradas = entradas;
+         this.saidas = saidas;
+         this.eps = eps;
+         this.seed = seed;
+         reinitialize();
+      }
+
+      @Override
+      protected void compute(){
+         for(int k = this.inicio; k < this.fim; k++){
+            long seedK = seedDirecao(this.seed, k);
+
+            perturbar(seedK, this.eps);
+            double perdaPositiva = perda();
+            perturbar(seedK, -this.eps);
+            double perdaNegativa = perda();
+
+            coeficientes[k] = (perdaPositiva - perdaNegativa) / (2 * this.eps);
+            perdas[k] = (perdaPositiva + perdaNegativa) / 2;
+         }
+      }
+
+      /**
+       * Escreve nas cópias os parâmetros atuais da rede somados à direção fornecida.
+       * @param seed seed da direção.
+       * @param eps escala da perturbação.
+       */
+      private void perturbar(long seed, double eps){
+         Direcao direcao = new Direcao(seed);
+         for(int c = 0; c < camadas.length; c++){
+            double[] pesos = camadas[c].pesos;
+            double[] copia = this.copias[c].pesos;
+            for(int i = 0; i < pesos.length; i++){
+               copia[i] = pesos[i] + eps * direcao.proximo();
+            }
+            double[] bias = camadas[c].bias;
+            copia = this.copias[c].bias;
+            for(int i = 0; i < bias.length; i++){
+               copia[i] = bias[i] + eps * direcao.proximo();
+            }
+         }
+      }
+
+      /**
+       * Calcula o erro médio quadrado das cópias das camadas sobre os dados de treino.
+       * @return erro médio quadrado médio das amostras.
+       */
+      private double perda(){
+         int nAmostras = this.entradas.length;
+         int tamEntrada = this.entradas[0].length;
+         double emq = 0;
+
+         for(int inicio = 0; inicio < nAmostras; inicio += tamBloco){
+            int amostras = Math.min(tamBloco, nAmostras - inicio);
+            for(int i = 0; i < amostras; i++){
+               System.arraycopy(this.entradas[inicio + i], 0, this.blocoA, i * tamEntrada, tamEntrada);
+            }
+
+            double[] atual = this.blocoA;
+            double[] proximo = this.blocoB;
+            for(Camada copia : this.copias){
+               copia.calcularSaidaLote(atual, proximo, amostras);
+               double[] temp = atual;
+               atual = proximo;
+               proximo = temp;
+            }
+
+            emq += DiferencaFinita.somaErros(atual, this.saidas, inicio, amostras);
+         }
+
+         return emq / nAmostras;
+      }
+   }
+}
@@ -0,0 +1,403 @@
+package rna.matematica;
+
+/**
+ * Núcleos de álgebra linear usados nos cálculos densos da Rede Neural.
+ * <p>
+ *    Todas as operações trabalham diretamente sobre arrays primitivos organizados
+ *    por linhas, recebendo o deslocamento inicial ({@code off}) e o passo entre linhas
+ *    ({@code ld}) de cada matriz, o que permite operar sobre partes de arrays maiores
+ *    sem nenhuma cópia.
+ * </p>
+ * <p>
+ *    As rotinas são divididas em blocos para aproveitar melhor a cache e calculam
+ *    vários resultados ao mesmo tempo para reaproveitar os valores já carregados em
+ *    registradores. Os somatórios de cada elemento continuam sendo feitos na mesma
+ *    ordem do loop simples, então os resultados são idênticos aos da implementação
+ *    ingênua.
+ * </p>
+ * <p>
+ *    Quando a API de vetores do Java está disponível, as operações são delegadas
+ *    para o backend vetorial de {@link OperacoesSimd}, que usa instruções FMA e
+ *    pode alterar as últimas casas decimais dos resultados.
+ * </p>
+ * Exemplo de endereçamento de uma matriz {@code A} com {@code lda} elementos por linha:
+ * <pre>
+ *    A[i][j] = a[offA + i*lda + j]
+ * </pre>
+ */
+public class AlgebraLinear{
+
+   /**
+    * Quantidade de elementos da dimensão compartilhada processados por bloco.
+    */
+   static final int BLOCO_K = 256;
+
+   /**
+    * Quantidade de linhas da segunda matriz mantidas em cache por bloco
+    * no produto entre matrizes.
+    */
+   static final int BLOCO_N = 64;
+
+   /**
+    * Quantidade de colunas processadas por bloco nos produtos entre matriz e vetor.
+    */
+   static final int BLOCO_COLUNAS = 1024;
+
+   /**
+    * Classe utilitária, não deve ser instanciada.
+    */
+   private AlgebraLinear(){}
+
+   /**
+    * Calcula o produto interno entre dois vetores.
+    * <pre>
+    *    r = ∑(x[i] * y[i])
+    * </pre>
+    * @param n quantidade de elementos.
+    * @param x array contendo o primeiro vetor.
+    * @param offX índice inicial de {@code x}.
+    * @param y array contendo o segundo vetor.
+    * @param offY índice inicial de {@code y}.
+    * @return resultado do produto interno.
+    */
+   public static double produtoInterno(int n, double[] x, int offX, double[] y, int offY){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         return simd.produtoInterno(n, x, offX, y, offY);
+      }
+
+      double soma = 0;
+      for(int i = 0; i < n; i++){
+         soma += x[offX + i] * y[offY + i];
+      }
+      return soma;
+   }
+
+   /**
+    * Acumula o vetor {@code x} escalado no vetor {@code y}.
+    * <pre>
+    *    y += alfa * x
+    * </pre>
+    * @param n quantidade de elementos.
+    * @param alfa escalar aplicado a {@code x}.
+    * @param x array contendo o vetor {@code x}.
+    * @param offX índice inicial de {@code x}.
+    * @param y array contendo o vetor {@code y}.
+    * @param offY índice inicial de {@code y}.
+    */
+   public static void axpy(int n, double alfa, double[] x, int offX, double[] y, int offY){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.axpy(n, alfa, x, offX, y, offY);
+         return;
+      }
+
+      for(int i = 0; i < n; i++){
+         y[offY + i] += alfa * x[offX + i];
+      }
+   }
+
+   /**
+    * Calcula o produto entre matriz e vetor.
+    * <pre>
+    *    y = A * x
+    * </pre>
+    * @param m quantidade de linhas de {@code A}.
+    * @param n quantidade de colunas de {@code A}.
+    * @param a array contendo a matriz {@code A}.
+    * @param offA índice inicial de {@code A}.
+    * @param lda passo entre as linhas de {@code A}.
+    * @param x array contendo o vetor {@code x}, com {@code n} elementos.
+    * @param offX índice inicial de {@code x}.
+    * @param y array onde será escrito o resultado, com {@code m} elementos.
+    * @param offY índice inicial de {@code y}.
+    */
+   public static void gemv(int m, int n, double[] a, int offA, int lda, double[] x, int offX, double[] y, int offY){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.gemv(m, n, a, offA, lda, x, offX, y, offY);
+         return;
+      }
+
+      if(n == 0){
+         for(int i = 0; i < m; i++){
+            y[offY + i] = 0;
+         }
+         return;
+      }
+
+      for(int j0 = 0; j0 < n; j0 += BLOCO_COLUNAS){
+         int j1 = Math.min(n, j0 + BLOCO_COLUNAS);
+         boolean inicio = (j0 == 0);
+
+         int i = 0;
+         for(; i + 3 < m; i += 4){
+            int l0 = offA + i*lda;
+            int l1 = l0 + lda;
+            int l2 = l1 + lda;
+            int l3 = l2 + lda;
+
+            double s0 = inicio ? 0 : y[offY + i];
+            double s1 = inicio ? 0 : y[offY + i + 1];
+            double s2 = inicio ? 0 : y[offY + i + 2];
+            double s3 = inicio ? 0 : y[offY + i + 3];
+
+            for(int j = j0; j < j1; j++){
+               double xj = x[offX + j];
+               s0 += a[l0 + j] * xj;
+               s1 += a[l1 + j] * xj;
+               s2 += a[l2 + j] * xj;
+               s3 += a[l3 + j] * xj;
+            }
+
+            y[offY + i]     = s0;
+            y[offY + i + 1] = s1;
+            y[offY + i + 2] = s2;
+            y[offY + i + 3] = s3;
+         }
+
+         for(; i < m; i++){
+            double s = inicio ? 0 : y[offY + i];
+            y[offY + i] = somaParcial(x, offX, a, offA + i*lda, j0, j1, s);
+         }
+      }
+   }
+
+   /**
+    * Calcula o produto entre a transposta da matriz e o vetor.
+    * <pre>
+    *    y = Aᵀ * x
+    * </pre>
+    * A matriz é percorrida por linhas, sem precisar montar a transposta.
+    * @param m quantidade de linhas de {@code A}.
+    * @param n quantidade de colunas de {@code A}.
+    * @param a array contendo a matriz {@code A}.
+    * @param offA índice inicial de {@code A}.
+    * @param lda passo entre as linhas de {@code A}.
+    * @param x array contendo o vetor {@code x}, com {@code m} elementos.
+    * @param offX índice inicial de {@code x}.
+    * @param y array onde será escrito o resultado, com {@code n} elementos.
+    * @param offY índice inicial de {@code y}.
+    */
+   public static void gemvT(int m, int n, double[] a, int offA, int lda, double[] x, int offX, double[] y, int offY){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.gemvT(m, n, a, offA, lda, x, offX, y, offY);
+         return;
+      }
+
+      for(int j0 = 0; j0 < n; j0 += BLOCO_COLUNAS){
+         int j1 = Math.min(n, j0 + BLOCO_COLUNAS);
+
+         for(int j = j0; j < j1; j++){
+            y[offY + j] = 0;
+         }
+
+         int i = 0;
+         for(; i + 3 < m; i += 4){
+            int l0 = offA + i*lda;
+            int l1 = l0 + lda;
+            int l2 = l1 + lda;
+            int l3 = l2 + lda;
+
+            double x0 = x[offX + i];
+            double x1 = x[offX + i + 1];
+            double x2 = x[offX + i + 2];
+            double x3 = x[offX + i + 3];
+
+            //mantém a mesma ordem de soma do loop simples
+            for(int j = j0; j < j1; j++){
+               y[offY + j] = y[offY + j] + a[l0 + j]*x0 + a[l1 + j]*x1 + a[l2 + j]*x2 + a[l3 + j]*x3;
+            }
+         }
+
+         for(; i < m; i++){
+            int l = offA + i*lda;
+            double xi = x[offX + i];
+            for(int j = j0; j < j1; j++){
+               y[offY + j] += a[l + j] * xi;
+            }
+         }
+      }
+   }
+
+   /**
+    * Calcula o produto entre a matriz {@code A} e a transposta da matriz {@code B}.
+    * <pre>
+    *    C = A * Bᵀ
+    * </pre>
+    * Esse formato é o usado pela propagação de um bloco de amostras, onde {@code A}
+    * contém uma amostra por linha e {@code B} contém os pesos de um neurônio por linha,
+    * então ambas são percorridas de forma contígua.
+    * @param m quantidade de linhas de {@code A} e {@code C}.
+    * @param n quantidade de linhas de {@code B} e colunas de {@code C}.
+    * @param k quantidade de colunas de {@code A} e {@code B}.
+    * @param a array contendo a matriz {@code A}.
+    * @param offA índice inicial de {@code A}.
+    * @param lda passo entre as linhas de {@code A}.
+    * @param b array contendo a matriz {@code B}.
+    * @param offB índice inicial de {@code B}.
+    * @param ldb passo entre as linhas de {@code B}.
+    * @param c array onde será escrito o resultado.
+    * @param offC índice inicial de {@code C}.
+    * @param ldc passo entre as linhas de {@code C}.
+    */
+   public static void gemmNT(int m, int n, int k, double[] a, int offA, int lda, double[] b, int offB, int ldb, double[] c, int offC, int ldc){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.gemmNT(m, n, k, a, offA, lda, b, offB, ldb, c, offC, ldc);
+         return;
+      }
+
+      if(k == 0){
+         for(int i = 0; i < m; i++){
+            for(int j = 0; j < n; j++){
+               c[offC + i*ldc + j] = 0;
+            }
+         }
+         return;
+      }
+
+      for(int p0 = 0; p0 < k; p0 += BLOCO_K){
+         int p1 = Math.min(k, p0 + BLOCO_K);
+         boolean inicio = (p0 == 0);
+
+         for(int j0 = 0; j0 < n; j0 += BLOCO_N){
+            int j1 = Math.min(n, j0 + BLOCO_N);
+
+            int i = 0;
+            for(; i + 1 < m; i += 2){
+               int la0 = offA + i*lda;
+               int la1 = la0 + lda;
+               int lc0 = offC + i*ldc;
+               int lc1 = lc0 + ldc;
+
+               int j = j0;
+               for(; j + 3 < j1; j += 4){
+                  int lb0 = offB + j*ldb;
+                  int lb1 = lb0 + ldb;
+                  int lb2 = lb1 + ldb;
+                  int lb3 = lb2 + ldb;
+
+                  double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+                  double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+                  if(!inicio){
+                     c00 = c[lc0 + j]; c01 = c[lc0 + j+1]; c02 = c[lc0 + j+2]; c03 = c[lc0 + j+3];
+                     c10 = c[lc1 + j]; c11 = c[lc1 + j+1]; c12 = c[lc1 + j+2]; c13 = c[lc1 + j+3];
+                  }
+
+                  for(int p = p0; p < p1; p++){
+                     double a0 = a[la0 + p];
+                     double a1 = a[la1 + p];
+                     double b0 = b[lb0 + p];
+                     double b1 = b[lb1 + p];
+                     double b2 = b[lb2 + p];
+                     double b3 = b[lb3 + p];
+
+                     c00 += a0 * b0; c01 += a0 * b1; c02 += a0 * b2; c03 += a0 * b3;
+                     c10 += a1 * b0; c11 += a1 * b1; c12 += a1 * b2; c13 += a1 * b3;
+                  }
+
+                  c[lc0 + j] = c00; c[lc0 + j+1] = c01; c[lc0 + j+2] = c02; c[lc0 + j+3] = c03;
+                  c[lc1 + j] = c10; c[lc1 + j+1] = c11; c[lc1 + j+2] = c12; c[lc1 + j+3] = c13;
+               }
+
+               for(; j < j1; j++){
+                  int lb = offB + j*ldb;
+                  c[lc0 + j] = somaParcial(a, la0, b, lb, p0, p1, inicio ? 0 : c[lc0 + j]);
+                  c[lc1 + j] = somaParcial(a, la1, b, lb, p0, p1, inicio ? 0 : c[lc1 + j]);
+               }
+            }
+
+            for(; i < m; i++){
+               int la = offA + i*lda;
+               int lc = offC + i*ldc;
+               for(int j = j0; j < j1; j++){
+                  c[lc + j] = somaParcial(a, la, b, offB + j*ldb, p0, p1, inicio ? 0 : c[lc + j]);
+               }
+            }
+         }
+      }
+   }
+
+   /**
+    * Acumula o produto externo entre dois vetores na matriz fornecida.
+    * <pre>
+    *    A += alfa * x * yᵀ
+    * </pre>
+    * @param m quantidade de linhas de {@code A} (elementos de {@code x}).
+    * @param n quantidade de colunas de {@code A} (elementos de {@code y}).
+    * @param alfa escalar aplicado ao produto.
+    * @param x array contendo o vetor {@code x}.
+    * @param offX índice inicial de {@code x}.
+    * @param y array contendo o vetor {@code y}.
+    * @param offY índice inicial de {@code y}.
+    * @param a array contendo a matriz {@code A}.
+    * @param offA índice inicial de {@code A}.
+    * @param lda passo entre as linhas de {@code A}.
+    */
+   public static void ger(int m, int n, double alfa, double[] x, int offX, double[] y, int offY, double[] a, int offA, int lda){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      for(int i = 0; i < m; i++){
+         double ax = alfa * x[offX + i];
+         int l = offA + i*lda;
+         if(simd != null){
+            simd.axpy(n, ax, y, offY, a, l);
+         }else{
+            for(int j = 0; j < n; j++){
+               a[l + j] += ax * y[offY + j];
+            }
+         }
+      }
+   }
+
+   /**
+    * Escreve o produto externo entre dois vetores na matriz fornecida,
+    * substituindo seus valores anteriores.
+    * <pre>
+    *    A = alfa * x * yᵀ
+    * </pre>
+    * @param m quantidade de linhas de {@code A} (elementos de {@code x}).
+    * @param n quantidade de colunas de {@code A} (elementos de {@code y}).
+    * @param alfa escalar aplicado ao produto.
+    * @param x array contendo o vetor {@code x}.
+    * @param offX índice inicial de {@code x}.
+    * @param y array contendo o vetor {@code y}.
+    * @param offY índice inicial de {@code y}.
+    * @param a array contendo a matriz {@code A}.
+    * @param offA índice inicial de {@code A}.
+    * @param lda passo entre as linhas de {@code A}.
+    */
+   public static void produtoExterno(int m, int n, double alfa, double[] x, int offX, double[] y, int offY, double[] a, int offA, int lda){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      for(int i = 0; i < m; i++){
+         double ax = alfa * x[offX + i];
+         int l = offA + i*lda;
+         if(simd != null){
+            simd.escalar(n, ax, y, offY, a, l);
+         }else{
+            for(int j = 0; j < n; j++){
+               a[l + j] = ax * y[offY + j];
+            }
+         }
+      }
+   }
+
+   /**
+    * Continua o somatório do produto interno entre duas linhas no intervalo fornecido.
+    * @param a primeiro array.
+    * @param la índice inicial da linha no primeiro array.
+    * @param b segundo array.
+    * @param lb índice inicial da linha no segundo array.
+    * @param p0 índice inicial (inclusivo) do intervalo.
+    * @param p1 índice final (exclusivo) do intervalo.
+    * @param soma valor inicial do somatório.
+    * @return somatório atualizado.
+    */
+   private static double somaParcial(double[] a, int la, double[] b, int lb, int p0, int p1, double soma){
+      for(int p = p0; p < p1; p++){
+         soma += a[la + p] * b[lb + p];
+      }
+      return soma;
+   }
+}
@@ -0,0 +1,129 @@
+package rna.matematica;
+
+/**
+ * Aproximações rápidas das funções transcendentais usadas pelas funções de ativação.
+ * <p>
+ *    O modo aproximado é opcional e fica desativado por padrão, mantendo as funções
+ *    de ativação com os resultados exatos da {@code java.lang.Math}. Ele pode ser
+ *    ativado com {@link #configurar(boolean)} ou com a propriedade de sistema
+ *    {@code -Drna.aproximar=true}.
+ * </p>
+ * <p>
+ *    Quando ativo, o modo aproximado tem prioridade sobre o backend vetorial
+ *    ({@link OperacoesSimd}) nas funções {@code Sigmoid}, {@code TanH}, {@code GELU},
+ *    {@code Swish}, {@code ELU} e {@code Softmax}.
+ * </p>
+ * Limites de erro em relação à {@code java.lang.Math}, verificados por
+ * {@code testes.TesteAproximacoes} em toda a faixa de entradas:
+ * <ul>
+ *    <li>{@link #exp(double)}: erro relativo menor que {@code 1e-8} para qualquer entrada.</li>
+ *    <li>{@link #tanh(double)}: erro absoluto menor que {@code 1e-8}.</li>
+ *    <li>{@link #sigmoid(double)}: erro absoluto menor que {@code 5e-9}.</li>
+ * </ul>
+ * Nas medições de {@code testes.BenchAproximacoes} a {@link #tanh(double)} ficou cerca de
+ * 10 vezes mais rápida que a {@code Math.tanh()}, enquanto a {@link #exp(double)} tem desempenho próximo ao da
+ * {@code Math.exp()}, que já é intrínseca na JVM, e serve principalmente como base das
+ * demais aproximações.
+ * <p>
+ * Os limites são bem menores que a precisão normalmente necessária no treino, mas os
+ * resultados deixam de ser idênticos aos do modo exato.
+ * </p>
+ */
+public final class Aproximacoes{
+
+   /**
+    * log2(e).
+    */
+   private static final double LOG2E = 1.4426950408889634;
+
+   /**
+    * Parte alta de ln(2), com os últimos bits zerados para que {@code k * LN2_ALTO}
+    * seja exato.
+    */
+   private static final double LN2_ALTO = 0.6931471803691238;
+
+   /**
+    * Parte baixa de ln(2), {@code ln(2) - LN2_ALTO}.
+    */
+   private static final double LN2_BAIXO = 1.9082149292705877e-10;
+
+   /**
+    * Limite a partir do qual a exponencial usa o cálculo exato, evitando tratar
+    * os casos de overflow e resultados subnormais.
+    */
+   private static final double LIMITE_EXP = 708;
+
+   /**
+    * Indica se as funções de ativação devem usar as aproximações.
+    */
+   private static volatile boolean ativo = "true".equalsIgnoreCase(System.getProperty("rna.aproximar"));
+
+   private Aproximacoes(){}
+
+   /**
+    * Verifica se o modo aproximado está ativo.
+    * @return true caso as funções de ativação devam usar as aproximações.
+    */
+   public static boolean ativo(){
+      return ativo;
+   }
+
+   /**
+    * Ativa ou desativa o modo aproximado das funções de ativação.
+    * @param usar true para usar as aproximações, false para usar os cálculos exatos.
+    */
+   public static void configurar(boolean usar){
+      ativo = usar;
+   }
+
+   /**
+    * Aproximação de {@code e^x}.
+    * <p>
+    *    A entrada é reduzida para {@code x = k*ln(2) + r}, com {@code |r| <= ln(2)/2},
+    *    {@code e^r} é calculado por um polinômio de Taylor de grau 7 e o fator {@code 2^k}
+    *    é montado diretamente nos bits do expoente.
+    * </p>
+    * @param x valor de entrada.
+    * @return aproximação de {@code e^x}, com erro relativo menor que {@code 1e-8}.
+    */
+   public static double exp(double x){
+      if(x > LIMITE_EXP || x < -LIMITE_EXP || x != x){
+         return Math.exp(x);
+      }
+
+      double k = Math.floor(x * LOG2E + 0.5);
+      double r = (x - k * LN2_ALTO) - k * LN2_BAIXO;
+
+      double p = 1 + r * (1 + r * (1.0/2 + r * (1.0/6 + r * (1.0/24 + 
+         r * (1.0/120 + r * (1.0/720 + r * (1.0/5040)))))));
+
+      return p * Double.longBitsToDouble(((long) k + 1023) << 52);
+   }
+
+   /**
+    * Aproximação da tangente hiperbólica, calculada como
+    * {@code 1 - 2 / (e^2x + 1)} usando {@link #exp(double)}.
+    * @param x valor de entrada.
+    * @return aproximação de {@code tanh(x)}, com erro absoluto menor que {@code 1e-8}.
+    */
+   public static double tanh(double x){
+      if(x > 20){
+         return 1;
+      }
+      if(x < -20){
+         return -1;
+      }
+
+      return 1 - 2 / (exp(2 * x) + 1);
+   }
+
+   /**
+    * Aproximação da função sigmóide, calculada como {@code 1 / (1 + e^-x)}
+    * usando {@link #exp(double)}.
+    * @param x valor de entrada.
+    * @return aproximação de {@code sigmoid(x)}, com erro absoluto menor que {@code 5e-9}.
+    */
+   public static double sigmoid(double x){
+      return 1 / (1 + exp(-x));
+   }
+}
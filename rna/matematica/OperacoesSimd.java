@@ -0,0 +1,282 @@
+package rna.matematica;
+
+/**
+ * Backend opcional de operações vetoriais (SIMD) usadas pela Rede Neural.
+ * <p>
+ *    A implementação usa a API de vetores do Java ({@code jdk.incubator.vector}) e fica
+ *    fora das fontes principais, na pasta {@code simd}, para que a biblioteca possa ser
+ *    compilada sem o módulo. Ela é compilada separadamente como um complemento e o
+ *    módulo precisa ser habilitado na execução:
+ * </p>
+ * <pre>
+ *    javac -d out $(find rna -name "*.java")
+ *    javac --add-modules jdk.incubator.vector -cp out -d out simd/rna/matematica/OperacoesVector.java
+ *    java --add-modules jdk.incubator.vector -cp out ...
+ * </pre>
+ * <p>
+ *    Quando o complemento não foi compilado ou o módulo não está presente na execução,
+ *    {@link #obter()} retorna {@code null} e todos os componentes continuam usando seus
+ *    loops escalares.
+ *    Com o módulo presente o backend é usado automaticamente, podendo ser desativado
+ *    com {@link #configurar(boolean)} ou com a propriedade de sistema
+ *    {@code -Drna.simd=false}.
+ * </p>
+ * <p>
+ *    As operações vetoriais usam instruções FMA e somatórios em paralelo, então os
+ *    resultados podem diferir dos loops escalares nas últimas casas decimais.
+ * </p>
+ * Exemplo de uso nos componentes:
+ * <pre>
+ *OperacoesSimd simd = OperacoesSimd.obter();
+ *if(simd != null){
+ *   simd.axpy(n, alfa, x, 0, y, 0);
+ *}else{
+ *   //loop escalar
+ *}
+ * </pre>
+ */
+public abstract class OperacoesSimd{
+
+   /**
+    * Nome da classe que implementa as operações usando a API de vetores.
+    */
+   private static final String IMPLEMENTACAO = "rna.matematica.OperacoesVector";
+
+   /**
+    * Instância do backend, nula caso a API de vetores não esteja disponível.
+    */
+   private static final OperacoesSimd INSTANCIA = carregar();
+
+   /**
+    * Indica se o backend deve ser usado pelos componentes.
+    */
+   private static volatile boolean ativo = (INSTANCIA != null) &&
+      !"false".equalsIgnoreCase(System.getProperty("rna.simd"));
+
+   /**
+    * Tenta carregar a implementação vetorial, retornando nulo caso ela não esteja no
+    * classpath ou o módulo {@code jdk.incubator.vector} não esteja disponível.
+    * @return instância do backend ou nulo.
+    */
+   private static OperacoesSimd carregar(){
+      try{
+         return (OperacoesSimd) Class.forName(IMPLEMENTACAO).getDeclaredConstructor().newInstance();
+
+      }catch(Throwable t){
+         return null;
+      }
+   }
+
+   /**
+    * Retorna a instância ativa do backend vetorial.
+    * @return backend vetorial, ou {@code null} caso ele não esteja disponível
+    * ou tenha sido desativado, indicando que o caminho escalar deve ser usado.
+    */
+   public static OperacoesSimd obter(){
+      return ativo ? INSTANCIA : null;
+   }
+
+   /**
+    * Verifica se a API de vetores está disponível no ambiente de execução.
+    * @return true caso o backend possa ser usado, false caso contrário.
+    */
+   public static boolean disponivel(){
+      return INSTANCIA != null;
+   }
+
+   /**
+    * Ativa ou desativa o uso do backend vetorial.
+    * @param usar true para usar as operações vetoriais, false para usar apenas
+    * os loops escalares.
+    * @throws IllegalArgumentException se for solicitado o uso do backend e a API
+    * de vetores não estiver disponível.
+    */
+   public static void configurar(boolean usar){
+      if(usar && INSTANCIA == null){
+         throw new IllegalArgumentException(
+            "A API de vetores (jdk.incubator.vector) não está disponível, compile o complemento " +
+            "da pasta simd e execute com --add-modules jdk.incubator.vector para habilitá-la."
+         );
+      }
+
+      ativo = usar;
+   }
+
+   /**
+    * Quantidade de elementos double processados por instrução vetorial.
+    * @return largura do vetor usado pelo backend.
+    */
+   public abstract int largura();
+
+   // ---------------- álgebra linear ----------------
+
+   /**
+    * Calcula o produto interno entre dois vetores.
+    * @param n quantidade de elementos.
+    * @param x primeiro vetor.
+    * @param offX índice inicial do primeiro vetor.
+    * @param y segundo vetor.
+    * @param offY índice inicial do segundo vetor.
+    * @return resultado do produto interno.
+    */
+   public abstract double produtoInterno(int n, double[] x, int offX, double[] y, int offY);
+
+   /**
+    * Calcula {@code y += alfa * x}.
+    * @param n quantidade de elementos.
+    * @param alfa escalar multiplicado a {@code x}.
+    * @param x vetor de entrada.
+    * @param offX índice inicial de {@code x}.
+    * @param y vetor acumulado.
+    * @param offY índice inicial de {@code y}.
+    */
+   public abstract void axpy(int n, double alfa, double[] x, int offX, double[] y, int offY);
+
+   /**
+    * Calcula {@code y = alfa * x}.
+    * @param n quantidade de elementos.
+    * @param alfa escalar multiplicado a {@code x}.
+    * @param x vetor de entrada.
+    * @param offX índice inicial de {@code x}.
+    * @param y vetor de destino.
+    * @param offY índice inicial de {@code y}.
+    */
+   public abstract void escalar(int n, double alfa, double[] x, int offX, double[] y, int offY);
+
+   /**
+    * Versão vetorial de {@link AlgebraLinear#gemv}.
+    */
+   public abstract void gemv(int m, int n, double[] a, int offA, int lda, double[] x, int offX, double[] y, int offY);
+
+   /**
+    * Versão vetorial de {@link AlgebraLinear#gemvT}.
+    */
+   public abstract void gemvT(int m, int n, double[] a, int offA, int lda, double[] x, int offX, double[] y, int offY);
+
+   /**
+    * Versão vetorial de {@link AlgebraLinear#gemmNT}.
+    */
+   public abstract void gemmNT(int m, int n, int k, double[] a, int offA, int lda, double[] b, int offB, int ldb, double[] c, int offC, int ldc);
+
+   // ---------------- otimizadores ----------------
+   // os "n" parâmetros e gradientes começam no índice "off" e os arrays de estado
+   // dos otimizadores começam no índice "id", seguindo a ordem dos próprios otimizadores
+
+   /**
+    * Atualização do Gradient Descent.
+    */
+   public abstract void gd(double[] p, double[] g, int off, int n, double tA);
+
+   /**
+    * Atualização do Gradient Descent com momentum.
+    */
+   public abstract void gdm(double[] p, double[] g, int off, int n, double[] m, int id, double tA, double tM);
+
+   /**
+    * Atualização do SGD, com ou sem o momentum de Nesterov.
+    */
+   public abstract void sgd(double[] p, double[] g, int off, int n, double[] m, int id, double tA, double momentum, boolean nesterov);
+
+   /**
+    * Atualização do AdaGrad.
+    */
+   public abstract void adagrad(double[] p, double[] g, int off, int n, double[] ac, int id, double tA, double eps);
+
+   /**
+    * Atualização do RMSProp.
+    */
+   public abstract void rmsprop(double[] p, double[] g, int off, int n, double[] ac, int id, double tA, double rho, double eps);
+
+   /**
+    * Atualização do Adadelta, com as variações multiplicadas por {@code tA}.
+    */
+   public abstract void adadelta(double[] p, double[] g, int off, int n, double[] acG, double[] acA, int id, double tA, double rho, double eps);
+
+   /**
+    * Atualização do Adam, com a taxa de aprendizagem já corrigida.
+    */
+   public abstract void adam(double[] p, double[] g, int off, int n, double[] m, double[] v, int id, double alfa, double b1, double b2, double eps);
+
+   /**
+    * Atualização do Adamax.
+    */
+   public abstract void adamax(double[] p, double[] g, int off, int n, double[] m, double[] v, int id, double tA, double b1, double b2, double eps, double forcaB1);
+
+   /**
+    * Atualização do AMSGrad.
+    */
+   public abstract void amsgrad(double[] p, double[] g, int off, int n, double[] m, double[] v, double[] vc, int id, double tA, double b1, double b2, double eps, double forcaB1, double forcaB2);
+
+   /**
+    * Atualização do Nadam.
+    */
+   public abstract void nadam(double[] p, double[] g, int off, int n, double[] m, double[] v, int id, double tA, double b1, double b2, double eps, double forcaB1, double forcaB2);
+
+   /**
+    * Atualização do Lion.
+    */
+   public abstract void lion(double[] p, double[] g, int off, int n, double[] m, int id, double tA, double b1, double b2);
+
+   // ---------------- ativações ----------------
+   // todas as funções são aplicadas nos primeiros "n" elementos dos arrays
+
+   /**
+    * {@code saida = max(0, x)}
+    */
+   public abstract void relu(double[] x, double[] saida, int n);
+
+   /**
+    * Derivada da ReLU a partir do somatório.
+    */
+   public abstract void reluDerivada(double[] x, double[] derivada, int n);
+
+   /**
+    * {@code saida = x > 0 ? x : alfa * x}
+    */
+   public abstract void leakyRelu(double[] x, double[] saida, int n, double alfa);
+
+   /**
+    * Derivada da Leaky ReLU a partir do somatório.
+    */
+   public abstract void leakyReluDerivada(double[] x, double[] derivada, int n, double alfa);
+
+   /**
+    * {@code saida = x > 0 ? x : alfa * (e^x - 1)}
+    */
+   public abstract void elu(double[] x, double[] saida, int n, double alfa);
+
+   /**
+    * {@code saida = 1 / (1 + e^-x)}
+    */
+   public abstract void sigmoid(double[] x, double[] saida, int n);
+
+   /**
+    * Derivada da Sigmóide a partir da saída já calculada.
+    */
+   public abstract void sigmoidDerivada(double[] saida, double[] derivada, int n);
+
+   /**
+    * {@code saida = tanh(x)}
+    */
+   public abstract void tanh(double[] x, double[] saida, int n);
+
+   /**
+    * Derivada da Tangente Hiperbólica a partir da saída já calculada.
+    */
+   public abstract void tanhDerivada(double[] saida, double[] derivada, int n);
+
+   /**
+    * {@code saida = x * sigmoid(x)}
+    */
+   public abstract void swish(double[] x, double[] saida, int n);
+
+   /**
+    * {@code saida = ln(1 + e^x)}
+    */
+   public abstract void softplus(double[] x, double[] saida, int n);
+
+   /**
+    * {@code saida = sen(x)}
+    */
+   public abstract void seno(double[] x, double[] saida, int n);
+}
@@ -1,7 +1,7 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação do algoritmo de otimização AMSGrad, que é uma variação do 
@@ -13,11 +13,18 @@ import rna.estrutura.Neuronio;
  */
 public class AMSGrad extends Otimizador{
 
+	private static final long serialVersionUID = 1L;
+
    /**
     * Valor de taxa de aprendizagem do otimizador.
     */
 	private double taxaAprendizagem;
 
+	/**
+	 * Taxa de aprendizagem do passo atual, definida pelo agendador.
+	 */
+	private double taxa;
+
 	/**
 	 * Usado para evitar divisão por zero.
 	 */
@@ -53,6 +60,16 @@ public class AMSGrad extends Otimizador{
 	 */
 	private long interacoes;
 
+	/**
+	 * Correção de bias do momentum no passo atual.
+	 */
+	private double forcaB1;
+
+	/**
+	 * Correção de bias da velocidade no passo atual.
+	 */
+	private double forcaB2;
+
 	/**
 	 * Inicializa uma nova instância de otimizador <strong> AMSGrad </strong> usando os valores de
 	 * hiperparâmetros fornecidos.
@@ -154,33 +171,37 @@ public class AMSGrad extends Otimizador{
     */
 	@Override
 	public void atualizar(Camada[] redec){
+		taxa = proximaTaxa(taxaAprendizagem);
 		interacoes++;
-		
-		double mChapeu, vChapeu, g;
-		double forcaB1 = (1 - Math.pow(beta1, interacoes));
-		double forcaB2 = (1 - Math.pow(beta2, interacoes));
-
-		int id = 0;//indice de busca na lista de coeficientes
-		for(Camada camada : redec){
-			for(Neuronio neuronio : camada.neuronios()){
-				for(int i = 0; i < neuronio.pesos.length; i++){
-					g = neuronio.gradientes[i];
-					
-					momentum[id] =   (beta1 * momentum[id])   + ((1 - beta1) * g);
-					velocidade[id] = (beta2 * velocidade[id]) + ((1 - beta2) * g * g);
-
-					vCorrigido[id] = Math.max(vCorrigido[id], velocidade[id]);
-
-					mChapeu = momentum[id] / forcaB1;
-					vChapeu = vCorrigido[id] / forcaB2;
-
-					neuronio.pesos[i] -= (taxaAprendizagem * mChapeu) / (Math.sqrt(vChapeu) + epsilon);
-
-					id++;
-				}			
-			}
+
+		forcaB1 = (1 - Math.pow(beta1, interacoes));
+		forcaB2 = (1 - Math.pow(beta2, interacoes));
+		aplicarKernel(redec);
+	}
+
+	@Override
+	protected void kernel(double[] p, double[] g, int off, int n, int id){
+		OperacoesSimd simd = OperacoesSimd.obter();
+		if(simd != null){
+			simd.amsgrad(p, g, off, n, momentum, velocidade, vCorrigido, id, taxa, beta1, beta2, epsilon, forcaB1, forcaB2);
+			return;
 		}
-  	}
+
+		for(int i = off, fim = off + n; i < fim; i++, id++){
+			double gi = g[i];
+			double m = (beta1 * momentum[id])   + ((1 - beta1) * gi);
+			double v = (beta2 * velocidade[id]) + ((1 - beta2) * gi * gi);
+			double vc = Math.max(vCorrigido[id], v);
+
+			momentum[id] = m;
+			velocidade[id] = v;
+			vCorrigido[id] = vc;
+
+			double mChapeu = m / forcaB1;
+			double vChapeu = vc / forcaB2;
+			p[i] -= (taxa * mChapeu) / (Math.sqrt(vChapeu) + epsilon);
+		}
+	}
 
 	@Override
 	public String info(){
@@ -1,7 +1,7 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementa uma versão do algoritmo AdaGrad (Adaptive Gradient Algorithm).
@@ -11,11 +11,18 @@ import rna.estrutura.Neuronio;
  */
 public class AdaGrad extends Otimizador{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Valor de taxa de aprendizagem do otimizador.
     */
    private double taxaAprendizagem;
 
+   /**
+    * Taxa de aprendizagem do passo atual, definida pelo agendador.
+    */
+   private double taxa;
+
    /**
     * Usado para evitar divisão por zero.
     */
@@ -90,20 +97,24 @@ public class AdaGrad extends Otimizador{
     * </p>
     */
    @Override
-   public void atualizar(Camada[] redec){  
-      double g;
-      int id = 0;//indice de busca na lista de coeficientes
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               g = neuronio.gradientes[i];
-
-               acumulador[id] += (g * g);
-               neuronio.pesos[i] -= (taxaAprendizagem * g) / (Math.sqrt(acumulador[id] + epsilon));
-
-               id++;
-            }
-         }
+   public void atualizar(Camada[] redec){
+      taxa = proximaTaxa(taxaAprendizagem);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.adagrad(p, g, off, n, acumulador, id, taxa, epsilon);
+         return;
+      }
+
+      for(int i = off, fim = off + n; i < fim; i++, id++){
+         double gi = g[i];
+         double ac = acumulador[id] + (gi * gi);
+         acumulador[id] = ac;
+         p[i] -= (taxa * gi) / (Math.sqrt(ac + epsilon));
       }
    }
 
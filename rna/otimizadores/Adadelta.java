@@ -1,14 +1,17 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 public class Adadelta extends Otimizador{
 
+   private static final long serialVersionUID = 1L;
+
    private double rho;
    private double epsilon;
    private double[] acGradQuadrado;
    private double[] acAttQuadrado;
+   private double taxa;//multiplicador do passo atual, definido pelo agendador a partir de 1
 
    public Adadelta(double beta2, double epsilon){
       this.rho = beta2;
@@ -27,23 +30,26 @@ public class Adadelta extends Otimizador{
 
    @Override
    public void atualizar(Camada[] redec){
-      double g;
-      int id = 0;//indice de busca na lista de coeficientes
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               g = neuronio.gradientes[i];
-
-               acGradQuadrado[id] = (rho * acGradQuadrado[id]) + ((1 - rho) * (g*g));
-
-               double delta = Math.sqrt(acAttQuadrado[id] + epsilon) / Math.sqrt(acGradQuadrado[id] + epsilon) * g;
-               
-               acAttQuadrado[id] = (rho * acAttQuadrado[id]) + ((1 - rho) * (delta*delta));
-               
-               neuronio.pesos[i] -= delta;
-               id++;
-            }
-         }
+      taxa = proximaTaxa(1);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.adadelta(p, g, off, n, acGradQuadrado, acAttQuadrado, id, taxa, rho, epsilon);
+         return;
+      }
+
+      for(int i = off, fim = off + n; i < fim; i++, id++){
+         double gi = g[i];
+         double acG = (rho * acGradQuadrado[id]) + ((1 - rho) * (gi*gi));
+         double delta = Math.sqrt(acAttQuadrado[id] + epsilon) / Math.sqrt(acG + epsilon) * gi;
+
+         acGradQuadrado[id] = acG;
+         acAttQuadrado[id] = (rho * acAttQuadrado[id]) + ((1 - rho) * (delta*delta));
+         p[i] -= taxa * delta;
       }
    }
 
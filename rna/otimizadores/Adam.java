@@ -1,7 +1,7 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementação do algoritmo de otimização Adam.
@@ -43,6 +43,8 @@ import rna.estrutura.Neuronio;
  */
 public class Adam extends Otimizador{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Valor de taxa de aprendizagem do otimizador.
     */
@@ -77,6 +79,11 @@ public class Adam extends Otimizador{
     * Contador de iterações.
     */
    long interacoes = 0;
+
+   /**
+    * Taxa de aprendizagem corrigida do passo atual.
+    */
+   private double alfa;
  
    /**
     * Inicializa uma nova instância de otimizador <strong> Adam </strong> 
@@ -172,27 +179,29 @@ public class Adam extends Otimizador{
     */
    @Override
    public void atualizar(Camada[] redec){
-      double g;
-
       interacoes++;
       double forcaB1 = Math.pow(beta1, interacoes);
       double forcaB2 = Math.pow(beta2, interacoes);
-      double alfa = taxaAprendizagem * Math.sqrt(1 - forcaB2) / (1 - forcaB1);
-      
-      int id = 0;//indice de busca na lista de coeficientes
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){   
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               g = neuronio.gradientes[i];
-               
-               momentum[id]   += (1 - beta1) * (g - momentum[id]);
-               velocidade[id] += (1 - beta2) * ((g*g) - velocidade[id]); 
-
-               neuronio.pesos[i] -= (alfa * momentum[id]) / (Math.sqrt(velocidade[id]) + epsilon);
-            
-               id++;
-            }
-         }
+      alfa = proximaTaxa(taxaAprendizagem) * Math.sqrt(1 - forcaB2) / (1 - forcaB1);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.adam(p, g, off, n, momentum, velocidade, id, alfa, beta1, beta2, epsilon);
+         return;
+      }
+
+      for(int i = off, fim = off + n; i < fim; i++, id++){
+         double gi = g[i];
+         double m = momentum[id] + (1 - beta1) * (gi - momentum[id]);
+         double v = velocidade[id] + (1 - beta2) * ((gi*gi) - velocidade[id]);
+
+         momentum[id] = m;
+         velocidade[id] = v;
+         p[i] -= (alfa * m) / (Math.sqrt(v) + epsilon);
       }
    }
 
@@ -1,15 +1,22 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 public class Adamax extends Otimizador{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Valor de taxa de aprendizagem do otimizador.
     */
    private double taxaAprendizagem;
 
+   /**
+    * Taxa de aprendizagem do passo atual, definida pelo agendador.
+    */
+   private double taxa;
+
    /**
     * Usado para evitar divisão por zero.
     */
@@ -40,6 +47,11 @@ public class Adamax extends Otimizador{
     */
    private long interacoes;
 
+   /**
+    * Correção de bias do momentum no passo atual.
+    */
+   private double forcaB1;
+
    /**
     * Inicializa uma nova instância de otimizador <strong> Adamax </strong> 
     * usando os valores de hiperparâmetros fornecidos.
@@ -127,24 +139,29 @@ public class Adamax extends Otimizador{
     * </p>
     */
    @Override
-   public void atualizar(Camada[] redec){      
+   public void atualizar(Camada[] redec){
+      taxa = proximaTaxa(taxaAprendizagem);
       interacoes++;
-      double forcaB1 = Math.pow(beta1, interacoes);
-      
-      int id = 0;//indice de busca na lista de coeficientes
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){   
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               double g = neuronio.gradientes[i];
-
-               momentum[id] += (g - momentum[id]) * (1 - beta1);
-               velocidade[id] = Math.max(beta2 * velocidade[id], Math.abs(g));
-
-               neuronio.pesos[i] -= taxaAprendizagem * momentum[id] / ((1 - forcaB1) * (velocidade[id] + epsilon));
-
-               id++;
-            }
-         }
+      forcaB1 = Math.pow(beta1, interacoes);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.adamax(p, g, off, n, momentum, velocidade, id, taxa, beta1, beta2, epsilon, forcaB1);
+         return;
+      }
+
+      for(int i = off, fim = off + n; i < fim; i++, id++){
+         double gi = g[i];
+         double m = momentum[id] + (gi - momentum[id]) * (1 - beta1);
+         double v = Math.max(beta2 * velocidade[id], Math.abs(gi));
+
+         momentum[id] = m;
+         velocidade[id] = v;
+         p[i] -= taxa * m / ((1 - forcaB1) * (v + epsilon));
       }
    }
 
@@ -1,7 +1,7 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Classe que implementa o algoritmo de Descida do Gradiente para otimização de redes neurais.
@@ -9,11 +9,18 @@ import rna.estrutura.Neuronio;
  */
 public class GD extends Otimizador{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Valor de taxa de aprendizagem do otimizador.
     */
    private double taxaAprendizagem;
 
+   /**
+    * Taxa de aprendizagem do passo atual, definida pelo agendador.
+    */
+   private double taxa;
+
    /**
     * Inicializa uma nova instância de otimizador da <strong> Descida do Gradiente </strong>
     * usando os valores de hiperparâmetros fornecidos.
@@ -58,15 +65,23 @@ public class GD extends Otimizador{
     *    {@code tA} - taxa de aprendizagem.
     * </p>
     */
-    @Override
+   @Override
    public void atualizar(Camada[] redec){
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){   
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               neuronio.pesos[i] -= neuronio.gradientes[i] * taxaAprendizagem;
-            }
-         }
-      } 
+      taxa = proximaTaxa(taxaAprendizagem);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.gd(p, g, off, n, taxa);
+         return;
+      }
+
+      for(int i = off, fim = off + n; i < fim; i++){
+         p[i] -= g[i] * taxa;
+      }
    }
 
    @Override
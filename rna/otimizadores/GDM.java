@@ -1,7 +1,7 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Classe que implementa o algoritmo de Descida do Gradiente com momentum 
@@ -9,11 +9,18 @@ import rna.estrutura.Neuronio;
  */
 public class GDM extends Otimizador{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Valor de taxa de aprendizagem do otimizador.
     */
    private double taxaAprendizagem;
 
+   /**
+    * Taxa de aprendizagem do passo atual, definida pelo agendador.
+    */
+   private double taxa;
+
    /**
     * Valor de taxa de momentum do otimizador.
     */
@@ -82,16 +89,25 @@ public class GDM extends Otimizador{
     *    {@code tm} - taxa de momentum.
     * </p>
     */
-    @Override
+   @Override
    public void atualizar(Camada[] redec){
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){   
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               momentum[i] = (neuronio.gradientes[i] * taxaAprendizagem) + (taxaMomentum * momentum[i]);
-               neuronio.pesos[i] -= momentum[i];
-            }
-         }
-      } 
+      taxa = proximaTaxa(taxaAprendizagem);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.gdm(p, g, off, n, momentum, id, taxa, taxaMomentum);
+         return;
+      }
+
+      for(int i = off, fim = off + n; i < fim; i++, id++){
+         double m = (g[i] * taxa) + (taxaMomentum * momentum[id]);
+         momentum[id] = m;
+         p[i] -= m;
+      }
    }
 
    @Override
@@ -1,14 +1,18 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Nao conhecia, ainda to pesquisando melhor
  */
 public class Lion extends Otimizador{
+
+   private static final long serialVersionUID = 1L;
    
    private double taxaAprendizagem;
+
+   private double taxa;
    
    private double beta1;
    
@@ -33,19 +37,24 @@ public class Lion extends Otimizador{
 
    @Override
    public void atualizar(Camada[] redec){
-      double g;
-		int id = 0;//indice de busca na lista de coeficientes
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){   
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               g = neuronio.gradientes[i];
-               
-               neuronio.pesos[i] -= taxaAprendizagem * Math.signum((momentum[id] * beta1) + (g * (1 - beta1)));
-               momentum[id] = (momentum[id] * beta2) + (g * (1 - beta2));
-
-               id++;
-            }
-         }
+      taxa = proximaTaxa(taxaAprendizagem);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.lion(p, g, off, n, momentum, id, taxa, beta1, beta2);
+         return;
+      }
+
+      for(int i = off, fim = off + n; i < fim; i++, id++){
+         double gi = g[i];
+         double m = momentum[id];
+
+         p[i] -= taxa * Math.signum((m * beta1) + (gi * (1 - beta1)));
+         momentum[id] = (m * beta2) + (gi * (1 - beta2));
       }
    }
 
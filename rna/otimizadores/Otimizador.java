@@ -1,6 +1,13 @@
 package rna.otimizadores;
 
+import java.io.Serializable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
 import rna.estrutura.Camada;
+import rna.matematica.OperacoesSimd;
+import rna.otimizadores.agendadores.Agendador;
 
 /**
  * Classe base para implementações de otimizadores do treino da Rede Neural.
@@ -18,7 +25,54 @@ import rna.estrutura.Camada;
  *		especiais, como o coeficiente de momentum por exemplo.
  * </p>
  */
-public abstract class Otimizador{
+public abstract class Otimizador implements Serializable{
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Quantidade mínima de parâmetros atualizados por cada thread, abaixo dela
+	 * a divisão do trabalho custa mais do que a própria atualização.
+	 */
+	private static final int PARAMETROS_POR_TAREFA = 1 << 16;
+
+	/**
+	 * Pool usado para dividir a atualização dos parâmetros entre threads,
+	 * nulo quando a atualização é sequencial.
+	 */
+	private transient ForkJoinPool pool = null;
+
+	/**
+	 * Tarefas de cada faixa dos parâmetros, reaproveitadas entre as atualizações 
+	 * enquanto a rede, a quantidade de tarefas e a largura vetorial não mudarem.
+	 */
+	private transient Faixa[] faixas;
+
+	/**
+	 * Tarefa que executa as faixas no pool.
+	 */
+	private transient Grupo grupo;
+
+	/**
+	 * Camadas, quantidade de parâmetros e largura vetorial usadas na divisão atual 
+	 * das faixas.
+	 */
+	private transient Camada[] faixasRedec;
+	private transient int faixasTotal, faixasLargura;
+
+	/**
+	 * Agendador da taxa de aprendizagem, nulo para usar sempre a taxa configurada.
+	 */
+	private Agendador agendador = null;
+
+	/**
+	 * Quantidade de atualizações feitas pelo otimizador.
+	 */
+	private long passo = 0;
+
+	/**
+	 * Taxa de aprendizagem usada na última atualização.
+	 */
+	private double taxaAtual = 0;
 
 	/**
 	 * Inicializa os parâmetros do otimizador para que possa ser usado.
@@ -35,18 +89,26 @@ public abstract class Otimizador{
 	 * <p>
 	 *      A atualização de pesos é feita uma única vez em todos os parâmetros da rede.
 	 * </p>
+	 * <p>
+	 *      Os pesos e bias de cada camada ficam em arrays contíguos ({@code camada.pesos} 
+	 *      e {@code camada.bias}), com seus gradientes correspondentes em {@code camada.gradPesos}
+	 *      e {@code camada.gradBias}.
+	 * </p>
 	 * Exemplo de uso:
 	 * <pre>
 	 *	public void atualizar(Camada[] redec){
 	 * 	//indice na lista de coeficientes, caso o otimizador precise	
 	 * 	int id = 0;
 	 *		for(Camada camada : redec){
-	 *			for(Neuronio neuronio : camada.neuronios()){
-	 *				for(int i = 0; i < neuronio.pesos.length; i++){
-	 *					// implementação do otimizador
+	 *			for(int i = 0; i < camada.pesos.length; i++){
+	 *				// implementação do otimizador
+	 *
+	 *				id++;
+	 *			}
+	 *			for(int i = 0; i < camada.bias.length; i++){
+	 *				// implementação do otimizador
 	 *
-	 *					id++;
-	 *				}      
+	 *				id++;
 	 *			}
 	 *		}
 	 *	}
@@ -59,6 +121,292 @@ public abstract class Otimizador{
 		);
 	}
 
+	/**
+	 * Configura o agendador da taxa de aprendizagem do otimizador.
+	 * <p>
+	 *		Em cada atualização o otimizador usa a taxa definida pelo agendador a partir da 
+	 *		taxa de aprendizagem configurada na sua criação (taxa base) e da quantidade de 
+	 *		atualizações já feitas. O estado do agendador é salvo junto com o otimizador 
+	 *		nos checkpoints.
+	 * </p>
+	 * <p>
+	 *		{@code O valor padrão é null (taxa de aprendizagem constante)}
+	 * </p>
+	 * Exemplo:
+	 * <pre>
+	 *	SGD sgd = new SGD(0.1, 0.9);
+	 *	sgd.configurarAgendador(new Aquecimento(100, new DecaimentoDegrau(1000, 0.5)));
+	 * </pre>
+	 * @param agendador novo agendador, ou nulo para usar a taxa constante.
+	 */
+	public void configurarAgendador(Agendador agendador){
+		this.agendador = agendador;
+	}
+
+	/**
+	 * Retorna o agendador da taxa de aprendizagem configurado.
+	 * @return agendador do otimizador, ou nulo caso a taxa seja constante.
+	 */
+	public Agendador obterAgendador(){
+		return agendador;
+	}
+
+	/**
+	 * Retorna a taxa de aprendizagem usada na última atualização do otimizador.
+	 * @return taxa de aprendizagem atual, zero caso nenhuma atualização tenha sido feita.
+	 */
+	public double obterTaxaAtual(){
+		return taxaAtual;
+	}
+
+	/**
+	 * Calcula a taxa de aprendizagem da atualização atual e avança a contagem de passos.
+	 * <p>
+	 *		Deve ser chamado uma única vez no início de cada {@code atualizar()}. Sem um 
+	 *		agendador configurado a própria taxa base é retornada.
+	 * </p>
+	 * @param base taxa de aprendizagem configurada no otimizador.
+	 * @return taxa de aprendizagem usada nesta atualização.
+	 */
+	protected final double proximaTaxa(double base){
+		taxaAtual = (agendador == null) ? base : agendador.taxa(base, passo);
+		passo++;
+		return taxaAtual;
+	}
+
+	/**
+	 * Indica se o agendador configurado precisa da perda de cada época.
+	 * @return true caso os treinos devam informar a perda das épocas.
+	 */
+	public boolean usaPerdaEpoca(){
+		return agendador != null && agendador.usaPerda();
+	}
+
+	/**
+	 * Informa ao agendador configurado a perda média de uma época concluída.
+	 * @param perda perda média das amostras da época.
+	 */
+	public void registrarEpoca(double perda){
+		if(agendador != null) agendador.registrarEpoca(perda);
+	}
+
+	/**
+	 * Configura o pool de threads usado para atualizar os parâmetros da rede em paralelo.
+	 * <p>
+	 *		Os parâmetros são divididos em faixas contíguas, uma por thread, e cada faixa é 
+	 *		atualizada pelo mesmo kernel da atualização sequencial. Os cortes entre faixas 
+	 *		respeitam a largura das operações vetoriais, então os resultados são idênticos aos 
+	 *		da atualização sequencial para qualquer quantidade de threads.
+	 * </p>
+	 * <p>
+	 *		Redes pequenas, em que cada thread receberia menos de {@value #PARAMETROS_POR_TAREFA} 
+	 *		parâmetros, continuam sendo atualizadas em uma única thread. Apenas otimizadores que 
+	 *		usam {@link #aplicarKernel(Camada[])} são afetados.
+	 * </p>
+	 * <p>
+	 *		{@code O valor padrão é null (atualização sequencial)}
+	 * </p>
+	 * @param pool pool de threads, ou nulo para usar a atualização sequencial.
+	 */
+	public void configurarParalelismo(ForkJoinPool pool){
+		this.pool = pool;
+	}
+
+	/**
+	 * Retorna o pool de threads usado para atualizar os parâmetros da rede em paralelo.
+	 * @return pool configurado, ou nulo caso a atualização seja sequencial.
+	 */
+	public ForkJoinPool obterParalelismo(){
+		return pool;
+	}
+
+	/**
+	 * Aplica o {@link #kernel(double[], double[], int, int, int) kernel} do otimizador
+	 * em todos os parâmetros da Rede Neural.
+	 * <p>
+	 *		Os pesos e bias de cada camada são tratados como segmentos consecutivos de uma 
+	 *		única visão contígua dos parâmetros, na mesma ordem usada pelos arrays de estado 
+	 *		do otimizador, então o kernel é chamado com o índice global do primeiro parâmetro 
+	 *		de cada trecho. Com um pool configurado, a visão é dividida em faixas atualizadas 
+	 *		em paralelo.
+	 * </p>
+	 * <p>
+	 *		Otimizadores que implementam o kernel devem calcular os valores do passo atual 
+	 *		(como correções de bias) antes de chamar este método.
+	 * </p>
+	 * @param redec Rede Neural em formato de lista de camadas.
+	 */
+	protected final void aplicarKernel(Camada[] redec){
+		int total = 0;
+		for(Camada camada : redec){
+			total += camada.pesos.length + camada.bias.length;
+		}
+
+		int tarefas = (pool == null) ? 1 : Math.min(pool.getParallelism(), total / PARAMETROS_POR_TAREFA);
+		if(tarefas <= 1){
+			aplicarFaixa(redec, 0, total);
+			return;
+		}
+
+		OperacoesSimd simd = OperacoesSimd.obter();
+		int largura = (simd == null) ? 1 : simd.largura();
+
+		if(faixas == null || faixas.length != tarefas || faixasRedec != redec || 
+			faixasTotal != total || faixasLargura != largura){
+			dividirFaixas(redec, total, tarefas, largura);
+		}
+
+		for(Faixa faixa : faixas){
+			faixa.reinitialize();
+		}
+		grupo.reinitialize();
+		pool.invoke(grupo);
+	}
+
+	/**
+	 * Divide a visão contígua dos parâmetros em faixas, criando as tarefas que serão 
+	 * reaproveitadas nas próximas atualizações.
+	 * @param redec Rede Neural em formato de lista de camadas.
+	 * @param total quantidade total de parâmetros.
+	 * @param tarefas quantidade de faixas.
+	 * @param largura quantidade de elementos de cada operação vetorial.
+	 */
+	private void dividirFaixas(Camada[] redec, int total, int tarefas, int largura){
+		faixas = new Faixa[tarefas];
+		int inicio = 0;
+		for(int t = 0; t < tarefas; t++){
+			int fim = (t == tarefas-1) ? total : corte(redec, (int)((long) total * (t+1) / tarefas), largura);
+			faixas[t] = new Faixa(redec, inicio, fim);
+			inicio = fim;
+		}
+
+		grupo = new Grupo();
+		faixasRedec = redec;
+		faixasTotal = total;
+		faixasLargura = largura;
+	}
+
+	/**
+	 * Ajusta uma posição da visão contígua dos parâmetros para o início de um bloco
+	 * de {@code largura} elementos, contado a partir do início do seu segmento.
+	 * <p>
+	 *		Assim os trechos dos laços vetoriais e escalares de cada kernel cobrem os mesmos 
+	 *		parâmetros que na atualização sequencial.
+	 * </p>
+	 * @param redec Rede Neural em formato de lista de camadas.
+	 * @param posicao índice global desejado para o corte.
+	 * @param largura quantidade de elementos de cada operação vetorial.
+	 * @return índice global do corte alinhado.
+	 */
+	private static int corte(Camada[] redec, int posicao, int largura){
+		int id = 0;
+		for(Camada camada : redec){
+			if(posicao < id + camada.pesos.length){
+				return id + ((posicao - id) / largura) * largura;
+			}
+			id += camada.pesos.length;
+
+			if(posicao < id + camada.bias.length){
+				return id + ((posicao - id) / largura) * largura;
+			}
+			id += camada.bias.length;
+		}
+		return id;
+	}
+
+	/**
+	 * Aplica o kernel nos parâmetros da faixa {@code [inicio, fim)} da visão contígua.
+	 * @param redec Rede Neural em formato de lista de camadas.
+	 * @param inicio índice global do primeiro parâmetro da faixa.
+	 * @param fim índice global seguinte ao último parâmetro da faixa.
+	 */
+	private void aplicarFaixa(Camada[] redec, int inicio, int fim){
+		int id = 0;//indice de busca na lista de coeficientes
+		for(Camada camada : redec){
+			id = aplicarSegmento(camada.pesos, camada.gradPesos, id, inicio, fim);
+			id = aplicarSegmento(camada.bias, camada.gradBias, id, inicio, fim);
+		}
+	}
+
+	/**
+	 * Aplica o kernel na parte de um segmento que pertence à faixa {@code [inicio, fim)}.
+	 * @param p array de parâmetros do segmento.
+	 * @param g gradientes correspondentes.
+	 * @param id índice global do primeiro parâmetro do segmento.
+	 * @param inicio índice global do primeiro parâmetro da faixa.
+	 * @param fim índice global seguinte ao último parâmetro da faixa.
+	 * @return índice global seguinte ao segmento.
+	 */
+	private int aplicarSegmento(double[] p, double[] g, int id, int inicio, int fim){
+		int a = Math.max(inicio, id);
+		int b = Math.min(fim, id + p.length);
+		if(a < b){
+			kernel(p, g, a - id, b - a, a);
+		}
+		return id + p.length;
+	}
+
+	/**
+	 * Tarefa que atualiza uma faixa dos parâmetros no pool.
+	 */
+	private final class Faixa extends RecursiveAction{
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Camadas da rede que serão atualizadas.
+		 */
+		private final Camada[] redec;
+
+		/**
+		 * Faixa de parâmetros (índices globais) da tarefa.
+		 */
+		private final int inicio, fim;
+
+		Faixa(Camada[] redec, int inicio, int fim){
+			this.redec = redec;
+			this.inicio = inicio;
+			this.fim = fim;
+		}
+
+		@Override
+		protected void compute(){
+			aplicarFaixa(redec, inicio, fim);
+		}
+	}
+
+	/**
+	 * Tarefa que executa todas as faixas no pool e espera elas terminarem.
+	 */
+	private final class Grupo extends RecursiveAction{
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected void compute(){
+			ForkJoinTask.invokeAll(faixas);
+		}
+	}
+
+	/**
+	 * Kernel fundido do otimizador, atualiza {@code n} parâmetros consecutivos em um único laço.
+	 * <p>
+	 *		O kernel só deve depender dos índices recebidos e de valores já calculados para o 
+	 *		passo atual, permitindo que seja aplicado em qualquer faixa dos parâmetros, 
+	 *		inclusive por threads diferentes ao mesmo tempo.
+	 * </p>
+	 * @param p array de parâmetros (pesos ou bias).
+	 * @param g gradientes correspondentes, com os mesmos índices de {@code p}.
+	 * @param off índice inicial em {@code p} e {@code g}.
+	 * @param n quantidade de parâmetros atualizados.
+	 * @param id índice global do parâmetro {@code p[off]} nos arrays de estado do otimizador.
+	 */
+	protected void kernel(double[] p, double[] g, int off, int n, int id){
+		throw new UnsupportedOperationException(
+			"Kernel do otimizador não foi implementado."
+		);
+	}
+
 /**
  * Mostra as opções de configurações do otimizador.
 	* @return buffer formatado.
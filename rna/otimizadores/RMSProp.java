@@ -1,7 +1,7 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Implementa o treino da rede neural usando o algoritmo RMSProp (Root Mean Square Propagation).
@@ -16,11 +16,18 @@ import rna.estrutura.Neuronio;
  */
 public class RMSProp extends Otimizador{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Valor de taxa de aprendizagem do otimizador.
     */
    private double taxaAprendizagem;
 
+   /**
+    * Taxa de aprendizagem do passo atual, definida pelo agendador.
+    */
+   private double taxa;
+
    /**
     * Usado para evitar divisão por zero.
     */
@@ -103,19 +110,23 @@ public class RMSProp extends Otimizador{
     */
    @Override
    public void atualizar(Camada[] redec){
-      double g;
-      int id = 0;//indice de busca na lista de coeficientes
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){   
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               g = neuronio.gradientes[i];
-               
-               acumulador[id] = (rho * acumulador[id]) + (1 - rho) * (g*g);
-               neuronio.pesos[i] -= (taxaAprendizagem * g) / (Math.sqrt(acumulador[id] + epsilon));
-
-               id++;
-            }
-         }
+      taxa = proximaTaxa(taxaAprendizagem);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.rmsprop(p, g, off, n, acumulador, id, taxa, rho, epsilon);
+         return;
+      }
+
+      for(int i = off, fim = off + n; i < fim; i++, id++){
+         double gi = g[i];
+         double ac = (rho * acumulador[id]) + (1 - rho) * (gi*gi);
+         acumulador[id] = ac;
+         p[i] -= (taxa * gi) / (Math.sqrt(ac + epsilon));
       }
    }
 
@@ -1,7 +1,7 @@
 package rna.otimizadores;
 
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.OperacoesSimd;
 
 /**
  * Classe que implementa o otimizador Gradiente Descentente Estocástico com momentum.
@@ -12,11 +12,18 @@ import rna.estrutura.Neuronio;
  */
 public class SGD extends Otimizador{
 
+   private static final long serialVersionUID = 1L;
+
    /**
     * Valor de taxa de aprendizagem do otimizador.
     */
    private double taxaAprendizagem;
 
+   /**
+    * Taxa de aprendizagem do passo atual, definida pelo agendador.
+    */
+   private double taxa;
+
    /**
     * Valor de taxa de momentum do otimizador.
     */
@@ -112,20 +119,31 @@ public class SGD extends Otimizador{
     */
    @Override
    public void atualizar(Camada[] redec){
-      int id = 0;//indice de busca na lista de coeficientes
-      for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               m[id] = (momentum * m[id]) + (neuronio.gradientes[i] * taxaAprendizagem);
-
-               if(nesterov){
-                  neuronio.pesos[i] -= (neuronio.gradientes[i] * taxaAprendizagem) + (momentum * m[id]);
-               }else{
-                  neuronio.pesos[i] -= m[id];
-               }
-
-               id++;
-            }      
+      taxa = proximaTaxa(taxaAprendizagem);
+      aplicarKernel(redec);
+   }
+
+   @Override
+   protected void kernel(double[] p, double[] g, int off, int n, int id){
+      OperacoesSimd simd = OperacoesSimd.obter();
+      if(simd != null){
+         simd.sgd(p, g, off, n, m, id, taxa, momentum, nesterov);
+         return;
+      }
+
+      //a escolha do nesterov fica fora do laço
+      if(nesterov){
+         for(int i = off, fim = off + n; i < fim; i++, id++){
+            double gA = g[i] * taxa;
+            double mi = (momentum * m[id]) + gA;
+            m[id] = mi;
+            p[i] -= gA + (momentum * mi);
+         }
+      }else{
+         for(int i = off, fim = off + n; i < fim; i++, id++){
+            double mi = (momentum * m[id]) + (g[i] * taxa);
+            m[id] = mi;
+            p[i] -= mi;
          }
       }
    }
@@ -0,0 +1,57 @@
+package rna.otimizadores.agendadores;
+
+import java.io.Serializable;
+
+/**
+ * Classe base para os agendadores da taxa de aprendizagem dos otimizadores.
+ * <p>
+ *    O agendador define a taxa de aprendizagem usada em cada atualização do otimizador
+ *    a partir da taxa configurada no próprio otimizador (taxa base) e da quantidade de
+ *    atualizações já feitas. Assim a mesma taxa base pode ser aquecida no início do
+ *    treino e reduzida ao longo dele.
+ * </p>
+ * <p>
+ *    Os passos contam as chamadas de {@code atualizar()} do otimizador: uma por amostra
+ *    no treino sequencial e uma por lote (ou grupo de lotes acumulados) no treino em lote.
+ * </p>
+ * <p>
+ *    Novos agendadores devem implementar o método {@code taxa()}. Agendadores que
+ *    dependem da perda do treino, como o {@link ReducaoPlato}, também devem sobrescrever
+ *    {@code usaPerda()} e {@code registrarEpoca()}.
+ * </p>
+ * Exemplo:
+ * <pre>
+ *Adam adam = new Adam(0.001, 0.9, 0.999, 1e-7);
+ *adam.configurarAgendador(new Aquecimento(500, new CossenoReinicios(5000)));
+ *rede.compilar(adam);
+ * </pre>
+ */
+public abstract class Agendador implements Serializable{
+
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Calcula a taxa de aprendizagem de um passo do otimizador.
+    * @param base taxa de aprendizagem configurada no otimizador.
+    * @param passo quantidade de atualizações feitas antes deste passo, começando em zero.
+    * @return taxa de aprendizagem do passo.
+    */
+   public abstract double taxa(double base, long passo);
+
+   /**
+    * Indica se o agendador depende da perda de cada época, fazendo com que os
+    * treinos calculem a perda mesmo sem o histórico habilitado.
+    * @return true caso o agendador use a perda das épocas, false caso contrário.
+    */
+   public boolean usaPerda(){
+      return false;
+   }
+
+   /**
+    * Recebe a perda média de uma época de treino concluída.
+    * @param perda perda média das amostras da época.
+    */
+   public void registrarEpoca(double perda){
+
+   }
+}
@@ -0,0 +1,73 @@
+package rna.otimizadores.agendadores;
+
+/**
+ * Aquecimento (warmup) linear da taxa de aprendizagem.
+ * <p>
+ *    Durante os primeiros passos a taxa cresce linearmente até a taxa base, evitando
+ *    atualizações grandes enquanto os momentums dos otimizadores ainda não se
+ *    estabilizaram. Depois do aquecimento a taxa é definida por outro agendador,
+ *    que começa a contar os passos do zero, ou fica constante.
+ * </p>
+ * <pre>
+ *taxa = base * (passo + 1) / passos
+ * </pre>
+ */
+public class Aquecimento extends Agendador{
+
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Quantidade de passos do aquecimento.
+    */
+   private final long passos;
+
+   /**
+    * Agendador usado depois do aquecimento, nulo para manter a taxa base.
+    */
+   private final Agendador depois;
+
+   /**
+    * Instancia um aquecimento seguido por outro agendador.
+    * @param passos quantidade de passos do aquecimento.
+    * @param depois agendador usado depois do aquecimento, ou nulo para manter a taxa base.
+    * @throws IllegalArgumentException se a quantidade de passos for menor que um.
+    */
+   public Aquecimento(long passos, Agendador depois){
+      if(passos < 1){
+         throw new IllegalArgumentException(
+            "A quantidade de passos do aquecimento (" + passos + ") deve ser maior que zero."
+         );
+      }
+
+      this.passos = passos;
+      this.depois = depois;
+   }
+
+   /**
+    * Instancia um aquecimento que mantém a taxa base depois de concluído.
+    * @param passos quantidade de passos do aquecimento.
+    * @throws IllegalArgumentException se a quantidade de passos for menor que um.
+    */
+   public Aquecimento(long passos){
+      this(passos, null);
+   }
+
+   @Override
+   public double taxa(double base, long passo){
+      if(passo < passos){
+         return base * (passo + 1) / passos;
+      }
+
+      return (depois == null) ? base : depois.taxa(base, passo - passos);
+   }
+
+   @Override
+   public boolean usaPerda(){
+      return depois != null && depois.usaPerda();
+   }
+
+   @Override
+   public void registrarEpoca(double perda){
+      if(depois != null) depois.registrarEpoca(perda);
+   }
+}
@@ -0,0 +1,98 @@
+package rna.otimizadores.agendadores;
+
+/**
+ * Decaimento da taxa de aprendizagem por cosseno com reinícios (SGDR).
+ * <p>
+ *    Em cada ciclo a taxa desce da taxa base até a taxa mínima seguindo meio período
+ *    de um cosseno, e volta para a taxa base no início do ciclo seguinte. Cada novo
+ *    ciclo pode ser mais longo que o anterior.
+ * </p>
+ * <pre>
+ *taxa = minima + (base - minima) * (1 + cos(π * t / T)) / 2
+ * </pre>
+ * Onde:
+ * <p>
+ *    {@code t} - passos desde o início do ciclo atual.
+ * </p>
+ * <p>
+ *    {@code T} - duração do ciclo atual, multiplicada a cada reinício.
+ * </p>
+ */
+public class CossenoReinicios extends Agendador{
+
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Duração do primeiro ciclo, em passos.
+    */
+   private final long ciclo;
+
+   /**
+    * Fator de crescimento da duração de cada ciclo.
+    */
+   private final double multiplicador;
+
+   /**
+    * Taxa de aprendizagem no fim de cada ciclo.
+    */
+   private final double taxaMinima;
+
+   /**
+    * Instancia um decaimento por cosseno com reinícios.
+    * @param ciclo duração do primeiro ciclo, em passos.
+    * @param multiplicador fator de crescimento da duração de cada ciclo.
+    * @param taxaMinima taxa de aprendizagem no fim de cada ciclo.
+    * @throws IllegalArgumentException se o ciclo for menor que um, o multiplicador
+    * for menor que um ou a taxa mínima for negativa.
+    */
+   public CossenoReinicios(long ciclo, double multiplicador, double taxaMinima){
+      if(ciclo < 1){
+         throw new IllegalArgumentException(
+            "A duração do ciclo (" + ciclo + ") deve ser maior que zero."
+         );
+      }
+      if(!(multiplicador >= 1)){
+         throw new IllegalArgumentException(
+            "O multiplicador dos ciclos (" + multiplicador + ") não pode ser menor que um."
+         );
+      }
+      if(!(taxaMinima >= 0)){
+         throw new IllegalArgumentException(
+            "A taxa mínima (" + taxaMinima + ") não pode ser negativa."
+         );
+      }
+
+      this.ciclo = ciclo;
+      this.multiplicador = multiplicador;
+      this.taxaMinima = taxaMinima;
+   }
+
+   /**
+    * Instancia um decaimento por cosseno com ciclos de mesma duração, que
+    * levam a taxa até zero.
+    * @param ciclo duração de cada ciclo, em passos.
+    * @throws IllegalArgumentException se o ciclo for menor que um.
+    */
+   public CossenoReinicios(long ciclo){
+      this(ciclo, 1, 0);
+   }
+
+   @Override
+   public double taxa(double base, long passo){
+      long duracao = ciclo;
+      long t;
+      if(multiplicador == 1){
+         t = passo % ciclo;
+
+      }else{
+         //os ciclos crescem geometricamente, então são poucas iterações
+         t = passo;
+         while(t >= duracao){
+            t -= duracao;
+            duracao = (long) Math.ceil(duracao * multiplicador);
+         }
+      }
+
+      return taxaMinima + (base - taxaMinima) * (1 + Math.cos(Math.PI * t / duracao)) / 2;
+   }
+}
@@ -0,0 +1,62 @@
+package rna.otimizadores.agendadores;
+
+/**
+ * Decaimento em degraus da taxa de aprendizagem.
+ * <p>
+ *    A taxa é multiplicada por um fator a cada intervalo fixo de passos.
+ * </p>
+ * <pre>
+ *taxa = base * fator ^ piso(passo / intervalo)
+ * </pre>
+ */
+public class DecaimentoDegrau extends Agendador{
+
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Quantidade de passos entre cada redução.
+    */
+   private final long intervalo;
+
+   /**
+    * Fator multiplicado à taxa a cada redução.
+    */
+   private final double fator;
+
+   /**
+    * Instancia um decaimento em degraus.
+    * @param intervalo quantidade de passos entre cada redução.
+    * @param fator fator multiplicado à taxa a cada redução.
+    * @throws IllegalArgumentException se o intervalo for menor que um ou o fator não
+    * for positivo.
+    */
+   public DecaimentoDegrau(long intervalo, double fator){
+      if(intervalo < 1){
+         throw new IllegalArgumentException(
+            "O intervalo de passos (" + intervalo + ") deve ser maior que zero."
+         );
+      }
+      if(!(fator > 0)){
+         throw new IllegalArgumentException(
+            "O fator de decaimento (" + fator + ") deve ser maior que zero."
+         );
+      }
+
+      this.intervalo = intervalo;
+      this.fator = fator;
+   }
+
+   /**
+    * Instancia um decaimento em degraus que reduz a taxa pela metade.
+    * @param intervalo quantidade de passos entre cada redução.
+    * @throws IllegalArgumentException se o intervalo for menor que um.
+    */
+   public DecaimentoDegrau(long intervalo){
+      this(intervalo, 0.5);
+   }
+
+   @Override
+   public double taxa(double base, long passo){
+      return base * Math.pow(fator, passo / intervalo);
+   }
+}
@@ -0,0 +1,59 @@
+package rna.otimizadores.agendadores;
+
+/**
+ * Decaimento exponencial e contínuo da taxa de aprendizagem.
+ * <pre>
+ *taxa = base * decaimento ^ (passo / intervalo)
+ * </pre>
+ */
+public class DecaimentoExponencial extends Agendador{
+
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Fator de decaimento aplicado a cada intervalo.
+    */
+   private final double decaimento;
+
+   /**
+    * Quantidade de passos em que a taxa é multiplicada pelo decaimento.
+    */
+   private final long intervalo;
+
+   /**
+    * Instancia um decaimento exponencial.
+    * @param decaimento fator de decaimento aplicado a cada intervalo.
+    * @param intervalo quantidade de passos em que a taxa é multiplicada pelo decaimento.
+    * @throws IllegalArgumentException se o decaimento não for positivo ou o intervalo
+    * for menor que um.
+    */
+   public DecaimentoExponencial(double decaimento, long intervalo){
+      if(!(decaimento > 0)){
+         throw new IllegalArgumentException(
+            "O fator de decaimento (" + decaimento + ") deve ser maior que zero."
+         );
+      }
+      if(intervalo < 1){
+         throw new IllegalArgumentException(
+            "O intervalo de passos (" + intervalo + ") deve ser maior que zero."
+         );
+      }
+
+      this.decaimento = decaimento;
+      this.intervalo = intervalo;
+   }
+
+   /**
+    * Instancia um decaimento exponencial aplicado a cada passo.
+    * @param decaimento fator de decaimento de cada passo.
+    * @throws IllegalArgumentException se o decaimento não for positivo.
+    */
+   public DecaimentoExponencial(double decaimento){
+      this(decaimento, 1);
+   }
+
+   @Override
+   public double taxa(double base, long passo){
+      return base * Math.pow(decaimento, (double) passo / intervalo);
+   }
+}
@@ -0,0 +1,125 @@
+package rna.otimizadores.agendadores;
+
+/**
+ * Redução da taxa de aprendizagem quando a perda do treino para de melhorar.
+ * <p>
+ *    Ao fim de cada época a perda média é comparada com a melhor perda já vista.
+ *    Quando ela não melhora (por pelo menos uma fração {@code limiar} da melhor perda)
+ *    por mais de {@code paciencia} épocas seguidas, a taxa é multiplicada pelo fator
+ *    de redução, sem ficar abaixo da taxa mínima.
+ * </p>
+ * <p>
+ *    Os treinos calculam a perda de cada época automaticamente quando este agendador
+ *    está configurado, mesmo sem o histórico de custo habilitado.
+ * </p>
+ */
+public class ReducaoPlato extends Agendador{
+
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Fator multiplicado à taxa a cada redução.
+    */
+   private final double fator;
+
+   /**
+    * Quantidade de épocas sem melhora toleradas antes de uma redução.
+    */
+   private final int paciencia;
+
+   /**
+    * Menor taxa de aprendizagem permitida pelas reduções.
+    */
+   private final double taxaMinima;
+
+   /**
+    * Melhora relativa mínima para que a perda seja considerada melhor.
+    */
+   private final double limiar;
+
+   /**
+    * Melhor perda de época registrada.
+    */
+   private double melhorPerda = Double.POSITIVE_INFINITY;
+
+   /**
+    * Épocas seguidas sem melhora.
+    */
+   private int epocasSemMelhora = 0;
+
+   /**
+    * Fator acumulado das reduções aplicadas à taxa base.
+    */
+   private double escala = 1;
+
+   /**
+    * Instancia a redução da taxa em platôs.
+    * @param fator fator multiplicado à taxa a cada redução.
+    * @param paciencia quantidade de épocas sem melhora toleradas antes de uma redução.
+    * @param taxaMinima menor taxa de aprendizagem permitida pelas reduções.
+    * @param limiar melhora relativa mínima para que a perda seja considerada melhor.
+    * @throws IllegalArgumentException se o fator não estiver entre zero e um ou algum
+    * dos demais valores for negativo.
+    */
+   public ReducaoPlato(double fator, int paciencia, double taxaMinima, double limiar){
+      if(!(fator > 0 && fator < 1)){
+         throw new IllegalArgumentException(
+            "O fator de redução (" + fator + ") deve estar entre zero e um."
+         );
+      }
+      if(paciencia < 0){
+         throw new IllegalArgumentException(
+            "A paciência (" + paciencia + ") não pode ser negativa."
+         );
+      }
+      if(!(taxaMinima >= 0)){
+         throw new IllegalArgumentException(
+            "A taxa mínima (" + taxaMinima + ") não pode ser negativa."
+         );
+      }
+      if(!(limiar >= 0)){
+         throw new IllegalArgumentException(
+            "O limiar de melhora (" + limiar + ") não pode ser negativo."
+         );
+      }
+
+      this.fator = fator;
+      this.paciencia = paciencia;
+      this.taxaMinima = taxaMinima;
+      this.limiar = limiar;
+   }
+
+   /**
+    * Instancia a redução da taxa em platôs, sem taxa mínima e com limiar de
+    * melhora de {@code 1e-4}.
+    * @param fator fator multiplicado à taxa a cada redução.
+    * @param paciencia quantidade de épocas sem melhora toleradas antes de uma redução.
+    * @throws IllegalArgumentException se o fator não estiver entre zero e um ou a
+    * paciência for negativa.
+    */
+   public ReducaoPlato(double fator, int paciencia){
+      this(fator, paciencia, 0, 1e-4);
+   }
+
+   @Override
+   public double taxa(double base, long passo){
+      return (escala == 1) ? base : Math.max(base * escala, taxaMinima);
+   }
+
+   @Override
+   public boolean usaPerda(){
+      return true;
+   }
+
+   @Override
+   public void registrarEpoca(double perda){
+      if(perda < melhorPerda * (1 - limiar)){
+         melhorPerda = perda;
+         epocasSemMelhora = 0;
+
+      }else if(++epocasSemMelhora > paciencia){
+         escala *= fator;
+         epocasSemMelhora = 0;
+      }
+   }
+}
@@ -0,0 +1,114 @@
+package rna.otimizadores.agendadores;
+
+/**
+ * Política de um ciclo (one-cycle) para a taxa de aprendizagem.
+ * <p>
+ *    A taxa base do otimizador é usada como taxa máxima. No início do treino a taxa
+ *    sobe de {@code base / divisorInicial} até a taxa base e depois desce até
+ *    {@code base / (divisorInicial * divisorFinal)} no último passo, ambas as fases
+ *    seguindo meio período de um cosseno. Depois do total de passos a taxa fica na
+ *    taxa final.
+ * </p>
+ */
+public class UmCiclo extends Agendador{
+
+   private static final long serialVersionUID = 1L;
+
+   /**
+    * Quantidade total de passos do ciclo.
+    */
+   private final long total;
+
+   /**
+    * Quantidade de passos da fase de subida.
+    */
+   private final long subida;
+
+   /**
+    * Divisor da taxa base no início do ciclo.
+    */
+   private final double divisorInicial;
+
+   /**
+    * Divisor da taxa inicial no fim do ciclo.
+    */
+   private final double divisorFinal;
+
+   /**
+    * Instancia a política de um ciclo.
+    * @param total quantidade total de passos do ciclo, normalmente o número de
+    * atualizações por época vezes a quantidade de épocas.
+    * @param fracaoSubida fração do total usada na fase de subida.
+    * @param divisorInicial divisor da taxa base no início do ciclo.
+    * @param divisorFinal divisor da taxa inicial no fim do ciclo.
+    * @throws IllegalArgumentException se o total for menor que um, a fração não
+    * estiver entre zero e um ou algum divisor for menor que um.
+    */
+   public UmCiclo(long total, double fracaoSubida, double divisorInicial, double divisorFinal){
+      if(total < 1){
+         throw new IllegalArgumentException(
+            "O total de passos (" + total + ") deve ser maior que zero."
+         );
+      }
+      if(!(fracaoSubida >= 0 && fracaoSubida <= 1)){
+         throw new IllegalArgumentException(
+            "A fração de subida (" + fracaoSubida + ") deve estar entre zero e um."
+         );
+      }
+      if(!(divisorInicial >= 1) || !(divisorFinal >= 1)){
+         throw new IllegalArgumentException(
+            "Os divisores da taxa (" + divisorInicial + ", " + divisorFinal + ") não podem ser menores que um."
+         );
+      }
+
+      this.total = total;
+      this.subida = Math.round(total * fracaoSubida);
+      this.divisorInicial = divisorInicial;
+      this.divisorFinal = divisorFinal;
+   }
+
+   /**
+    * Instancia a política de um ciclo com os valores padrão, que são:
+    * <p>
+    *    {@code fracaoSubida = 0.3}
+    * </p>
+    * <p>
+    *    {@code divisorInicial = 25}
+    * </p>
+    * <p>
+    *    {@code divisorFinal = 10000}
+    * </p>
+    * @param total quantidade total de passos do ciclo.
+    * @throws IllegalArgumentException se o total for menor que um.
+    */
+   public UmCiclo(long total){
+      this(total, 0.3, 25, 1e4);
+   }
+
+   @Override
+   public double taxa(double base, long passo){
+      double inicial = base / divisorInicial;
+
+      if(passo < subida){
+         return cosseno(inicial, base, (double) passo / subida);
+      }
+
+      double minima = inicial / divisorFinal;
+      if(passo >= total){
+         return minima;
+      }
+
+      return cosseno(base, minima, (double) (passo - subida) / (total - subida));
+   }
+
+   /**
+    * Interpola entre duas taxas seguindo meio período de um cosseno.
+    * @param de taxa no início da fase.
+    * @param ate taxa no fim da fase.
+    * @param t progresso da fase, entre zero e um.
+    * @return taxa interpolada.
+    */
+   private static double cosseno(double de, double ate, double t){
+      return ate + (de - ate) * (1 + Math.cos(Math.PI * t)) / 2;
+   }
+}
@@ -0,0 +1,183 @@
+package rna.serializacao;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+
+import rna.ativacoes.Ativacao;
+import rna.avaliacao.perda.Perda;
+import rna.estrutura.Camada;
+import rna.estrutura.RedeNeural;
+import rna.otimizadores.Otimizador;
+
+/**
+ * Classe responsável por salvar e restaurar checkpoints do treinamento da
+ * {@code Rede Neural}.
+ * <p>
+ *    Diferente do {@link Serializador}, que guarda apenas o necessário para usar a
+ *    rede treinada, o checkpoint guarda tudo o que é preciso para continuar um treino
+ *    exatamente de onde ele parou:
+ * </p>
+ * <ul>
+ *    <li>
+ *       Arquitetura, bias, nome, funções de ativação e pesos de todas as camadas.
+ *    </li>
+ *    <li>
+ *       Função de perda configurada.
+ *    </li>
+ *    <li>
+ *       Otimizador, com seus hiperparâmetros e estado interno (como os momentums e o
+ *       contador de iterações do Adam).
+ *    </li>
+ *    <li>
+ *       Estado dos geradores de números aleatórios do embaralhamento e ordem atual
+ *       das amostras.
+ *    </li>
+ *    <li>
+ *       Quantidade de épocas treinadas.
+ *    </li>
+ * </ul>
+ * <p>
+ *    Configurações de execução, como pools de threads, pré-carregamento, acumulação de
+ *    gradientes e históricos, não são salvas e devem ser configuradas novamente na rede
+ *    restaurada. Os valores são gravados em binário, sem perda de precisão, e o arquivo
+ *    deve ser lido pela mesma versão da biblioteca que o escreveu.
+ * </p>
+ * Exemplo:
+ * <pre>
+ *Checkpoint.salvar(rede, "treino.ckpt");
+ *
+ *RedeNeural rede = Checkpoint.ler("treino.ckpt");
+ *rede.treinar(dados, epochs - (int) rede.obterEpocasTreinadas(), 64);
+ * </pre>
+ */
+public class Checkpoint{
+
+   /**
+    * Identificação gravada no início do arquivo.
+    */
+   private static final String ASSINATURA = "rna.checkpoint";
+
+   /**
+    * Versão do formato do arquivo.
+    */
+   private static final int VERSAO = 1;
+
+   /**
+    * Salva o checkpoint da Rede Neural.
+    * <p>
+    *    O arquivo é escrito primeiro em um arquivo temporário ({@code caminho + ".tmp"})
+    *    que depois substitui o destino, então uma interrupção durante a escrita não
+    *    corrompe o checkpoint anterior.
+    * </p>
+    * <p>
+    *    O checkpoint deve ser salvo entre as chamadas de treino, nunca durante um treino.
+    * </p>
+    * @param rede instância de uma Rede Neural compilada.
+    * @param caminho caminho onde o checkpoint será salvo.
+    * @throws IllegalArgumentException se a rede não foi compilada.
+    * @throws UncheckedIOException se houver algum erro ao escrever o arquivo.
+    */
+   public static void salvar(RedeNeural rede, String caminho){
+      Camada[] camadas = rede.obterCamadas();//verifica a compilação
+
+      Path destino = Paths.get(caminho);
+      Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+
+      try{
+         try(ObjectOutputStream saida = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(temporario)))){
+            saida.writeUTF(ASSINATURA);
+            saida.writeInt(VERSAO);
+
+            //estrutura da rede
+            saida.writeObject(rede.obterArquitetura());
+            saida.writeBoolean(rede.temBias());
+            saida.writeUTF(rede.obterNome());
+
+            //ativações e pesos
+            for(Camada camada : camadas){
+               saida.writeObject(camada.obterAtivacao());
+               saida.writeObject(camada.pesos);
+               saida.writeObject(camada.bias);
+            }
+
+            //treino
+            saida.writeObject(rede.obterPerda());
+            saida.writeObject(rede.obterOtimizador());
+            rede.obterTreinador().salvarEstado(saida);
+         }
+
+         Files.move(temporario, destino, StandardCopyOption.REPLACE_EXISTING);
+
+      }catch(IOException e){
+         throw new UncheckedIOException("Erro ao salvar o checkpoint \"" + caminho + "\".", e);
+      }
+   }
+
+   /**
+    * Lê um checkpoint e restaura a Rede Neural, já compilada e pronta para continuar
+    * o treino.
+    * @param caminho caminho do checkpoint salvo por {@link #salvar(RedeNeural, String)}.
+    * @return instância de Rede Neural restaurada.
+    * @throws IllegalArgumentException se o arquivo não for um checkpoint válido.
+    * @throws UncheckedIOException se houver algum erro ao ler o arquivo.
+    */
+   public static RedeNeural ler(String caminho){
+      try(ObjectInputStream entrada = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(Paths.get(caminho))))){
+         if(!ASSINATURA.equals(entrada.readUTF()) || entrada.readInt() != VERSAO){
+            throw new IllegalArgumentException("O arquivo \"" + caminho + "\" não é um checkpoint válido.");
+         }
+
+         //estrutura da rede
+         int[] arq = (int[]) entrada.readObject();
+         boolean bias = entrada.readBoolean();
+         String nome = entrada.readUTF();
+
+         RedeNeural rede = new RedeNeural(arq);
+         rede.configurarBias(bias);
+         rede.configurarNome(nome);
+         rede.compilar();
+
+         //ativações e pesos
+         for(Camada camada : rede.obterCamadas()){
+            rede.configurarAtivacao(camada, (Ativacao) entrada.readObject());
+            copiar((double[]) entrada.readObject(), camada.pesos, caminho);
+            copiar((double[]) entrada.readObject(), camada.bias, caminho);
+         }
+
+         //o otimizador é configurado sem ser inicializado novamente,
+         //mantendo o estado lido
+         rede.configurarPerda((Perda) entrada.readObject());
+         rede.configurarOtimizador((Otimizador) entrada.readObject());
+         rede.obterTreinador().lerEstado(entrada);
+
+         return rede;
+
+      }catch(ClassNotFoundException | ClassCastException e){
+         throw new IllegalArgumentException("O arquivo \"" + caminho + "\" não é um checkpoint válido.", e);
+
+      }catch(IOException e){
+         throw new UncheckedIOException("Erro ao ler o checkpoint \"" + caminho + "\".", e);
+      }
+   }
+
+   /**
+    * Copia os parâmetros lidos para o array da camada.
+    * @param lidos parâmetros lidos do arquivo.
+    * @param destino array de parâmetros da camada.
+    * @param caminho caminho do checkpoint, usado na mensagem de erro.
+    */
+   private static void copiar(double[] lidos, double[] destino, String caminho){
+      if(lidos.length != destino.length){
+         throw new IllegalArgumentException("O arquivo \"" + caminho + "\" não é um checkpoint válido.");
+      }
+      System.arraycopy(lidos, 0, destino, 0, lidos.length);
+   }
+}
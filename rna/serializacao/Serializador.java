@@ -132,7 +132,7 @@ public class Serializador{
          for(Camada camada : rede.obterCamadas()){
             for(Neuronio neuronio : camada.neuronios()){
                for(int i = 0; i < neuronio.numPesos(); i++){
-                  double peso = neuronio.pesos[i];
+                  double peso = neuronio.obterPeso(i);
                   
                   if(tipo.equals(Double.TYPE)){
                      writer.write(Double.toString(peso));
@@ -223,7 +223,7 @@ public class Serializador{
             for(Camada camada : rede.obterCamadas()){
                for(Neuronio neuronio : camada.neuronios()){
                   for(int i = 0; i < neuronio.numPesos(); i++){
-                     neuronio.pesos[i] = Double.parseDouble(reader.readLine());
+                     neuronio.configurarPeso(i, Double.parseDouble(reader.readLine()));
                      cont++;
                   }
                }
@@ -4,7 +4,7 @@ import java.util.Random;
 
 import rna.avaliacao.perda.Perda;
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
+import rna.matematica.AlgebraLinear;
 
 /**
  * Operadores auxiliares para o treino da rede neural;
@@ -12,6 +12,11 @@ import rna.estrutura.Neuronio;
 class AuxiliarTreino{
    Random random = new Random();
 
+   /**
+    * Ordem atual das amostras embaralhadas, mantida entre os treinos.
+    */
+   int[] ordem;
+
    public AuxiliarTreino(){
 
    }
@@ -59,11 +64,7 @@ class AuxiliarTreino{
       //saída
       Camada saida = redec[redec.length-1];
       double[] previsto = saida.obterSaida();
-      double[] gradientes = perda.derivada(previsto, real);
-
-      for(int i = 0; i < saida.quantidadeNeuronios(); i++){
-         saida.neuronio(i).gradiente = gradientes[i];
-      }
+      perda.derivada(previsto, real, saida.gradiente);
 
       //ocultas
       //começar da ultima oculta
@@ -73,71 +74,129 @@ class AuxiliarTreino{
          Camada camadaAtual = redec[i];
          Camada camadaProxima = redec[i+1];
          camadaAtual.ativacaoDerivada();
-         for(int j = 0; j < camadaAtual.quantidadeNeuronios(); j++){
-
-            //calcular a soma dos gradientes da camada seguinte
-            Neuronio neuronio = camadaAtual.neuronio(j);
-            double somaGradientes = 0.0;
-            for(int k = 0; k < camadaProxima.quantidadeNeuronios(); k++){
-               Neuronio neuronioProxima = camadaProxima.neuronio(k);
-               somaGradientes += neuronioProxima.pesos[j] * neuronioProxima.gradiente;
-            }
-            neuronio.gradiente = somaGradientes * neuronio.derivada;
+
+         //soma dos gradientes da camada seguinte ponderados pelos pesos,
+         //calculada como o produto da transposta dos pesos pelos gradientes
+         double[] somaGradientes = camadaAtual.gradiente;
+         int nAtual = somaGradientes.length;
+         double[] gradProxima = camadaProxima.gradiente;
+         AlgebraLinear.gemvT(
+            gradProxima.length, nAtual, camadaProxima.pesos, 0, nAtual, gradProxima, 0, somaGradientes, 0
+         );
+
+         double[] derivada = camadaAtual.derivada;
+         for(int j = 0; j < nAtual; j++){
+            somaGradientes[j] *= derivada[j];
          }
       }
    }
 
    /**
-    * Embaralha os dados da matriz usando o algoritmo Fisher-Yates.
-    * @param entradas matriz com os dados de entrada.
-    * @param saidas matriz com os dados de saída.
+    * Cria o array de índices usado para percorrer as amostras do conjunto de dados,
+    * inicialmente na ordem original.
+    * @param amostras quantidade de amostras do conjunto de dados.
+    * @return array de índices {@code [0, 1, 2, ..., amostras-1]}.
     */
-   void embaralharDados(double[][] entradas, double[][] saidas){
-      int linhas = entradas.length;
-      int colEntrada = entradas[0].length;
-      int colSaida = saidas[0].length;
-  
-      //evitar muitas inicializações
-      double tempEntradas[] = new double[colEntrada];
-      double tempSaidas[] = new double[colSaida];
-      int i, idAleatorio;
+   int[] criarIndices(int amostras){
+      int[] indices = new int[amostras];
+      for(int i = 0; i < amostras; i++){
+         indices[i] = i;
+      }
 
-      for(i = linhas - 1; i > 0; i--){
-         idAleatorio = random.nextInt(i+1);
+      return indices;
+   }
+
+   /**
+    * Retorna os índices usados para percorrer as amostras do conjunto de dados
+    * em ordem embaralhada.
+    * <p>
+    *    O mesmo array é reaproveitado entre os treinos enquanto a quantidade de amostras
+    *    não mudar, então o embaralhamento continua de onde parou e treinar as épocas em
+    *    várias chamadas gera a mesma sequência de amostras de uma única chamada.
+    * </p>
+    * @param amostras quantidade de amostras do conjunto de dados.
+    * @return array de índices na ordem atual.
+    */
+   int[] ordemAmostras(int amostras){
+      if(this.ordem == null || this.ordem.length != amostras){
+         this.ordem = criarIndices(amostras);
+      }
 
-         //trocar entradas
-         System.arraycopy(entradas[i], 0, tempEntradas, 0, colEntrada);
-         System.arraycopy(entradas[idAleatorio], 0, entradas[i], 0, colEntrada);
-         System.arraycopy(tempEntradas, 0, entradas[idAleatorio], 0, colEntrada);
+      return this.ordem;
+   }
 
-         //trocar saídas
-         System.arraycopy(saidas[i], 0, tempSaidas, 0, colSaida);
-         System.arraycopy(saidas[idAleatorio], 0, saidas[i], 0, colSaida);
-         System.arraycopy(tempSaidas, 0, saidas[idAleatorio], 0, colSaida); 
+   /**
+    * Embaralha os índices das amostras usando o algoritmo Fisher-Yates.
+    * <p>
+    *    Os dados de treino não são alterados, os loops de treino acessam as amostras
+    *    através dos índices. As trocas feitas são as mesmas que seriam feitas nas linhas
+    *    dos dados, então a mesma seed gera a mesma ordem de amostras.
+    * </p>
+    * @param indices índices das amostras.
+    */
+   void embaralharIndices(int[] indices){
+      int temp, i, idAleatorio;
+
+      for(i = indices.length - 1; i > 0; i--){
+         idAleatorio = random.nextInt(i+1);
+
+         temp = indices[i];
+         indices[i] = indices[idAleatorio];
+         indices[idAleatorio] = temp;
       }
    }
 
    /**
-    * Dedicado para treino em lote e multithread em implementações futuras.
-    * @param dados conjunto de dados completo.
-    * @param inicio índice de inicio do lote.
-    * @param fim índice final do lote.
-    * @return lote contendo os dados de acordo com os índices fornecidos.
+    * Prepara os conjuntos de camadas usados pelas threads do treino paralelo,
+    * reaproveitando os existentes caso ainda correspondam à rede.
+    * <p>
+    *    O primeiro conjunto de camadas é a própria rede, os demais são réplicas que
+    *    compartilham os pesos dela e possuem seus próprios buffers de ativação e gradientes.
+    * </p>
+    * @param replicas conjuntos existentes, pode ser nulo.
+    * @param redec Rede Neural em formato de lista de camadas.
+    * @param trabalhadores quantidade de threads.
+    * @return o próprio array de réplicas fornecido caso ele possa ser reaproveitado,
+    * ou um novo conjunto de réplicas caso contrário.
     */
-   double[][] obterSubMatriz(double[][] dados, int inicio, int fim){
-      if(inicio < 0 || fim > dados.length || inicio >= fim){
-         throw new IllegalArgumentException("Índices de início ou fim inválidos.");
+   Camada[][] prepararReplicas(Camada[][] replicas, Camada[] redec, int trabalhadores){
+      if(replicasValidas(replicas, redec, trabalhadores)){
+         return replicas;
       }
 
-      int linhas = fim - inicio;
-      int colunas = dados[0].length;
-      double[][] subMatriz = new double[linhas][colunas];
+      replicas = new Camada[trabalhadores][];
+      replicas[0] = redec;
+      for(int i = 1; i < trabalhadores; i++){
+         replicas[i] = new Camada[redec.length];
+         for(int j = 0; j < redec.length; j++){
+            replicas[i][j] = redec[j].replicar();
+         }
+      }
 
-      for(int i = 0; i < linhas; i++){
-         System.arraycopy(dados[inicio+i], 0, subMatriz[i], 0, colunas);
+      return replicas;
+   }
+
+   /**
+    * Verifica se as réplicas existentes podem ser usadas com as camadas fornecidas.
+    * @param replicas conjuntos de camadas existentes.
+    * @param redec Rede Neural em formato de lista de camadas.
+    * @param trabalhadores quantidade de threads.
+    * @return true caso as réplicas possam ser reaproveitadas, false caso contrário.
+    */
+   private boolean replicasValidas(Camada[][] replicas, Camada[] redec, int trabalhadores){
+      if(replicas == null || replicas.length != trabalhadores || replicas[0] != redec){
+         return false;
       }
 
-      return subMatriz;
+      for(int i = 1; i < replicas.length; i++){
+         for(int j = 0; j < redec.length; j++){
+            if(!replicas[i][j].replicaDe(redec[j])){
+               return false;
+            }
+         }
+      }
+
+      return true;
    }
 
    /**
@@ -160,19 +219,21 @@ class AuxiliarTreino{
    }
 
    /**
-    * Adiciona o novo valor de perda no final do histórico.
-    * @param historico histórico com os valores de perda da rede.
-    * @param valor novo valor que será adicionado.
+    * Verifica se a previsão da rede corresponde à saída esperada.
+    * <p>
+    *    Com mais de uma saída a previsão é correta quando o maior valor previsto está
+    *    na mesma posição do maior valor esperado, e com uma única saída quando os dois
+    *    valores estão do mesmo lado do limiar {@code 0.5}.
+    * </p>
+    * @param previsto dados previstos.
+    * @param real dados rotulados.
+    * @return true caso a previsão esteja correta.
     */
-   double[] adicionarPerda(double[] historico, double valor){
-      double[] aux = historico;
-      historico = new double[historico.length + 1];
-      
-      for(int i = 0; i < aux.length; i++){
-         historico[i] = aux[i];
+   boolean acerto(double[] previsto, double[] real){
+      if(previsto.length == 1){
+         return (previsto[0] >= 0.5) == (real[0] >= 0.5);
       }
-      historico[historico.length-1] = valor;
 
-      return historico;
+      return indiceMaiorValor(previsto) == indiceMaiorValor(real);
    }
 }
@@ -0,0 +1,303 @@
+package rna.treinamento;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import rna.dados.ConjuntoDados;
+import rna.dados.ConjuntoMemoria;
+
+/**
+ * Carregador que prepara os lotes de treino numa thread em segundo plano.
+ * <p>
+ *    Os lotes são montados num anel limitado de buffers reaproveitáveis: enquanto a
+ *    thread de treino usa um lote, a thread do carregador já lê (e decodifica, no caso de
+ *    arquivos) as amostras dos lotes seguintes, inclusive das próximas épocas. Assim o
+ *    treino só espera pelos dados quando o carregador não consegue acompanhar o cálculo.
+ * </p>
+ * <p>
+ *    O embaralhamento das amostras também é feito pelo carregador, usando o mesmo gerador
+ *    e a mesma sequência de trocas do treino sem carregador, então os lotes gerados são
+ *    exatamente os mesmos.
+ * </p>
+ * Uso:
+ * <pre>
+ *carregador.iniciar();
+ *try{
+ *   for(int i = 0; i < epochs; i++){
+ *      Lote lote;
+ *      while((lote = carregador.proximo()) != null){
+ *         //treino com lote.dados
+ *         carregador.liberar(lote);
+ *      }
+ *   }
+ *}finally{
+ *   carregador.encerrar();
+ *}
+ * </pre>
+ */
+class CarregadorLotes{
+
+   /**
+    * Lote de amostras preparado pelo carregador.
+    */
+   static class Lote{
+
+      /**
+       * Amostras do lote, acessadas pelos índices {@code 0} até {@code amostras-1}.
+       */
+      final ConjuntoMemoria dados;
+
+      /**
+       * Quantidade de amostras válidas do lote.
+       */
+      int amostras;
+
+      private final double[][] entradas;
+      private final double[][] saidas;
+      private final double[][] buffersEntrada;
+      private final double[][] buffersSaida;
+
+      /**
+       * Instancia um lote com buffers para as amostras.
+       * @param tamLote quantidade máxima de amostras do lote.
+       * @param tamEntrada tamanho das amostras de entrada.
+       * @param tamSaida tamanho das amostras de saída.
+       */
+      Lote(int tamLote, int tamEntrada, int tamSaida){
+         this.buffersEntrada = new double[tamLote][tamEntrada];
+         this.buffersSaida = new double[tamLote][tamSaida];
+         this.entradas = this.buffersEntrada.clone();
+         this.saidas = this.buffersSaida.clone();
+         this.dados = new ConjuntoMemoria(this.entradas, this.saidas);
+      }
+
+      /**
+       * Preenche o lote com as amostras dos índices fornecidos.
+       * @param origem conjunto de dados com acesso aleatório.
+       * @param indices ordem das amostras.
+       * @param inicio índice inicial.
+       * @param fim índice final (exclusivo).
+       */
+      void preencher(ConjuntoDados origem, int[] indices, int inicio, int fim){
+         for(int k = inicio; k < fim; k++){
+            int id = k - inicio;
+            this.entradas[id] = origem.obterEntrada(indices[k], this.buffersEntrada[id]);
+            this.saidas[id] = origem.obterSaida(indices[k], this.buffersSaida[id]);
+         }
+         this.amostras = fim - inicio;
+      }
+
+      /**
+       * Preenche o lote com as próximas amostras da leitura sequencial do conjunto.
+       * @param origem conjunto de dados.
+       * @return true caso o lote tenha sido completado, false caso o conjunto tenha terminado.
+       */
+      boolean preencher(ConjuntoDados origem){
+         int lidas = 0;
+         while(lidas < this.buffersEntrada.length && origem.proxima()){
+            this.entradas[lidas] = origem.entradaAtual(this.buffersEntrada[lidas]);
+            this.saidas[lidas] = origem.saidaAtual(this.buffersSaida[lidas]);
+            lidas++;
+         }
+         this.amostras = lidas;
+
+         return lidas == this.buffersEntrada.length;
+      }
+   }
+
+   /**
+    * Marcador de fim de época.
+    */
+   private static final Lote FIM_EPOCA = new Lote(1, 1, 1);
+
+   /**
+    * Marcador de erro no carregador.
+    */
+   private static final Lote ERRO = new Lote(1, 1, 1);
+
+   private final ConjuntoDados dados;
+   private final int tamLote;
+   private final int epochs;
+
+   /**
+    * Auxiliar usado para criar e embaralhar os índices das amostras.
+    */
+   private final AuxiliarTreino aux;
+
+   /**
+    * Indica se as amostras devem ser embaralhadas a cada época.
+    */
+   private final boolean embaralhar;
+
+   /**
+    * Lotes disponíveis para serem preenchidos.
+    */
+   private final BlockingQueue<Lote> livres;
+
+   /**
+    * Lotes prontos para o treino, junto dos marcadores de fim de época.
+    */
+   private final BlockingQueue<Lote> prontos = new LinkedBlockingQueue<>();
+
+   /**
+    * Erro ocorrido no carregador, repassado para a thread de treino.
+    */
+   private volatile Throwable erro;
+
+   /**
+    * Indica que o carregador foi encerrado pela thread de treino.
+    */
+   private volatile boolean encerrado = false;
+
+   private Thread thread;
+
+   /**
+    * Instancia um carregador de lotes.
+    * @param dados conjunto de dados de treino.
+    * @param tamLote tamanho dos lotes.
+    * @param capacidade quantidade de lotes do anel de buffers.
+    * @param epochs quantidade de épocas que serão carregadas.
+    * @param aux auxiliar usado para criar e embaralhar os índices das amostras.
+    * @param embaralhar embaralhar as amostras a cada época.
+    */
+   CarregadorLotes(ConjuntoDados dados, int tamLote, int capacidade, int epochs, AuxiliarTreino aux, boolean embaralhar){
+      this.dados = dados;
+      this.tamLote = tamLote;
+      this.epochs = epochs;
+      this.aux = aux;
+      this.embaralhar = embaralhar;
+
+      this.livres = new ArrayBlockingQueue<>(capacidade);
+      for(int i = 0; i < capacidade; i++){
+         this.livres.add(new Lote(tamLote, dados.tamanhoEntrada(), dados.tamanhoSaida()));
+      }
+   }
+
+   /**
+    * Inicia a thread do carregador.
+    */
+   void iniciar(){
+      this.thread = new Thread(this::executar, "rna-carregador-lotes");
+      this.thread.setDaemon(true);
+      this.thread.start();
+   }
+
+   /**
+    * Retorna o próximo lote da época atual, esperando caso ele ainda não esteja pronto.
+    * @return próximo lote, ou nulo caso a época tenha terminado.
+    */
+   Lote proximo(){
+      Lote lote;
+      try{
+         lote = this.prontos.take();
+      }catch(InterruptedException e){
+         Thread.currentThread().interrupt();
+         throw new RuntimeException("Treino interrompido enquanto esperava pelos dados.", e);
+      }
+
+      if(lote == FIM_EPOCA){
+         return null;
+      }
+      if(lote == ERRO){
+         Throwable t = this.erro;
+         if(t instanceof RuntimeException) throw (RuntimeException) t;
+         if(t instanceof Error) throw (Error) t;
+         throw new RuntimeException(t);
+      }
+
+      return lote;
+   }
+
+   /**
+    * Devolve um lote já usado para o anel de buffers.
+    * @param lote lote usado.
+    */
+   void liberar(Lote lote){
+      this.livres.add(lote);
+   }
+
+   /**
+    * Interrompe o carregador, caso ele ainda esteja em execução, e espera a sua thread
+    * terminar.
+    * <p>
+    *    A espera garante que o carregador não esteja mais lendo o conjunto de dados nem
+    *    embaralhando os índices quando o método retornar, já que conjuntos sequenciais
+    *    (como o {@code ConjuntoCsv}) e o auxiliar de treino não podem ser usados por duas
+    *    threads ao mesmo tempo, por exemplo quando um treino termina com erro e outro
+    *    treino é iniciado em seguida. Lotes prontos que não foram consumidos são descartados.
+    * </p>
+    */
+   void encerrar(){
+      Thread t = this.thread;
+      if(t == null){
+         return;
+      }
+
+      this.thread = null;
+      this.encerrado = true;
+      t.interrupt();
+
+      //a leitura atual não é interrompida, então a thread termina depois de
+      //completar o lote que estava preenchendo
+      boolean interrompido = false;
+      while(t.isAlive()){
+         try{
+            t.join();
+         }catch(InterruptedException e){
+            interrompido = true;
+         }
+      }
+      if(interrompido){
+         Thread.currentThread().interrupt();
+      }
+
+      this.prontos.clear();
+   }
+
+   /**
+    * Laço da thread do carregador.
+    */
+   private void executar(){
+      try{
+         boolean aleatorio = this.dados.acessoAleatorio();
+         int[] indices = aleatorio ? this.aux.ordemAmostras(this.dados.tamanho()) : null;
+
+         for(int i = 0; i < this.epochs; i++){
+            if(aleatorio){
+               if(this.embaralhar) this.aux.embaralharIndices(indices);
+               for(int j = 0; j < indices.length; j += this.tamLote){
+                  Lote lote = this.livres.take();
+                  lote.preencher(this.dados, indices, j, Math.min(j + this.tamLote, indices.length));
+                  this.prontos.put(lote);
+               }
+
+            }else{
+               this.dados.reiniciar();
+               boolean fim = false;
+               while(!fim){
+                  Lote lote = this.livres.take();
+                  fim = !lote.preencher(this.dados);
+                  if(lote.amostras > 0){
+                     this.prontos.put(lote);
+                  }else{
+                     this.livres.put(lote);
+                  }
+               }
+            }
+
+            this.prontos.put(FIM_EPOCA);
+         }
+
+      }catch(InterruptedException e){
+         //treino encerrado
+
+      }catch(Throwable t){
+         //erros depois do encerramento não têm mais quem os receba
+         if(!this.encerrado){
+            this.erro = t;
+            this.prontos.add(ERRO);
+         }
+      }
+   }
+}
@@ -0,0 +1,54 @@
+package rna.treinamento;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Tarefa executada no pool de threads que distribui um grupo de tarefas
+ * e espera todas terminarem.
+ * <p>
+ *    A primeira tarefa é executada na própria thread e as demais são enviadas
+ *    para o pool. Caso alguma tarefa lance uma exceção, ela é relançada depois
+ *    que todas terminarem. Tanto o grupo quanto as tarefas podem ser reaproveitados
+ *    entre execuções, desde que as tarefas sejam reinicializadas.
+ * </p>
+ */
+class GrupoTarefas extends RecursiveAction{
+   private static final long serialVersionUID = 1L;
+   private final RecursiveAction[] tarefas;
+   private int quantidade;
+
+   /**
+    * Instancia um grupo de tarefas.
+    * @param tarefas tarefas do grupo.
+    */
+   GrupoTarefas(RecursiveAction[] tarefas){
+      this.tarefas = tarefas;
+   }
+
+   /**
+    * Configura a quantidade de tarefas usadas na próxima execução.
+    * @param quantidade quantidade de tarefas, a partir da primeira.
+    */
+   void preparar(int quantidade){
+      this.quantidade = quantidade;
+      reinitialize();
+   }
+
+   @Override
+   protected void compute(){
+      for(int t = quantidade-1; t > 0; t--){
+         tarefas[t].fork();
+      }
+      tarefas[0].quietlyInvoke();
+      for(int t = 1; t < quantidade; t++){
+         tarefas[t].quietlyJoin();
+      }
+
+      for(int t = 0; t < quantidade; t++){
+         Throwable erro = tarefas[t].getException();
+         if(erro instanceof RuntimeException) throw (RuntimeException) erro;
+         if(erro instanceof Error) throw (Error) erro;
+         if(erro != null) throw new RuntimeException(erro);
+      }
+   }
+}
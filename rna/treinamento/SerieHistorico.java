@@ -0,0 +1,63 @@
+package rna.treinamento;
+
+import java.util.Arrays;
+
+/**
+ * Série de valores do histórico de treino armazenada num array primitivo
+ * que cresce conforme a necessidade.
+ * <p>
+ *    A capacidade é dobrada quando o array fica cheio, então adicionar um valor
+ *    tem custo constante amortizado, sem copiar todo o histórico a cada época.
+ * </p>
+ */
+class SerieHistorico{
+
+   /**
+    * Capacidade inicial da série.
+    */
+   private static final int CAPACIDADE_INICIAL = 16;
+
+   /**
+    * Valores armazenados, apenas os primeiros {@code tamanho} são válidos.
+    */
+   private double[] valores = new double[CAPACIDADE_INICIAL];
+
+   /**
+    * Quantidade de valores armazenados.
+    */
+   private int tamanho = 0;
+
+   /**
+    * Adiciona um novo valor no final da série.
+    * @param valor valor adicionado.
+    */
+   void adicionar(double valor){
+      if(tamanho == valores.length){
+         valores = Arrays.copyOf(valores, valores.length * 2);
+      }
+      valores[tamanho++] = valor;
+   }
+
+   /**
+    * Retorna a quantidade de valores da série.
+    * @return tamanho da série.
+    */
+   int tamanho(){
+      return tamanho;
+   }
+
+   /**
+    * Remove todos os valores da série.
+    */
+   void limpar(){
+      tamanho = 0;
+   }
+
+   /**
+    * Copia os valores da série para um novo array.
+    * @return array com os valores, na ordem em que foram adicionados.
+    */
+   double[] valores(){
+      return Arrays.copyOf(valores, tamanho);
+   }
+}
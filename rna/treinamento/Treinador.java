@@ -1,6 +1,14 @@
 package rna.treinamento;
 
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
 import rna.avaliacao.perda.Perda;
+import rna.dados.ConjuntoDados;
+import rna.dados.ConjuntoMemoria;
 import rna.estrutura.RedeNeural;
 import rna.otimizadores.Otimizador;
 
@@ -18,6 +26,11 @@ public class Treinador{
    Treino treino;
    TreinoLote treinoLote;
 
+   /**
+    * Quantidade de épocas treinadas desde a criação do treinador.
+    */
+   private long epocas = 0;
+
    /**
     * Responsável por organizar os tipos de treino da rede neural.
     */
@@ -26,6 +39,29 @@ public class Treinador{
       treinoLote = new TreinoLote(calcularHistorico);
    }
 
+   /**
+    * Cria um novo treinador com as mesmas configurações deste (históricos, paralelismo, 
+    * pré-carregamento e acumulação de gradientes), mas sem nenhum estado dos treinos já 
+    * feitos: a contagem de épocas, os históricos, o embaralhamento e as réplicas das 
+    * camadas começam do zero.
+    * <p>
+    *    A seed não é copiada, ela deve ser configurada novamente no novo treinador 
+    *    caso necessário.
+    * </p>
+    * @return novo treinador com as mesmas configurações.
+    */
+   public Treinador copiarConfiguracao(){
+      Treinador copia = new Treinador();
+      copia.configurarHistoricoCusto(calcularHistorico);
+      copia.configurarHistoricoLotes(treinoLote.calcularHistoricoLotes);
+      copia.configurarParalelismoLote(treinoLote.pool);
+      copia.configurarPreCarregamento(treinoLote.preCarregamento);
+      copia.configurarAcumulacaoGradientes(treinoLote.acumulacao);
+      copia.configurarTreinoAssincrono(treino.pool);
+
+      return copia;
+   }
+
    /**
     * Configura a seed inicial do gerador de números aleatórios.
     * @param seed nova seed.
@@ -46,29 +82,80 @@ public class Treinador{
       treinoLote.configurarHistorico(calcularHistorico);
    }
 
+   /**
+    * Configura o armazenamento da perda de cada lote durante o treino em lote,
+    * além da perda de cada época.
+    * @param calcular armazenar ou não a perda de cada lote.
+    */
+   public void configurarHistoricoLotes(boolean calcular){
+      treinoLote.configurarHistoricoLotes(calcular);
+   }
+
+   /**
+    * Configura o pool de threads usado no treino em lote.
+    * @param pool pool de threads, ou nulo para usar o treino sequencial.
+    */
+   public void configurarParalelismoLote(ForkJoinPool pool){
+      treinoLote.configurarParalelismo(pool);
+   }
+
+   /**
+    * Configura a quantidade de lotes preparados antecipadamente em segundo plano
+    * durante o treino em lote.
+    * @param lotes quantidade de lotes do anel de buffers, ou zero para desativar.
+    */
+   public void configurarPreCarregamento(int lotes){
+      treinoLote.configurarPreCarregamento(lotes);
+   }
+
+   /**
+    * Configura a quantidade de lotes cujos gradientes são acumulados antes de cada
+    * atualização do otimizador no treino em lote.
+    * @param lotes quantidade de lotes por atualização.
+    */
+   public void configurarAcumulacaoGradientes(int lotes){
+      treinoLote.configurarAcumulacao(lotes);
+   }
+
+   /**
+    * Configura o pool de threads usado no treino assíncrono (sem lotes).
+    * @param pool pool de threads, ou nulo para usar o treino sequencial.
+    */
+   public void configurarTreinoAssincrono(ForkJoinPool pool){
+      treino.configurarParalelismo(pool);
+   }
+
+   /**
+    * Retorna a quantidade de amostras processadas por segundo em cada thread
+    * durante o último treino assíncrono.
+    * @return amostras por segundo de cada thread, vazio caso o treino assíncrono
+    * não tenha sido usado.
+    */
+   public double[] obterAmostrasPorSegundo(){
+      return treino.amostrasPorSegundo.clone();
+   }
+
    /**
     * Treina a rede neural calculando os erros dos neuronios, seus gradientes para cada peso e 
     * passando essas informações para o otimizador configurado ajustar os pesos.
     * @param rede rede neural que será treinada.
     * @param perda função de perda usada durante o treinamento.
     * @param otimizador otimizador configurado da rede.
-    * @param entradas dados de entrada para o treino.
-    * @param saidas dados de saída correspondente as entradas para o treino.
+    * @param dados conjunto de dados de treino.
     * @param epochs quantidade de épocas de treinamento.
-    * @param embaralhar embaralhar dados de treino para cada época.
     */
-   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, double[][] entradas, double[][] saidas, int epochs){
+   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, ConjuntoDados dados, int epochs){
       treino.treino(
          rede, 
          perda, 
          otimizador, 
-         clonarElementos(entradas), 
-         clonarElementos(saidas), 
+         dados, 
          epochs
       );
 
       treino.ultimoUsado = true;
       treinoLote.ultimoUsado = false;
+      epocas += epochs;
    }
 
    /**
@@ -77,44 +164,87 @@ public class Treinador{
     * @param rede rede neural que será treinada.
     * @param perda função de perda usada durante o treinamento.
     * @param otimizador otimizador configurado da rede.
-    * @param entradas dados de entrada para o treino.
-    * @param saidas dados de saída correspondente as entradas para o treino.
+    * @param dados conjunto de dados de treino.
     * @param epochs quantidade de épocas de treinamento.
-    * @param embaralhar embaralhar dados de treino para cada época.
     * @param tamLote tamanho do lote.
     */
-   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, double[][] entradas, double[][] saidas, int epochs, int tamLote){
+   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, ConjuntoDados dados, int epochs, int tamLote){
       treinoLote.treino(
          rede, 
          perda, 
          otimizador, 
-         clonarElementos(entradas), 
-         clonarElementos(saidas), 
+         dados, 
          epochs, 
          tamLote
       );
 
       treinoLote.ultimoUsado = true;
       treino.ultimoUsado = false;
+      epocas += epochs;
    }
 
    /**
-    * Copia elemento a elemento dos dados para evitar clones com mesmas referências
-    * e embaralhar os dados de treino usados.
-    * @param dados conjunto de dados base.
-    * @return novo conjunto de dados com os mesmo valores contidos no original.
+    * Treina a rede neural com dados em memória, sem copiá-los.
+    * @param rede rede neural que será treinada.
+    * @param perda função de perda usada durante o treinamento.
+    * @param otimizador otimizador configurado da rede.
+    * @param entradas dados de entrada para o treino.
+    * @param saidas dados de saída correspondente as entradas para o treino.
+    * @param epochs quantidade de épocas de treinamento.
+    */
+   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, double[][] entradas, double[][] saidas, int epochs){
+      treino(rede, perda, otimizador, new ConjuntoMemoria(entradas, saidas), epochs);
+   }
+
+   /**
+    * Treina a rede neural em lotes com dados em memória, sem copiá-los.
+    * @param rede rede neural que será treinada.
+    * @param perda função de perda usada durante o treinamento.
+    * @param otimizador otimizador configurado da rede.
+    * @param entradas dados de entrada para o treino.
+    * @param saidas dados de saída correspondente as entradas para o treino.
+    * @param epochs quantidade de épocas de treinamento.
+    * @param tamLote tamanho do lote.
+    */
+   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, double[][] entradas, double[][] saidas, int epochs, int tamLote){
+      treino(rede, perda, otimizador, new ConjuntoMemoria(entradas, saidas), epochs, tamLote);
+   }
+
+   /**
+    * Retorna a quantidade de épocas treinadas, somando todas as chamadas de treino.
+    * @return quantidade de épocas treinadas.
     */
-   private double[][] clonarElementos(double[][] dados){
-      double[][] clone = new double[dados.length][dados[0].length];
+   public long obterEpocas(){
+      return epocas;
+   }
 
-      for(int i = 0; i < dados.length; i++){
-         // System.arraycopy(dados[i], 0, clone[i], 0, dados[i].length);
-         for(int j = 0; j < dados[i].length; j++){
-            clone[i][j] = dados[i][j];
-         }
-      }
+   /**
+    * Escreve o estado necessário para continuar o treino de onde ele parou: a quantidade
+    * de épocas treinadas e, para o treino e o treino em lote, o estado do gerador de números
+    * aleatórios usado no embaralhamento e a ordem atual das amostras.
+    * @param saida destino dos dados.
+    * @throws IOException se houver algum erro ao escrever os dados.
+    */
+   public void salvarEstado(ObjectOutput saida) throws IOException{
+      saida.writeLong(epocas);
+      saida.writeObject(treino.aux.random);
+      saida.writeObject(treino.aux.ordem);
+      saida.writeObject(treinoLote.aux.random);
+      saida.writeObject(treinoLote.aux.ordem);
+   }
 
-      return clone;
+   /**
+    * Restaura o estado escrito por {@link #salvarEstado(ObjectOutput)}.
+    * @param entrada origem dos dados.
+    * @throws IOException se houver algum erro ao ler os dados.
+    * @throws ClassNotFoundException se os dados lidos não corresponderem ao estado do treinador.
+    */
+   public void lerEstado(ObjectInput entrada) throws IOException, ClassNotFoundException{
+      epocas = entrada.readLong();
+      treino.aux.random = (Random) entrada.readObject();
+      treino.aux.ordem = (int[]) entrada.readObject();
+      treinoLote.aux.random = (Random) entrada.readObject();
+      treinoLote.aux.ordem = (int[]) entrada.readObject();
    }
 
    /**
@@ -123,7 +253,25 @@ public class Treinador{
     * @return lista com os custo por época durante a fase de treinamento.
     */
    public double[] obterHistorico(){
-      return (treino.ultimoUsado) ? treino.historico : treinoLote.historico;
+      return (treino.ultimoUsado) ? treino.historico.valores() : treinoLote.historico.valores();
+   }
+
+   /**
+    * Retorna uma lista contendo a acurácia das previsões feitas pela rede
+    * a cada época de treinamento.
+    * @return lista com a acurácia por época durante a fase de treinamento.
+    */
+   public double[] obterHistoricoAcuracia(){
+      return (treino.ultimoUsado) ? treino.historicoAcuracia.valores() : treinoLote.historicoAcuracia.valores();
+   }
+
+   /**
+    * Retorna uma lista contendo os valores de custo de cada lote do treino em lote.
+    * @return lista com os custos por lote, vazia caso o histórico por lote não
+    * esteja habilitado.
+    */
+   public double[] obterHistoricoLotes(){
+      return treinoLote.historicoLotes.valores();
    }
    
 }
@@ -1,11 +1,14 @@
 package rna.treinamento;
 
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import rna.avaliacao.perda.Perda;
+import rna.dados.ConjuntoDados;
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
 import rna.estrutura.RedeNeural;
+import rna.matematica.AlgebraLinear;
 import rna.otimizadores.GDM;
 import rna.otimizadores.GD;
 import rna.otimizadores.Otimizador;
@@ -19,18 +22,65 @@ import rna.otimizadores.Otimizador;
  */
 class Treino{
    public boolean calcularHistorico = false;
-   double[] historico;
+
+   /**
+    * Perda média das amostras em cada época de treino.
+    */
+   SerieHistorico historico = new SerieHistorico();
+
+   /**
+    * Acurácia das previsões feitas durante cada época de treino.
+    */
+   SerieHistorico historicoAcuracia = new SerieHistorico();
    AuxiliarTreino aux = new AuxiliarTreino();
 
    Random random = new Random();
    boolean ultimoUsado = false;
 
+   /**
+    * Soma das perdas e quantidade de acertos das amostras da época atual.
+    */
+   private double perdaEpoca;
+   private int acertosEpoca;
+
+   /**
+    * Indica se a perda das amostras é calculada no treino atual, para o histórico
+    * ou para o agendador da taxa de aprendizagem do otimizador.
+    */
+   private boolean calcularPerda;
+
+   /**
+    * Pool usado no treino assíncrono, nulo quando o treino é sequencial.
+    */
+   ForkJoinPool pool = null;
+
+   /**
+    * Quantidade de amostras processadas por segundo em cada thread durante
+    * o último treino assíncrono.
+    */
+   double[] amostrasPorSegundo = new double[0];
+
+   /**
+    * Conjuntos de camadas de cada thread, reaproveitados entre os treinos
+    * enquanto as camadas da rede não mudarem.
+    */
+   private Camada[][] replicas;
+
+   /**
+    * Tarefas de cada thread, reaproveitadas entre as épocas.
+    */
+   private TarefaAssincrona[] tarefas;
+
+   /**
+    * Tarefa que distribui as tarefas de cada thread no pool.
+    */
+   private GrupoTarefas raiz;
+
    /**
     * Objeto de treino sequencial da rede.
     * @param historico lista de custos da rede durante cada época de treino.
     */
    public Treino(boolean calcularHistorico){
-      this.historico = new double[0];
       this.calcularHistorico = calcularHistorico;
    }
 
@@ -52,20 +102,32 @@ class Treino{
       this.calcularHistorico = calcularHistorico;
    }
 
+   /**
+    * Configura o pool de threads usado no treino assíncrono.
+    * @param pool pool de threads, ou nulo para usar o treino sequencial.
+    */
+   public void configurarParalelismo(ForkJoinPool pool){
+      this.pool = pool;
+   }
+
    /**
     * Treina a rede neural calculando os erros dos neuronios, seus gradientes para cada peso e 
     * passando essas informações para o otimizador configurado ajustar os pesos.
+    * <p>
+    *    Quando um pool de threads está configurado, o treino é feito de forma assíncrona
+    *    (no estilo Hogwild!), veja {@link #treinoAssincrono}.
+    * </p>
     * @param rede instância da rede.
     * @param perda função de perda (ou custo) usada para calcular os erros da rede.
     * @param otimizador otimizador configurado da rede.
-    * @param entradas dados de entrada para o treino.
-    * @param saidas dados de saída correspondente as entradas para o treino.
+    * @param dados conjunto de dados de treino.
     * @param epochs quantidade de épocas de treinamento.
-    * @param embaralhar embaralhar dados de treino para cada época.
+    * @throws IllegalArgumentException se o treino assíncrono estiver configurado e o
+    * conjunto de dados não suportar acesso aleatório ou o otimizador usar a atualização
+    * paralela.
     */
-   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, double[][] entradas, double[][] saidas, int epochs){
-      double[] entrada = new double[entradas[0].length];// quantidade de colunas da entrada
-      double[] saida = new double[saidas[0].length];// quantidade de colunas da saída
+   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, ConjuntoDados dados, int epochs){
+      calcularPerda = calcularHistorico || otimizador.usaPerdaEpoca();
 
       boolean embaralhar = true;
       if(otimizador instanceof GD || otimizador instanceof GDM){
@@ -74,42 +136,219 @@ class Treino{
 
       //transformar a rede numa lista de camadas pra facilitar minha vida
       Camada[] redec = rede.obterCamadas();
+      boolean aleatorio = dados.acessoAleatorio();
+      int[] indices = aleatorio ? aux.ordemAmostras(dados.tamanho()) : null;
+
+      if(pool != null){
+         if(!aleatorio){
+            throw new IllegalArgumentException(
+               "O treino assíncrono requer um conjunto de dados com acesso aleatório."
+            );
+         }
+         if(otimizador.obterParalelismo() != null){
+            throw new IllegalArgumentException(
+               "O treino assíncrono não pode ser usado com a atualização paralela do otimizador, " +
+               "cada thread do treino já atualiza os pesos por conta própria."
+            );
+         }
+         treinoAssincrono(redec, perda, otimizador, dados, indices, epochs, embaralhar);
+         return;
+      }
+
+      //usados apenas pelos conjuntos que não ficam em memória
+      double[] bufferEntrada = new double[dados.tamanhoEntrada()];
+      double[] bufferSaida = new double[dados.tamanhoSaida()];
 
       for(int i = 0; i < epochs; i++){
-         //aplicar gradiente estocástico
-         //alterando a organização dos dados em cada época
-         if(embaralhar) aux.embaralharDados(entradas, saidas);
-
-         double perdaEpoca = 0;
-
-         //percorrer amostras
-         for(int j = 0; j < entradas.length; j++){
-            //preencher dados de entrada e saída
-            for(int k = 0; k < entrada.length; k++){
-               entrada[k] = entradas[j][k];
-            }    
-            for(int k = 0; k < saida.length; k++){
-               saida[k] = saidas[j][k];
-            }
+         perdaEpoca = 0;
+         acertosEpoca = 0;
+         int amostras = 0;
 
-            rede.calcularSaida(entrada);
+         if(aleatorio){
+            //aplicar gradiente estocástico
+            //alterando a organização dos dados em cada época
+            if(embaralhar) aux.embaralharIndices(indices);
 
-            //feedback de avanço da rede
-            if(calcularHistorico){
-               perdaEpoca += perda.calcular(rede.obterSaidas(), saida);
+            //as amostras são acessadas pela ordem embaralhada
+            for(int j = 0; j < indices.length; j++){
+               treinarAmostra(
+                  rede, redec, perda, otimizador,
+                  dados.obterEntrada(indices[j], bufferEntrada),
+                  dados.obterSaida(indices[j], bufferSaida)
+               );
             }
+            amostras = indices.length;
 
-            backpropagation(redec, perda, saida);
-            otimizador.atualizar(redec);
+         }else{
+            //conjuntos sequenciais são lidos na própria ordem
+            dados.reiniciar();
+            while(dados.proxima()){
+               treinarAmostra(
+                  rede, redec, perda, otimizador,
+                  dados.entradaAtual(bufferEntrada),
+                  dados.saidaAtual(bufferSaida)
+               );
+               amostras++;
+            }
          }
 
          //feedback de avanço da rede
+         if(calcularPerda){
+            registrarEpoca(otimizador, perdaEpoca, acertosEpoca, amostras);
+         }
+      }
+   }
+
+   /**
+    * Adiciona a perda média e a acurácia da época nos históricos e informa a
+    * perda média ao otimizador.
+    * @param otimizador otimizador configurado da rede.
+    * @param perdaTotal soma das perdas das amostras da época.
+    * @param acertos quantidade de previsões corretas na época.
+    * @param amostras quantidade de amostras da época.
+    */
+   private void registrarEpoca(Otimizador otimizador, double perdaTotal, int acertos, int amostras){
+      if(amostras > 0){
          if(calcularHistorico){
-            this.historico = aux.adicionarPerda(this.historico, perdaEpoca);
+            historico.adicionar(perdaTotal / amostras);
+            historicoAcuracia.adicionar((double) acertos / amostras);
+         }
+         otimizador.registrarEpoca(perdaTotal / amostras);
+      }
+   }
+
+   /**
+    * Treina a rede com uma única amostra.
+    * @param rede instância da rede.
+    * @param redec Rede Neural em formato de lista de camadas.
+    * @param perda função de perda usada para calcular os erros da rede.
+    * @param otimizador otimizador configurado da rede.
+    * @param entrada dados de entrada da amostra.
+    * @param saida dados de saída esperados da amostra.
+    */
+   private void treinarAmostra(RedeNeural rede, Camada[] redec, Perda perda, Otimizador otimizador, double[] entrada, double[] saida){
+      rede.calcularSaida(entrada);
+
+      //feedback de avanço da rede, usando a saída calculada para o próprio treino
+      if(calcularPerda){
+         double[] previsto = rede.obterSaidas();
+         perdaEpoca += perda.calcular(previsto, saida);
+         if(aux.acerto(previsto, saida)) acertosEpoca++;
+      }
+
+      backpropagation(redec, perda, saida);
+      otimizador.atualizar(redec);
+   }
+
+   /**
+    * Treina a rede de forma assíncrona e sem travas, no estilo do Hogwild!.
+    * <p>
+    *    Em cada época, a ordem (embaralhada) das amostras é dividida em faixas contíguas
+    *    e disjuntas, uma para cada thread. Cada thread usa réplicas das camadas que
+    *    compartilham os pesos da rede e, para cada amostra da sua faixa, calcula os
+    *    gradientes e chama o otimizador diretamente sobre os pesos compartilhados, sem
+    *    nenhuma sincronização com as demais threads.
+    * </p>
+    * <p>
+    *    As atualizações de uma thread podem sobrescrever ou misturar-se às de outra,
+    *    assim como o estado interno do otimizador, que também é compartilhado. Isso é
+    *    tolerado pelo método e funciona melhor quando as amostras atualizam poucos pesos
+    *    em comum (entradas esparsas), mas o resultado não é determinístico.
+    * </p>
+    * <p>
+    *    O contador de passos do otimizador, usado pelo agendador da taxa de aprendizagem,
+    *    também é incrementado sem sincronização, então alguns passos podem ser perdidos ou
+    *    repetidos e a taxa segue o agendamento apenas de forma aproximada. Agendadores
+    *    baseados na perda das épocas não são afetados, já que a perda é informada pela
+    *    thread do treino ao fim de cada época. A atualização paralela do otimizador não é
+    *    permitida nesse modo, pois cada atualização já é feita dentro de uma thread do pool.
+    * </p>
+    * @param redec Rede Neural em formato de lista de camadas.
+    * @param perda função de perda usada para calcular os erros da rede.
+    * @param otimizador otimizador configurado da rede.
+    * @param dados conjunto de dados de treino, com acesso aleatório.
+    * @param indices ordem de acesso das amostras.
+    * @param epochs quantidade de épocas de treinamento.
+    * @param embaralhar embaralhar a ordem das amostras a cada época.
+    */
+   private void treinoAssincrono(Camada[] redec, Perda perda, Otimizador otimizador, ConjuntoDados dados, int[] indices, int epochs, boolean embaralhar){
+      int trabalhadores = Math.max(1, Math.min(pool.getParallelism(), indices.length));
+      prepararParalelismo(redec, trabalhadores);
+
+      for(TarefaAssincrona tarefa : tarefas){
+         tarefa.amostras = 0;
+         tarefa.tempo = 0;
+      }
+
+      for(int i = 0; i < epochs; i++){
+         if(embaralhar) aux.embaralharIndices(indices);
+
+         for(int t = 0; t < trabalhadores; t++){
+            tarefas[t].preparar(
+               perda,
+               otimizador,
+               dados,
+               indices,
+               (int)((long) indices.length * t / trabalhadores),
+               (int)((long) indices.length * (t+1) / trabalhadores)
+            );
+         }
+
+         raiz.preparar(trabalhadores);
+         pool.invoke(raiz);
+
+         //feedback de avanço da rede
+         if(calcularPerda){
+            double perdaTotal = 0;
+            int acertos = 0;
+            for(int t = 0; t < trabalhadores; t++){
+               perdaTotal += tarefas[t].perdaTotal;
+               acertos += tarefas[t].acertos;
+            }
+            registrarEpoca(otimizador, perdaTotal, acertos, indices.length);
+         }
+      }
+
+      amostrasPorSegundo = new double[trabalhadores];
+      for(int t = 0; t < trabalhadores; t++){
+         if(tarefas[t].tempo > 0){
+            amostrasPorSegundo[t] = tarefas[t].amostras / (tarefas[t].tempo / 1e9);
          }
       }
    }
 
+   /**
+    * Prepara as réplicas das camadas e as tarefas usadas no treino assíncrono,
+    * reaproveitando as existentes caso ainda correspondam à rede.
+    * @param redec Rede Neural em formato de lista de camadas.
+    * @param trabalhadores quantidade de threads.
+    */
+   private void prepararParalelismo(Camada[] redec, int trabalhadores){
+      Camada[][] atuais = aux.prepararReplicas(replicas, redec, trabalhadores);
+      if(atuais == replicas){
+         return;
+      }
+
+      replicas = atuais;
+      tarefas = new TarefaAssincrona[trabalhadores];
+      for(int i = 0; i < trabalhadores; i++){
+         tarefas[i] = new TarefaAssincrona(replicas[i]);
+      }
+      raiz = new GrupoTarefas(tarefas);
+   }
+
+   /**
+    * Alimenta os dados de entrada pelo conjunto de camadas fornecido.
+    * @param camadas conjunto de camadas.
+    * @param entrada dados de entrada.
+    */
+   private void propagar(Camada[] camadas, double[] entrada){
+      camadas[0].calcularSaida(entrada);
+      for(int i = 1; i < camadas.length; i++){
+         camadas[i].calcularSaida(camadas[i-1].obterSaida());
+      }
+   }
+
    /**
     * Retropropaga o erro da rede neural de acordo com os dados de entrada e 
     * saída esperados e calcula os gradientes dos pesos de cada neurônio.
@@ -138,12 +377,95 @@ class Treino{
       aux.calcularGradientes(redec, perda, saidas);
 
       for(Camada camada : redec){
-         for(Neuronio neuronio : camada.neuronios()){
-            for(int i = 0; i < neuronio.pesos.length; i++){
-               neuronio.gradientes[i] = -neuronio.gradiente * neuronio.entradas[i];
-            }
+         //gradiente dos pesos como produto externo entre o gradiente local e a entrada
+         int tamEntrada = camada.entrada.length;
+         AlgebraLinear.produtoExterno(
+            camada.gradiente.length, tamEntrada, -1, camada.gradiente, 0, camada.entrada, 0, camada.gradPesos, 0, tamEntrada
+         );
+         for(int i = 0; i < camada.gradBias.length; i++){
+            camada.gradBias[i] = -camada.gradiente[i];
          }
       }
    }
 
+   /**
+    * Tarefa de uma thread do treino assíncrono, treina a rede com uma faixa de
+    * amostras usando seu próprio conjunto de camadas, atualizando os pesos
+    * compartilhados a cada amostra.
+    */
+   private class TarefaAssincrona extends RecursiveAction{
+      private static final long serialVersionUID = 1L;
+      private final Camada[] camadas;
+      private Perda perda;
+      private Otimizador otimizador;
+      private ConjuntoDados dados;
+      private int[] indices;
+      private final double[] bufferEntrada;
+      private final double[] bufferSaida;
+      private int inicio;
+      private int fim;
+
+      /**
+       * Soma das perdas das amostras da faixa na última época.
+       */
+      double perdaTotal;
+
+      /**
+       * Quantidade de previsões corretas da faixa na última época.
+       */
+      int acertos;
+
+      /**
+       * Quantidade de amostras processadas desde o início do treino.
+       */
+      long amostras;
+
+      /**
+       * Tempo gasto pela tarefa desde o início do treino, em nanossegundos.
+       */
+      long tempo;
+
+      TarefaAssincrona(Camada[] camadas){
+         this.camadas = camadas;
+         this.bufferEntrada = new double[camadas[0].tamanhoEntrada()];
+         this.bufferSaida = new double[camadas[camadas.length-1].quantidadeNeuronios()];
+      }
+
+      /**
+       * Configura a faixa de amostras da tarefa para a próxima época.
+       */
+      void preparar(Perda perda, Otimizador otimizador, ConjuntoDados dados, int[] indices, int inicio, int fim){
+         this.perda = perda;
+         this.otimizador = otimizador;
+         this.dados = dados;
+         this.indices = indices;
+         this.inicio = inicio;
+         this.fim = fim;
+         reinitialize();
+      }
+
+      @Override
+      protected void compute(){
+         long t0 = System.nanoTime();
+         Camada ultima = camadas[camadas.length-1];
+
+         perdaTotal = 0;
+         acertos = 0;
+         for(int k = inicio; k < fim; k++){
+            double[] saida = dados.obterSaida(indices[k], bufferSaida);
+            propagar(camadas, dados.obterEntrada(indices[k], bufferEntrada));
+
+            if(calcularPerda){
+               perdaTotal += perda.calcular(ultima.obterSaida(), saida);
+               if(aux.acerto(ultima.obterSaida(), saida)) acertos++;
+            }
+
+            backpropagation(camadas, perda, saida);
+            otimizador.atualizar(camadas);
+         }
+
+         amostras += fim - inicio;
+         tempo += System.nanoTime() - t0;
+      }
+   }
 }
@@ -1,11 +1,14 @@
 package rna.treinamento;
 
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import rna.avaliacao.perda.Perda;
+import rna.dados.ConjuntoDados;
 import rna.estrutura.Camada;
-import rna.estrutura.Neuronio;
 import rna.estrutura.RedeNeural;
+import rna.matematica.AlgebraLinear;
 import rna.otimizadores.GD;
 import rna.otimizadores.GDM;
 import rna.otimizadores.Otimizador;
@@ -19,18 +22,92 @@ import rna.otimizadores.Otimizador;
  */
 class TreinoLote{
    public boolean calcularHistorico = false;
-   double[] historico;
+
+   /**
+    * Indica se a perda de cada lote também deve ser armazenada.
+    */
+   boolean calcularHistoricoLotes = false;
+
+   /**
+    * Perda média das amostras em cada época de treino.
+    */
+   SerieHistorico historico = new SerieHistorico();
+
+   /**
+    * Acurácia das previsões feitas durante cada época de treino.
+    */
+   SerieHistorico historicoAcuracia = new SerieHistorico();
+
+   /**
+    * Perda média das amostras de cada lote treinado.
+    */
+   SerieHistorico historicoLotes = new SerieHistorico();
    AuxiliarTreino aux = new AuxiliarTreino();
 
    Random random = new Random();
    boolean ultimoUsado = false;
 
+   /**
+    * Pool usado para dividir as amostras de cada lote entre threads,
+    * nulo quando o treino é sequencial.
+    */
+   ForkJoinPool pool = null;
+
+   /**
+    * Conjuntos de camadas de cada thread, reaproveitados entre os treinos
+    * enquanto as camadas da rede não mudarem.
+    */
+   private Camada[][] replicas;
+
+   /**
+    * Tarefas de cada thread, reaproveitadas entre os lotes.
+    */
+   private TarefaLote[] tarefas;
+
+   /**
+    * Tarefa que distribui as tarefas de cada thread no pool.
+    */
+   private GrupoTarefas raiz;
+
+   /**
+    * Quantidade de lotes preparados antecipadamente em segundo plano,
+    * zero quando os lotes são montados na thread de treino.
+    */
+   int preCarregamento = 0;
+
+   /**
+    * Quantidade de lotes cujos gradientes são acumulados antes de cada
+    * atualização do otimizador.
+    */
+   int acumulacao = 1;
+
+   /**
+    * Quantidade de lotes e de amostras acumulados desde a última atualização.
+    */
+   private int lotesAcumulados = 0, amostrasAcumuladas = 0;
+
+   /**
+    * Soma das perdas, quantidade de acertos e de amostras da época atual.
+    */
+   private double perdaEpoca;
+   private int acertosEpoca, amostrasEpoca;
+
+   /**
+    * Indica se a perda das amostras é calculada no treino atual, para o histórico
+    * ou para o agendador da taxa de aprendizagem do otimizador.
+    */
+   private boolean calcularPerda;
+
+   /**
+    * Buffers usados para ler as amostras no treino sem paralelismo.
+    */
+   private double[] bufferEntrada, bufferSaida;
+
    /**
     * Implementação do treino em lote.
     * @param historico
     */
    public TreinoLote(boolean calcularHistorico){
-      this.historico = new double[0];
       this.calcularHistorico = calcularHistorico;
    }
 
@@ -52,53 +129,349 @@ class TreinoLote{
       this.calcularHistorico = calcularHistorico;
    }
 
+   /**
+    * Configura o armazenamento da perda de cada lote, além da perda de cada época.
+    * @param calcular true armazena a perda de cada lote.
+    */
+   public void configurarHistoricoLotes(boolean calcular){
+      this.calcularHistoricoLotes = calcular;
+   }
+
+   /**
+    * Configura o pool de threads usado para calcular os gradientes de cada lote
+    * em paralelo.
+    * @param pool pool de threads, ou nulo para usar o treino sequencial.
+    */
+   public void configurarParalelismo(ForkJoinPool pool){
+      this.pool = pool;
+   }
+
+   /**
+    * Configura a quantidade de lotes preparados antecipadamente por uma thread
+    * em segundo plano.
+    * @param lotes quantidade de lotes do anel de buffers, ou zero para montar os
+    * lotes na própria thread de treino.
+    */
+   public void configurarPreCarregamento(int lotes){
+      this.preCarregamento = lotes;
+   }
+
+   /**
+    * Configura a quantidade de lotes cujos gradientes são acumulados antes de
+    * cada atualização do otimizador.
+    * @param lotes quantidade de lotes por atualização.
+    */
+   public void configurarAcumulacao(int lotes){
+      this.acumulacao = lotes;
+   }
+
    /**
     * Treina a rede neural calculando os erros dos neuronios, seus gradientes para cada peso e 
     * passando essas informações para o otimizador configurado ajustar os pesos.
+    * <p>
+    *    Quando um pool de threads está configurado, as amostras de cada lote são divididas
+    *    entre réplicas das camadas que compartilham os pesos da rede, e os gradientes de
+    *    cada réplica são somados antes da atualização do otimizador.
+    * </p>
+    * <p>
+    *    Conjuntos de dados sem acesso aleatório são lidos na própria ordem, um lote por vez,
+    *    então apenas as amostras do lote atual ficam em memória.
+    * </p>
+    * <p>
+    *    Com o pré-carregamento configurado, os lotes são montados por um
+    *    {@link CarregadorLotes} enquanto o lote anterior é treinado.
+    * </p>
+    * <p>
+    *    Com a acumulação configurada, os gradientes de vários lotes consecutivos são
+    *    somados antes de uma única atualização do otimizador, que usa a média de todas
+    *    as amostras acumuladas. Os lotes restantes no fim de cada época geram uma
+    *    atualização com menos lotes.
+    * </p>
     * @param rede instância da rede.
     * @param perda função de perda (ou custo) usada para calcular os erros da rede.
     * @param otimizador otimizador configurado da rede.
-    * @param entradas dados de entrada para o treino.
-    * @param saidas dados de saída correspondente as entradas para o treino.
+    * @param dados conjunto de dados de treino.
     * @param epochs quantidade de épocas de treinamento.
-    * @param embaralhar embaralhar dados de treino para cada época.
     * @param tamLote tamanho do lote.
     */
-   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, double[][] entradas, double[][] saidas, int epochs, int tamLote){      
+   public void treino(RedeNeural rede, Perda perda, Otimizador otimizador, ConjuntoDados dados, int epochs, int tamLote){
+      calcularPerda = calcularHistorico || otimizador.usaPerdaEpoca();
       Camada[] redec = rede.obterCamadas();
+      if(pool != null) prepararParalelismo(redec);
+      bufferEntrada = new double[dados.tamanhoEntrada()];
+      bufferSaida = new double[dados.tamanhoSaida()];
 
       boolean embaralhar = true;
       if(otimizador instanceof GD || otimizador instanceof GDM){
          embaralhar = false;
       }
 
-      for(int i = 0; i < epochs; i++){
-         if(embaralhar) aux.embaralharDados(entradas, saidas);
+      if(preCarregamento > 0){
+         treinoPreCarregado(rede, redec, perda, otimizador, dados, epochs, tamLote, embaralhar);
+         return;
+      }
 
-         for(int j = 0; j < entradas.length; j += tamLote){
-            int fimIndice = Math.min(j + tamLote, entradas.length);
-            double[][] entradaLote = aux.obterSubMatriz(entradas, j, fimIndice);
-            double[][] saidaLote = aux.obterSubMatriz(saidas, j, fimIndice);
+      boolean aleatorio = dados.acessoAleatorio();
+      int[] indices = aleatorio ? aux.ordemAmostras(dados.tamanho()) : aux.criarIndices(tamLote);
 
-            //reiniciar gradiente do lote
-            zerarGradientesAcumulados(redec);
-            for(int k = 0; k < entradaLote.length; k++){
-               double[] entrada = entradaLote[k];
-               double[] saida = saidaLote[k];
+      //conjuntos sequenciais têm cada lote lido para buffers próprios
+      CarregadorLotes.Lote lote = null;
+      if(!aleatorio){
+         lote = new CarregadorLotes.Lote(tamLote, dados.tamanhoEntrada(), dados.tamanhoSaida());
+      }
 
-               rede.calcularSaida(entrada);
-               backpropagationLote(redec, perda, saida);
+      lotesAcumulados = 0;
+      for(int i = 0; i < epochs; i++){
+         iniciarEpoca();
+         if(aleatorio){
+            if(embaralhar) aux.embaralharIndices(indices);
+            for(int j = 0; j < indices.length; j += tamLote){
+               int fimIndice = Math.min(j + tamLote, indices.length);
+               treinarLote(rede, redec, perda, otimizador, dados, indices, j, fimIndice);
             }
 
-            //normalizar gradientes para enviar pro otimizador
-            calcularMediaGradientesLote(redec, entradaLote.length);
-            otimizador.atualizar(redec);
+         }else{
+            //o lote lido ocupa o início dos buffers, na ordem do conjunto,
+            //e o último lote pode estar incompleto
+            dados.reiniciar();
+            while(lote.preencher(dados) || lote.amostras > 0){
+               treinarLote(rede, redec, perda, otimizador, lote.dados, indices, 0, lote.amostras);
+            }
          }
+         atualizarAcumulado(redec, otimizador);
+         registrarEpoca(otimizador);
+      }
+   }
 
-         //feedback de avanço da rede
+   /**
+    * Reinicia os valores do histórico acumulados durante a época.
+    */
+   private void iniciarEpoca(){
+      perdaEpoca = 0;
+      acertosEpoca = 0;
+      amostrasEpoca = 0;
+   }
+
+   /**
+    * Adiciona a perda média e a acurácia da época nos históricos e informa a
+    * perda média ao otimizador.
+    * @param otimizador otimizador configurado da rede.
+    */
+   private void registrarEpoca(Otimizador otimizador){
+      if(calcularPerda && amostrasEpoca > 0){
          if(calcularHistorico){
-            // TODO corrigir para o novo formato das funções de perda
-            //historico = aux.adicionarPerda(historico, perda.calcular(rede, entradas, saidas));
+            historico.adicionar(perdaEpoca / amostrasEpoca);
+            historicoAcuracia.adicionar((double) acertosEpoca / amostrasEpoca);
+         }
+         otimizador.registrarEpoca(perdaEpoca / amostrasEpoca);
+      }
+   }
+
+   /**
+    * Treina a rede com lotes preparados em segundo plano por um {@link CarregadorLotes}.
+    * @param rede instância da rede.
+    * @param redec Rede Neural em formato de lista de camadas.
+    * @param perda função de perda usada para calcular os erros da rede.
+    * @param otimizador otimizador configurado da rede.
+    * @param dados conjunto de dados de treino.
+    * @param epochs quantidade de épocas de treinamento.
+    * @param tamLote tamanho do lote.
+    * @param embaralhar embaralhar as amostras a cada época.
+    */
+   private void treinoPreCarregado(RedeNeural rede, Camada[] redec, Perda perda, Otimizador otimizador, ConjuntoDados dados, int epochs, int tamLote, boolean embaralhar){
+      int[] indices = aux.criarIndices(tamLote);
+      CarregadorLotes carregador = new CarregadorLotes(dados, tamLote, preCarregamento, epochs, aux, embaralhar);
+
+      lotesAcumulados = 0;
+      carregador.iniciar();
+      try{
+         for(int i = 0; i < epochs; i++){
+            iniciarEpoca();
+            CarregadorLotes.Lote lote;
+            while((lote = carregador.proximo()) != null){
+               treinarLote(rede, redec, perda, otimizador, lote.dados, indices, 0, lote.amostras);
+               carregador.liberar(lote);
+            }
+            atualizarAcumulado(redec, otimizador);
+            registrarEpoca(otimizador);
+         }
+
+      }finally{
+         carregador.encerrar();
+      }
+   }
+
+   /**
+    * Calcula os gradientes de um lote e atualiza os pesos da rede quando a
+    * quantidade de lotes acumulados for atingida.
+    * <p>
+    *    Com o histórico habilitado, a perda e os acertos do lote são calculados a partir
+    *    das saídas já obtidas para o cálculo dos gradientes, sem uma nova passagem
+    *    pelos dados.
+    * </p>
+    * @param rede instância da rede.
+    * @param redec Rede Neural em formato de lista de camadas.
+    * @param perda função de perda usada para calcular os erros da rede.
+    * @param otimizador otimizador configurado da rede.
+    * @param dados conjunto de dados com acesso aleatório.
+    * @param indices ordem de acesso das amostras.
+    * @param inicio índice da primeira amostra do lote.
+    * @param fim índice final (exclusivo) do lote.
+    */
+   private void treinarLote(RedeNeural rede, Camada[] redec, Perda perda, Otimizador otimizador, ConjuntoDados dados, int[] indices, int inicio, int fim){
+      int amostras = fim - inicio;
+
+      //reiniciar gradiente do lote, ou manter o dos lotes anteriores na acumulação
+      if(lotesAcumulados == 0){
+         zerarGradientesAcumulados(redec);
+         amostrasAcumuladas = 0;
+      }
+      double perdaLote = 0;
+      int acertosLote = 0;
+      if(pool != null && amostras > 1){
+         int trabalhadores = calcularGradientesParalelo(perda, dados, indices, inicio, fim);
+         for(int t = 0; t < trabalhadores; t++){
+            perdaLote += tarefas[t].perdaTotal;
+            acertosLote += tarefas[t].acertos;
+         }
+
+      }else{
+         for(int k = inicio; k < fim; k++){
+            double[] saida = dados.obterSaida(indices[k], bufferSaida);
+            rede.calcularSaida(dados.obterEntrada(indices[k], bufferEntrada));
+            if(calcularPerda){
+               double[] previsto = rede.obterSaidas();
+               perdaLote += perda.calcular(previsto, saida);
+               if(aux.acerto(previsto, saida)) acertosLote++;
+            }
+            backpropagationLote(redec, perda, saida);
+         }
+      }
+
+      //feedback de avanço da rede
+      if(calcularPerda){
+         perdaEpoca += perdaLote;
+         acertosEpoca += acertosLote;
+         amostrasEpoca += amostras;
+         if(calcularHistorico && calcularHistoricoLotes) historicoLotes.adicionar(perdaLote / amostras);
+      }
+
+      lotesAcumulados++;
+      amostrasAcumuladas += amostras;
+      if(lotesAcumulados == acumulacao){
+         atualizarAcumulado(redec, otimizador);
+      }
+   }
+
+   /**
+    * Atualiza os pesos da rede com a média dos gradientes acumulados desde a
+    * última atualização, caso exista algum lote acumulado.
+    * @param redec Rede Neural em formato de lista de camadas.
+    * @param otimizador otimizador configurado da rede.
+    */
+   private void atualizarAcumulado(Camada[] redec, Otimizador otimizador){
+      if(lotesAcumulados == 0){
+         return;
+      }
+
+      //normalizar gradientes para enviar pro otimizador
+      calcularMediaGradientesLote(redec, amostrasAcumuladas);
+      otimizador.atualizar(redec);
+      lotesAcumulados = 0;
+   }
+
+   /**
+    * Prepara as réplicas das camadas e as tarefas usadas no treino paralelo,
+    * reaproveitando as existentes caso ainda correspondam à rede.
+    * @param redec Rede Neural em formato de lista de camadas.
+    */
+   private void prepararParalelismo(Camada[] redec){
+      int trabalhadores = Math.max(1, pool.getParallelism());
+      Camada[][] atuais = aux.prepararReplicas(replicas, redec, trabalhadores);
+      if(atuais == replicas){
+         return;
+      }
+
+      replicas = atuais;
+      tarefas = new TarefaLote[trabalhadores];
+      for(int i = 0; i < trabalhadores; i++){
+         tarefas[i] = new TarefaLote(replicas[i], i > 0);//a rede já é zerada antes de cada lote
+      }
+      raiz = new GrupoTarefas(tarefas);
+   }
+
+   /**
+    * Calcula os gradientes acumulados do lote dividindo suas amostras entre as
+    * threads do pool configurado.
+    * <p>
+    *    As amostras são divididas em faixas contíguas fixas, uma por réplica, e os
+    *    gradientes de cada faixa são combinados por uma redução em árvore sempre na
+    *    mesma ordem, então o resultado não depende do escalonamento das threads.
+    *    O gradiente final fica acumulado nas camadas da própria rede.
+    * </p>
+    * @param perda função de perda usada para calcular os gradientes.
+    * @param dados conjunto de dados com acesso aleatório.
+    * @param indices ordem de acesso das amostras.
+    * @param inicio índice da primeira amostra do lote.
+    * @param fim índice final (exclusivo) do lote.
+    * @return quantidade de tarefas usadas no lote.
+    */
+   private int calcularGradientesParalelo(Perda perda, ConjuntoDados dados, int[] indices, int inicio, int fim){
+      int amostras = fim - inicio;
+      int trabalhadores = Math.min(tarefas.length, amostras);
+
+      for(int t = 0; t < trabalhadores; t++){
+         tarefas[t].preparar(
+            perda,
+            dados,
+            indices,
+            inicio + (int)((long) amostras * t / trabalhadores),
+            inicio + (int)((long) amostras * (t+1) / trabalhadores)
+         );
+      }
+
+      raiz.preparar(trabalhadores);
+      pool.invoke(raiz);
+
+      reduzirGradientes(replicas, trabalhadores);
+
+      return trabalhadores;
+   }
+
+   /**
+    * Alimenta os dados de entrada pelo conjunto de camadas fornecido.
+    * @param camadas conjunto de camadas.
+    * @param entrada dados de entrada.
+    */
+   private void propagar(Camada[] camadas, double[] entrada){
+      camadas[0].calcularSaida(entrada);
+      for(int i = 1; i < camadas.length; i++){
+         camadas[i].calcularSaida(camadas[i-1].obterSaida());
+      }
+   }
+
+   /**
+    * Soma os gradientes acumulados de cada réplica no primeiro conjunto de camadas
+    * usando uma redução em árvore.
+    * <pre>
+    * passo 1: r0 += r1, r2 += r3, r4 += r5 ...
+    * passo 2: r0 += r2, r4 += r6 ...
+    * passo 4: r0 += r4 ...
+    * </pre>
+    * @param replicas conjuntos de camadas de cada thread.
+    * @param trabalhadores quantidade de conjuntos usados no lote.
+    */
+   private void reduzirGradientes(Camada[][] replicas, int trabalhadores){
+      for(int passo = 1; passo < trabalhadores; passo *= 2){
+         for(int t = 0; t + passo < trabalhadores; t += 2*passo){
+            Camada[] destino = replicas[t];
+            Camada[] origem = replicas[t + passo];
+            for(int i = 0; i < destino.length; i++){
+               double[] gp = origem[i].gradAcumuladoPesos;
+               double[] gb = origem[i].gradAcumuladoBias;
+               AlgebraLinear.axpy(gp.length, 1, gp, 0, destino[i].gradAcumuladoPesos, 0);
+               AlgebraLinear.axpy(gb.length, 1, gb, 0, destino[i].gradAcumuladoBias, 0);
+            }
          }
       }
    }
@@ -120,13 +493,12 @@ class TreinoLote{
     * @param redec Rede Neural em formato de array de camadas.
     */
    void zerarGradientesAcumulados(Camada[] redec){
-      for(int i = 0; i < redec.length; i++){ 
-         for(int j = 0; j < redec[i].quantidadeNeuronios(); j++){
-            
-            Neuronio neuronio = redec[i].neuronio(j);
-            for(int k = 0; k < neuronio.gradientesAcumulados.length; k++){
-               neuronio.gradientesAcumulados[k] = 0;
-            }
+      for(Camada camada : redec){
+         for(int i = 0; i < camada.gradAcumuladoPesos.length; i++){
+            camada.gradAcumuladoPesos[i] = 0;
+         }
+         for(int i = 0; i < camada.gradAcumuladoBias.length; i++){
+            camada.gradAcumuladoBias[i] = 0;
          }
       }
    }
@@ -138,14 +510,15 @@ class TreinoLote{
     * @param taxaAprendizagem valor de taxa de aprendizagem da rede neural.
     */
    private void calcularGradientesAcumulados(Camada[] redec){
-      for(int i = 0; i < redec.length; i++){ 
-         for(int j = 0; j < redec[i].quantidadeNeuronios(); j++){
-            
-            Neuronio neuronio = redec[i].neuronio(j);
-            for(int k = 0; k < neuronio.pesos.length; k++){
-               neuronio.gradientes[k] = -neuronio.gradiente * neuronio.entradas[k];
-               neuronio.gradientesAcumulados[k] += neuronio.gradientes[k];
-            }
+      for(Camada camada : redec){
+         //gradiente dos pesos como produto externo entre o gradiente local e a entrada
+         int tamEntrada = camada.entrada.length;
+         AlgebraLinear.ger(
+            camada.gradiente.length, tamEntrada, -1, camada.gradiente, 0, camada.entrada, 0, camada.gradAcumuladoPesos, 0, tamEntrada
+         );
+         for(int i = 0; i < camada.gradBias.length; i++){
+            camada.gradBias[i] = -camada.gradiente[i];
+            camada.gradAcumuladoBias[i] += camada.gradBias[i];
          }
       }
    }
@@ -156,13 +529,72 @@ class TreinoLote{
     * @param tamLote tamanho do lote.
     */
    private void calcularMediaGradientesLote(Camada[] redec, int tamLote){
-      for(int i = 0; i < redec.length; i++){
-         for(int j = 0; j < redec[i].quantidadeNeuronios(); j++){
+      for(Camada camada : redec){
+         for(int i = 0; i < camada.gradPesos.length; i++){
+            camada.gradPesos[i] = camada.gradAcumuladoPesos[i] / tamLote;
+         }
+         for(int i = 0; i < camada.gradBias.length; i++){
+            camada.gradBias[i] = camada.gradAcumuladoBias[i] / tamLote;
+         }
+      }
+   }
+
+   /**
+    * Tarefa de uma thread do treino paralelo, calcula os gradientes acumulados
+    * de uma faixa de amostras do lote usando seu próprio conjunto de camadas.
+    */
+   private class TarefaLote extends RecursiveAction{
+      private static final long serialVersionUID = 1L;
+      private final Camada[] camadas;
+      private final boolean zerar;
+      private Perda perda;
+      private ConjuntoDados dados;
+      private int[] indices;
+      private final double[] bufferEntrada;
+      private final double[] bufferSaida;
+      private int inicio;
+      private int fim;
+
+      /**
+       * Soma das perdas e quantidade de acertos da faixa no último lote.
+       */
+      double perdaTotal;
+      int acertos;
+
+      TarefaLote(Camada[] camadas, boolean zerar){
+         this.camadas = camadas;
+         this.zerar = zerar;
+         this.bufferEntrada = new double[camadas[0].tamanhoEntrada()];
+         this.bufferSaida = new double[camadas[camadas.length-1].quantidadeNeuronios()];
+      }
+
+      /**
+       * Configura a faixa de amostras da tarefa para o próximo lote.
+       */
+      void preparar(Perda perda, ConjuntoDados dados, int[] indices, int inicio, int fim){
+         this.perda = perda;
+         this.dados = dados;
+         this.indices = indices;
+         this.inicio = inicio;
+         this.fim = fim;
+         reinitialize();
+      }
+
+      @Override
+      protected void compute(){
+         if(zerar) zerarGradientesAcumulados(camadas);
+         Camada ultima = camadas[camadas.length-1];
 
-            Neuronio neuronio = redec[i].neuronio(j);
-            for(int k = 0; k < neuronio.gradientes.length; k++){
-               neuronio.gradientes[k] = neuronio.gradientesAcumulados[k] / tamLote;
+         perdaTotal = 0;
+         acertos = 0;
+         for(int k = inicio; k < fim; k++){
+            double[] saida = dados.obterSaida(indices[k], bufferSaida);
+            propagar(camadas, dados.obterEntrada(indices[k], bufferEntrada));
+            if(calcularPerda){
+               perdaTotal += perda.calcular(ultima.obterSaida(), saida);
+               if(aux.acerto(ultima.obterSaida(), saida)) acertos++;
             }
+            backpropagationLote(camadas, perda, saida);
          }
       }
    }
@@ -0,0 +1,511 @@
+package rna.matematica;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementação das operações vetoriais usando a API de vetores do Java.
+ * <p>
+ *    Essa é a única classe que depende do módulo {@code jdk.incubator.vector}, por isso
+ *    ela fica fora das fontes principais da biblioteca, na pasta {@code simd}, e é
+ *    compilada separadamente, junto com as classes já compiladas da biblioteca:
+ * </p>
+ * <pre>
+ *javac -d out $(find rna -name "*.java")
+ *javac --add-modules jdk.incubator.vector -cp out -d out simd/rna/matematica/OperacoesVector.java
+ * </pre>
+ * <p>
+ *    A classe é carregada por reflexão em {@link OperacoesSimd} apenas quando está
+ *    presente no classpath e o módulo está disponível na execução.
+ * </p>
+ * Cada operação processa a maior parte dos dados com vetores do tamanho preferido
+ * pela CPU (AVX2, AVX-512, ...) e termina os elementos restantes de forma escalar.
+ */
+final class OperacoesVector extends OperacoesSimd{
+
+   /**
+    * Formato de vetor preferido pela plataforma.
+    */
+   private static final VectorSpecies<Double> ESPECIE = DoubleVector.SPECIES_PREFERRED;
+
+   /**
+    * Quantidade de elementos por vetor.
+    */
+   private static final int L = ESPECIE.length();
+
+   /**
+    * Instancia o backend vetorial.
+    */
+   OperacoesVector(){}
+
+   @Override
+   public int largura(){
+      return L;
+   }
+
+   // ---------------- álgebra linear ----------------
+
+   @Override
+   public double produtoInterno(int n, double[] x, int offX, double[] y, int offY){
+      DoubleVector ac0 = DoubleVector.zero(ESPECIE);
+      DoubleVector ac1 = DoubleVector.zero(ESPECIE);
+
+      //dois acumuladores para esconder a latência do fma
+      int i = 0;
+      int limite = ESPECIE.loopBound(n);
+      for(; i + L < limite; i += 2*L){
+         ac0 = DoubleVector.fromArray(ESPECIE, x, offX + i).fma(DoubleVector.fromArray(ESPECIE, y, offY + i), ac0);
+         ac1 = DoubleVector.fromArray(ESPECIE, x, offX + i + L).fma(DoubleVector.fromArray(ESPECIE, y, offY + i + L), ac1);
+      }
+      for(; i < limite; i += L){
+         ac0 = DoubleVector.fromArray(ESPECIE, x, offX + i).fma(DoubleVector.fromArray(ESPECIE, y, offY + i), ac0);
+      }
+
+      double soma = ac0.add(ac1).reduceLanes(VectorOperators.ADD);
+      for(; i < n; i++){
+         soma += x[offX + i] * y[offY + i];
+      }
+
+      return soma;
+   }
+
+   @Override
+   public void axpy(int n, double alfa, double[] x, int offX, double[] y, int offY){
+      DoubleVector va = DoubleVector.broadcast(ESPECIE, alfa);
+
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vx = DoubleVector.fromArray(ESPECIE, x, offX + i);
+         DoubleVector vy = DoubleVector.fromArray(ESPECIE, y, offY + i);
+         vx.fma(va, vy).intoArray(y, offY + i);
+      }
+      for(; i < n; i++){
+         y[offY + i] += alfa * x[offX + i];
+      }
+   }
+
+   @Override
+   public void escalar(int n, double alfa, double[] x, int offX, double[] y, int offY){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector.fromArray(ESPECIE, x, offX + i).mul(alfa).intoArray(y, offY + i);
+      }
+      for(; i < n; i++){
+         y[offY + i] = alfa * x[offX + i];
+      }
+   }
+
+   @Override
+   public void gemv(int m, int n, double[] a, int offA, int lda, double[] x, int offX, double[] y, int offY){
+      for(int i = 0; i < m; i++){
+         y[offY + i] = produtoInterno(n, a, offA + i*lda, x, offX);
+      }
+   }
+
+   @Override
+   public void gemvT(int m, int n, double[] a, int offA, int lda, double[] x, int offX, double[] y, int offY){
+      for(int j = 0; j < n; j++){
+         y[offY + j] = 0;
+      }
+      for(int i = 0; i < m; i++){
+         axpy(n, x[offX + i], a, offA + i*lda, y, offY);
+      }
+   }
+
+   @Override
+   public void gemmNT(int m, int n, int k, double[] a, int offA, int lda, double[] b, int offB, int ldb, double[] c, int offC, int ldc){
+      //bloco de linhas de B reaproveitado por todas as linhas de A
+      for(int j0 = 0; j0 < n; j0 += AlgebraLinear.BLOCO_N){
+         int j1 = Math.min(n, j0 + AlgebraLinear.BLOCO_N);
+         for(int i = 0; i < m; i++){
+            int la = offA + i*lda;
+            int lc = offC + i*ldc;
+            for(int j = j0; j < j1; j++){
+               c[lc + j] = produtoInterno(k, a, la, b, offB + j*ldb);
+            }
+         }
+      }
+   }
+
+   // ---------------- otimizadores ----------------
+
+   @Override
+   public void gd(double[] p, double[] g, int off, int n, double tA){
+      DoubleVector vtA = DoubleVector.broadcast(ESPECIE, -tA);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector vp = DoubleVector.fromArray(ESPECIE, p, off + i);
+         vg.fma(vtA, vp).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         p[off + i] -= g[off + i] * tA;
+      }
+   }
+
+   @Override
+   public void gdm(double[] p, double[] g, int off, int n, double[] m, int id, double tA, double tM){
+      DoubleVector vtA = DoubleVector.broadcast(ESPECIE, tA);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector vm = DoubleVector.fromArray(ESPECIE, m, id + i);
+         vm = vg.fma(vtA, vm.mul(tM));
+         vm.intoArray(m, id + i);
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(vm).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         m[id + i] = (g[off + i] * tA) + (tM * m[id + i]);
+         p[off + i] -= m[id + i];
+      }
+   }
+
+   @Override
+   public void sgd(double[] p, double[] g, int off, int n, double[] m, int id, double tA, double momentum, boolean nesterov){
+      DoubleVector vM = DoubleVector.broadcast(ESPECIE, momentum);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i).mul(tA);
+         DoubleVector vm = DoubleVector.fromArray(ESPECIE, m, id + i).fma(vM, vg);
+         vm.intoArray(m, id + i);
+         DoubleVector delta = nesterov ? vm.fma(vM, vg) : vm;
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(delta).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         m[id + i] = (momentum * m[id + i]) + (g[off + i] * tA);
+         if(nesterov){
+            p[off + i] -= (g[off + i] * tA) + (momentum * m[id + i]);
+         }else{
+            p[off + i] -= m[id + i];
+         }
+      }
+   }
+
+   @Override
+   public void adagrad(double[] p, double[] g, int off, int n, double[] ac, int id, double tA, double eps){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector va = vg.fma(vg, DoubleVector.fromArray(ESPECIE, ac, id + i));
+         va.intoArray(ac, id + i);
+         DoubleVector delta = vg.mul(tA).div(va.add(eps).lanewise(VectorOperators.SQRT));
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(delta).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         ac[id + i] += (g[off + i] * g[off + i]);
+         p[off + i] -= (tA * g[off + i]) / (Math.sqrt(ac[id + i] + eps));
+      }
+   }
+
+   @Override
+   public void rmsprop(double[] p, double[] g, int off, int n, double[] ac, int id, double tA, double rho, double eps){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector va = DoubleVector.fromArray(ESPECIE, ac, id + i).mul(rho).add(vg.mul(vg).mul(1 - rho));
+         va.intoArray(ac, id + i);
+         DoubleVector delta = vg.mul(tA).div(va.add(eps).lanewise(VectorOperators.SQRT));
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(delta).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         ac[id + i] = (rho * ac[id + i]) + (1 - rho) * (g[off + i] * g[off + i]);
+         p[off + i] -= (tA * g[off + i]) / (Math.sqrt(ac[id + i] + eps));
+      }
+   }
+
+   @Override
+   public void adadelta(double[] p, double[] g, int off, int n, double[] acG, double[] acA, int id, double tA, double rho, double eps){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector vag = DoubleVector.fromArray(ESPECIE, acG, id + i).mul(rho).add(vg.mul(vg).mul(1 - rho));
+         vag.intoArray(acG, id + i);
+         DoubleVector vaa = DoubleVector.fromArray(ESPECIE, acA, id + i);
+         DoubleVector delta = vaa.add(eps).lanewise(VectorOperators.SQRT)
+            .div(vag.add(eps).lanewise(VectorOperators.SQRT))
+            .mul(vg);
+         vaa.mul(rho).add(delta.mul(delta).mul(1 - rho)).intoArray(acA, id + i);
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(delta.mul(tA)).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         acG[id + i] = (rho * acG[id + i]) + ((1 - rho) * (g[off + i] * g[off + i]));
+         double delta = Math.sqrt(acA[id + i] + eps) / Math.sqrt(acG[id + i] + eps) * g[off + i];
+         acA[id + i] = (rho * acA[id + i]) + ((1 - rho) * (delta*delta));
+         p[off + i] -= tA * delta;
+      }
+   }
+
+   @Override
+   public void adam(double[] p, double[] g, int off, int n, double[] m, double[] v, int id, double alfa, double b1, double b2, double eps){
+      DoubleVector vB1 = DoubleVector.broadcast(ESPECIE, 1 - b1);
+      DoubleVector vB2 = DoubleVector.broadcast(ESPECIE, 1 - b2);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector vm = DoubleVector.fromArray(ESPECIE, m, id + i);
+         DoubleVector vv = DoubleVector.fromArray(ESPECIE, v, id + i);
+         vm = vg.sub(vm).fma(vB1, vm);
+         vv = vg.mul(vg).sub(vv).fma(vB2, vv);
+         vm.intoArray(m, id + i);
+         vv.intoArray(v, id + i);
+         DoubleVector delta = vm.mul(alfa).div(vv.lanewise(VectorOperators.SQRT).add(eps));
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(delta).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         m[id + i] += (1 - b1) * (g[off + i] - m[id + i]);
+         v[id + i] += (1 - b2) * ((g[off + i] * g[off + i]) - v[id + i]);
+         p[off + i] -= (alfa * m[id + i]) / (Math.sqrt(v[id + i]) + eps);
+      }
+   }
+
+   @Override
+   public void adamax(double[] p, double[] g, int off, int n, double[] m, double[] v, int id, double tA, double b1, double b2, double eps, double forcaB1){
+      double correcao = 1 - forcaB1;
+      DoubleVector vB1 = DoubleVector.broadcast(ESPECIE, 1 - b1);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector vm = DoubleVector.fromArray(ESPECIE, m, id + i);
+         vm = vg.sub(vm).fma(vB1, vm);
+         DoubleVector vv = DoubleVector.fromArray(ESPECIE, v, id + i).mul(b2).max(vg.abs());
+         vm.intoArray(m, id + i);
+         vv.intoArray(v, id + i);
+         DoubleVector delta = vm.mul(tA).div(vv.add(eps).mul(correcao));
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(delta).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         m[id + i] += (g[off + i] - m[id + i]) * (1 - b1);
+         v[id + i] = Math.max(b2 * v[id + i], Math.abs(g[off + i]));
+         p[off + i] -= tA * m[id + i] / (correcao * (v[id + i] + eps));
+      }
+   }
+
+   @Override
+   public void amsgrad(double[] p, double[] g, int off, int n, double[] m, double[] v, double[] vc, int id, double tA, double b1, double b2, double eps, double forcaB1, double forcaB2){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector vm = DoubleVector.fromArray(ESPECIE, m, id + i).mul(b1).add(vg.mul(1 - b1));
+         DoubleVector vv = DoubleVector.fromArray(ESPECIE, v, id + i).mul(b2).add(vg.mul(vg).mul(1 - b2));
+         DoubleVector vvc = DoubleVector.fromArray(ESPECIE, vc, id + i).max(vv);
+         vm.intoArray(m, id + i);
+         vv.intoArray(v, id + i);
+         vvc.intoArray(vc, id + i);
+         DoubleVector mChapeu = vm.div(forcaB1);
+         DoubleVector vChapeu = vvc.div(forcaB2);
+         DoubleVector delta = mChapeu.mul(tA).div(vChapeu.lanewise(VectorOperators.SQRT).add(eps));
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(delta).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         m[id + i] = (b1 * m[id + i]) + ((1 - b1) * g[off + i]);
+         v[id + i] = (b2 * v[id + i]) + ((1 - b2) * g[off + i] * g[off + i]);
+         vc[id + i] = Math.max(vc[id + i], v[id + i]);
+         double mChapeu = m[id + i] / forcaB1;
+         double vChapeu = vc[id + i] / forcaB2;
+         p[off + i] -= (tA * mChapeu) / (Math.sqrt(vChapeu) + eps);
+      }
+   }
+
+   @Override
+   public void nadam(double[] p, double[] g, int off, int n, double[] m, double[] v, int id, double tA, double b1, double b2, double eps, double forcaB1, double forcaB2){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector vm = DoubleVector.fromArray(ESPECIE, m, id + i).mul(b1).add(vg.mul(1 - b1));
+         DoubleVector vv = DoubleVector.fromArray(ESPECIE, v, id + i).mul(b2).add(vg.mul(vg).mul(1 - b2));
+         vm.intoArray(m, id + i);
+         vv.intoArray(v, id + i);
+         DoubleVector mChapeu = vm.mul(b1).add(vg.mul(1 - b1)).div(forcaB1);
+         DoubleVector vChapeu = vv.mul(b2).div(forcaB2);
+         DoubleVector delta = mChapeu.mul(tA).div(vChapeu.lanewise(VectorOperators.SQRT).add(eps));
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(delta).intoArray(p, off + i);
+      }
+      for(; i < n; i++){
+         m[id + i] = (b1 * m[id + i]) + ((1 - b1) * g[off + i]);
+         v[id + i] = (b2 * v[id + i]) + ((1 - b2) * (g[off + i] * g[off + i]));
+         double mChapeu = (b1 * m[id + i] + ((1 - b1) * g[off + i])) / forcaB1;
+         double vChapeu = (b2 * v[id + i]) / forcaB2;
+         p[off + i] -= (tA * mChapeu) / (Math.sqrt(vChapeu) + eps);
+      }
+   }
+
+   @Override
+   public void lion(double[] p, double[] g, int off, int n, double[] m, int id, double tA, double b1, double b2){
+      DoubleVector um = DoubleVector.broadcast(ESPECIE, 1);
+      DoubleVector menosUm = DoubleVector.broadcast(ESPECIE, -1);
+      DoubleVector zero = DoubleVector.zero(ESPECIE);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vg = DoubleVector.fromArray(ESPECIE, g, off + i);
+         DoubleVector vm = DoubleVector.fromArray(ESPECIE, m, id + i);
+         DoubleVector c = vm.mul(b1).add(vg.mul(1 - b1));
+
+         //sinal, preservando zeros e NaN como Math.signum
+         DoubleVector sinal = zero.blend(um, c.compare(VectorOperators.GT, 0))
+            .blend(menosUm, c.compare(VectorOperators.LT, 0))
+            .blend(c, c.test(VectorOperators.IS_NAN));
+
+         DoubleVector.fromArray(ESPECIE, p, off + i).sub(sinal.mul(tA)).intoArray(p, off + i);
+         vm.mul(b2).add(vg.mul(1 - b2)).intoArray(m, id + i);
+      }
+      for(; i < n; i++){
+         p[off + i] -= tA * Math.signum((m[id + i] * b1) + (g[off + i] * (1 - b1)));
+         m[id + i] = (m[id + i] * b2) + (g[off + i] * (1 - b2));
+      }
+   }
+
+   // ---------------- ativações ----------------
+
+   @Override
+   public void relu(double[] x, double[] saida, int n){
+      DoubleVector zero = DoubleVector.zero(ESPECIE);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vx = DoubleVector.fromArray(ESPECIE, x, i);
+         zero.blend(vx, vx.compare(VectorOperators.GT, 0)).intoArray(saida, i);
+      }
+      for(; i < n; i++){
+         saida[i] = (x[i] > 0) ? x[i] : 0;
+      }
+   }
+
+   @Override
+   public void reluDerivada(double[] x, double[] derivada, int n){
+      DoubleVector zero = DoubleVector.zero(ESPECIE);
+      DoubleVector um = DoubleVector.broadcast(ESPECIE, 1);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         VectorMask<Double> positivo = DoubleVector.fromArray(ESPECIE, x, i).compare(VectorOperators.GT, 0);
+         zero.blend(um, positivo).intoArray(derivada, i);
+      }
+      for(; i < n; i++){
+         derivada[i] = (x[i] > 0) ? 1 : 0;
+      }
+   }
+
+   @Override
+   public void leakyRelu(double[] x, double[] saida, int n, double alfa){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vx = DoubleVector.fromArray(ESPECIE, x, i);
+         vx.mul(alfa).blend(vx, vx.compare(VectorOperators.GT, 0)).intoArray(saida, i);
+      }
+      for(; i < n; i++){
+         saida[i] = (x[i] > 0) ? x[i] : alfa * x[i];
+      }
+   }
+
+   @Override
+   public void leakyReluDerivada(double[] x, double[] derivada, int n, double alfa){
+      DoubleVector va = DoubleVector.broadcast(ESPECIE, alfa);
+      DoubleVector um = DoubleVector.broadcast(ESPECIE, 1);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         VectorMask<Double> positivo = DoubleVector.fromArray(ESPECIE, x, i).compare(VectorOperators.GT, 0);
+         va.blend(um, positivo).intoArray(derivada, i);
+      }
+      for(; i < n; i++){
+         derivada[i] = (x[i] > 0) ? 1 : alfa;
+      }
+   }
+
+   @Override
+   public void elu(double[] x, double[] saida, int n, double alfa){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vx = DoubleVector.fromArray(ESPECIE, x, i);
+         DoubleVector negativo = vx.lanewise(VectorOperators.EXP).sub(1).mul(alfa);
+         negativo.blend(vx, vx.compare(VectorOperators.GT, 0)).intoArray(saida, i);
+      }
+      for(; i < n; i++){
+         saida[i] = (x[i] > 0) ? x[i] : alfa * (Math.exp(x[i]) - 1);
+      }
+   }
+
+   @Override
+   public void sigmoid(double[] x, double[] saida, int n){
+      DoubleVector um = DoubleVector.broadcast(ESPECIE, 1);
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vx = DoubleVector.fromArray(ESPECIE, x, i);
+         um.div(vx.neg().lanewise(VectorOperators.EXP).add(1)).intoArray(saida, i);
+      }
+      for(; i < n; i++){
+         saida[i] = 1 / (1 + Math.exp(-x[i]));
+      }
+   }
+
+   @Override
+   public void sigmoidDerivada(double[] saida, double[] derivada, int n){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vs = DoubleVector.fromArray(ESPECIE, saida, i);
+         vs.mul(vs.neg().add(1)).intoArray(derivada, i);
+      }
+      for(; i < n; i++){
+         derivada[i] = saida[i] * (1 - saida[i]);
+      }
+   }
+
+   @Override
+   public void tanh(double[] x, double[] saida, int n){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector.fromArray(ESPECIE, x, i).lanewise(VectorOperators.TANH).intoArray(saida, i);
+      }
+      for(; i < n; i++){
+         saida[i] = Math.tanh(x[i]);
+      }
+   }
+
+   @Override
+   public void tanhDerivada(double[] saida, double[] derivada, int n){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vs = DoubleVector.fromArray(ESPECIE, saida, i);
+         vs.mul(vs).neg().add(1).intoArray(derivada, i);
+      }
+      for(; i < n; i++){
+         derivada[i] = 1 - (saida[i] * saida[i]);
+      }
+   }
+
+   @Override
+   public void swish(double[] x, double[] saida, int n){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector vx = DoubleVector.fromArray(ESPECIE, x, i);
+         vx.div(vx.neg().lanewise(VectorOperators.EXP).add(1)).intoArray(saida, i);
+      }
+      for(; i < n; i++){
+         saida[i] = x[i] / (1 + Math.exp(-x[i]));
+      }
+   }
+
+   @Override
+   public void softplus(double[] x, double[] saida, int n){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector.fromArray(ESPECIE, x, i)
+            .lanewise(VectorOperators.EXP)
+            .lanewise(VectorOperators.LOG1P)
+            .intoArray(saida, i);
+      }
+      for(; i < n; i++){
+         saida[i] = Math.log(1 + Math.exp(x[i]));
+      }
+   }
+
+   @Override
+   public void seno(double[] x, double[] saida, int n){
+      int i = 0;
+      for(int limite = ESPECIE.loopBound(n); i < limite; i += L){
+         DoubleVector.fromArray(ESPECIE, x, i).lanewise(VectorOperators.SIN).intoArray(saida, i);
+      }
+      for(; i < n; i++){
+         saida[i] = Math.sin(x[i]);
+      }
+   }
+}
@@ -0,0 +1,93 @@
+package testes;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import rna.matematica.Aproximacoes;
+
+/**
+ * Medição de desempenho das funções de {@code Aproximacoes} em relação à
+ * {@code java.lang.Math}.
+ * <p>
+ *    Cada função é aplicada num array de entradas aleatórias entre {@code -10} e
+ *    {@code 10}, com uma fase de aquecimento para o JIT antes das medições. O tempo
+ *    informado é a mediana das rodadas, em nanossegundos por elemento.
+ * </p>
+ * Execução:
+ * <pre>
+ *java -cp out testes.BenchAproximacoes [elementos] [rodadas]
+ * </pre>
+ */
+public class BenchAproximacoes{
+
+   /**
+    * Evita que o JIT elimine os cálculos medidos.
+    */
+   static double consumidor = 0;
+
+   public static void main(String[] args){
+      int n = (args.length > 0) ? Integer.parseInt(args[0]) : 1 << 16;
+      int rodadas = (args.length > 1) ? Integer.parseInt(args[1]) : 200;
+
+      SplittableRandom random = new SplittableRandom(42);
+      double[] x = new double[n];
+      for(int i = 0; i < n; i++){
+         x[i] = random.nextDouble(-10, 10);
+      }
+      double[] y = new double[n];
+
+      System.out.println("elementos: " + n + ", rodadas: " + rodadas);
+      comparar("exp", x, y, rodadas,
+         (e, s) -> { for(int i = 0; i < e.length; i++) s[i] = Math.exp(e[i]); },
+         (e, s) -> { for(int i = 0; i < e.length; i++) s[i] = Aproximacoes.exp(e[i]); }
+      );
+      comparar("tanh", x, y, rodadas,
+         (e, s) -> { for(int i = 0; i < e.length; i++) s[i] = Math.tanh(e[i]); },
+         (e, s) -> { for(int i = 0; i < e.length; i++) s[i] = Aproximacoes.tanh(e[i]); }
+      );
+      comparar("sigmoid", x, y, rodadas,
+         (e, s) -> { for(int i = 0; i < e.length; i++) s[i] = 1 / (1 + Math.exp(-e[i])); },
+         (e, s) -> { for(int i = 0; i < e.length; i++) s[i] = Aproximacoes.sigmoid(e[i]); }
+      );
+
+      if(consumidor == 42) System.out.println();
+   }
+
+   /**
+    * Mede as versões exata e aproximada de uma função e imprime a comparação.
+    */
+   static void comparar(String nome, double[] x, double[] y, int rodadas, Funcao exata, Funcao aproximada){
+      //aquecimento das duas versões
+      medir(exata, x, y, rodadas);
+      medir(aproximada, x, y, rodadas);
+
+      double tExata = medir(exata, x, y, rodadas);
+      double tAprox = medir(aproximada, x, y, rodadas);
+
+      System.out.printf(
+         "%-8s Math: %6.2f ns/elem   Aproximacoes: %6.2f ns/elem   aceleração: %.1fx%n",
+         nome, tExata, tAprox, tExata / tAprox
+      );
+   }
+
+   /**
+    * Executa a função nas rodadas fornecidas.
+    * @return mediana do tempo por elemento, em nanossegundos.
+    */
+   static double medir(Funcao f, double[] x, double[] y, int rodadas){
+      long[] tempos = new long[rodadas];
+      for(int r = 0; r < rodadas; r++){
+         long t = System.nanoTime();
+         f.aplicar(x, y);
+         tempos[r] = System.nanoTime() - t;
+         consumidor += y[r % y.length];
+      }
+
+      Arrays.sort(tempos);
+      return (double) tempos[rodadas / 2] / x.length;
+   }
+
+   interface Funcao{
+      void aplicar(double[] entrada, double[] saida);
+   }
+}
@@ -0,0 +1,203 @@
+package testes;
+
+import java.util.SplittableRandom;
+
+import rna.matematica.AlgebraLinear;
+import rna.matematica.OperacoesSimd;
+
+/**
+ * Verificação dos núcleos de {@code AlgebraLinear} contra os loops ingênuos.
+ * <p>
+ *    Cada núcleo é executado com dimensões ímpares, dimensões maiores que os blocos
+ *    internos, deslocamentos iniciais diferentes de zero e passos entre linhas maiores
+ *    que a quantidade de colunas. Os elementos fora da região de saída são preenchidos
+ *    com um valor sentinela que não pode ser alterado.
+ * </p>
+ * <p>
+ *    O caminho escalar deve produzir resultados idênticos aos loops ingênuos. Quando a
+ *    API de vetores está disponível o caminho vetorial também é verificado, aceitando
+ *    a diferença de arredondamento das instruções FMA.
+ * </p>
+ * Execução:
+ * <pre>
+ *java -cp out testes.TesteAlgebraLinear
+ * </pre>
+ */
+public class TesteAlgebraLinear{
+
+   /**
+    * Valor escrito nas posições que os núcleos não devem alterar.
+    */
+   static final double SENTINELA = -12345.678;
+
+   /**
+    * Erro relativo aceito no caminho vetorial.
+    */
+   static final double TOLERANCIA_SIMD = 1e-12;
+
+   /**
+    * Dimensões testadas, incluindo valores que atravessam os blocos internos.
+    */
+   static final int[] DIMENSOES = {1, 3, 7, 17, 65, 300, 1031};
+
+   static SplittableRandom random = new SplittableRandom(42);
+   static int falhas = 0;
+   static int verificacoes = 0;
+
+   public static void main(String[] args){
+      OperacoesSimd.configurar(false);
+      testar("escalar", 0);
+
+      if(OperacoesSimd.disponivel()){
+         OperacoesSimd.configurar(true);
+         testar("vetorial", TOLERANCIA_SIMD);
+
+      }else{
+         System.out.println("vetorial: API de vetores indisponível, caminho não verificado");
+      }
+
+      System.out.println(verificacoes + " verificações, " + falhas + " falhas");
+      if(falhas > 0){
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Executa todas as verificações no caminho ativo.
+    * @param caminho nome do caminho testado.
+    * @param tolerancia erro relativo aceito, zero para exigir resultados idênticos.
+    */
+   static void testar(String caminho, double tolerancia){
+      int antes = falhas;
+
+      for(int m : DIMENSOES){
+         for(int n : DIMENSOES){
+            if((long) m * n > 400_000) continue;
+            gemv(caminho, m, n, tolerancia);
+            gemvT(caminho, m, n, tolerancia);
+            ger(caminho, m, n, tolerancia);
+         }
+      }
+
+      int[] ks = {1, 5, 255, 257, 513};
+      for(int m : new int[]{1, 3, 7, 33}){
+         for(int n : new int[]{1, 5, 63, 65, 131}){
+            for(int k : ks){
+               gemmNT(caminho, m, n, k, tolerancia);
+            }
+         }
+      }
+
+      System.out.println(caminho + ": " + ((falhas == antes) ? "ok" : (falhas - antes) + " falhas"));
+   }
+
+   static void gemv(String caminho, int m, int n, double tol){
+      int offA = 3, lda = n + 2, offX = 5, offY = 7;
+      double[] a = aleatorio(offA + m*lda);
+      double[] x = aleatorio(offX + n + 1);
+      double[] y = sentinela(offY + m + 4);
+      double[] esperado = y.clone();
+
+      for(int i = 0; i < m; i++){
+         double s = 0;
+         for(int j = 0; j < n; j++){
+            s += a[offA + i*lda + j] * x[offX + j];
+         }
+         esperado[offY + i] = s;
+      }
+
+      AlgebraLinear.gemv(m, n, a, offA, lda, x, offX, y, offY);
+      comparar(caminho, "gemv m=" + m + " n=" + n, esperado, y, tol);
+   }
+
+   static void gemvT(String caminho, int m, int n, double tol){
+      int offA = 2, lda = n + 3, offX = 1, offY = 4;
+      double[] a = aleatorio(offA + m*lda);
+      double[] x = aleatorio(offX + m + 2);
+      double[] y = sentinela(offY + n + 3);
+      double[] esperado = y.clone();
+
+      for(int j = 0; j < n; j++){
+         double s = 0;
+         for(int i = 0; i < m; i++){
+            s += a[offA + i*lda + j] * x[offX + i];
+         }
+         esperado[offY + j] = s;
+      }
+
+      AlgebraLinear.gemvT(m, n, a, offA, lda, x, offX, y, offY);
+      comparar(caminho, "gemvT m=" + m + " n=" + n, esperado, y, tol);
+   }
+
+   static void gemmNT(String caminho, int m, int n, int k, double tol){
+      int offA = 1, lda = k + 1, offB = 6, ldb = k + 3, offC = 2, ldc = n + 5;
+      double[] a = aleatorio(offA + m*lda);
+      double[] b = aleatorio(offB + n*ldb);
+      double[] c = sentinela(offC + m*ldc);
+      double[] esperado = c.clone();
+
+      for(int i = 0; i < m; i++){
+         for(int j = 0; j < n; j++){
+            double s = 0;
+            for(int p = 0; p < k; p++){
+               s += a[offA + i*lda + p] * b[offB + j*ldb + p];
+            }
+            esperado[offC + i*ldc + j] = s;
+         }
+      }
+
+      AlgebraLinear.gemmNT(m, n, k, a, offA, lda, b, offB, ldb, c, offC, ldc);
+      comparar(caminho, "gemmNT m=" + m + " n=" + n + " k=" + k, esperado, c, tol);
+   }
+
+   static void ger(String caminho, int m, int n, double tol){
+      int offX = 3, offY = 2, offA = 5, lda = n + 4;
+      double alfa = -0.75;
+      double[] x = aleatorio(offX + m);
+      double[] y = aleatorio(offY + n + 1);
+      double[] a = aleatorio(offA + m*lda);
+      double[] esperado = a.clone();
+
+      for(int i = 0; i < m; i++){
+         for(int j = 0; j < n; j++){
+            esperado[offA + i*lda + j] += alfa * x[offX + i] * y[offY + j];
+         }
+      }
+
+      AlgebraLinear.ger(m, n, alfa, x, offX, y, offY, a, offA, lda);
+      comparar(caminho, "ger m=" + m + " n=" + n, esperado, a, tol);
+   }
+
+   /**
+    * Compara os resultados elemento a elemento, incluindo as posições sentinela.
+    */
+   static void comparar(String caminho, String nome, double[] esperado, double[] obtido, double tol){
+      verificacoes++;
+      for(int i = 0; i < esperado.length; i++){
+         double e = esperado[i], o = obtido[i];
+         boolean igual = (tol == 0 || e == SENTINELA) ?
+            Double.compare(e, o) == 0 :
+            Math.abs(e - o) <= tol * Math.max(1, Math.abs(e));
+
+         if(!igual){
+            falhas++;
+            System.out.println("FALHA " + caminho + " " + nome + " índice " + i + ": esperado " + e + ", obtido " + o);
+            return;
+         }
+      }
+   }
+
+   static double[] aleatorio(int n){
+      double[] a = new double[n];
+      for(int i = 0; i < n; i++){
+         a[i] = random.nextDouble(-1, 1);
+      }
+      return a;
+   }
+
+   static double[] sentinela(int n){
+      double[] a = new double[n];
+      java.util.Arrays.fill(a, SENTINELA);
+      return a;
+   }
+}
@@ -0,0 +1,196 @@
+package testes;
+
+import java.util.SplittableRandom;
+
+import rna.matematica.Aproximacoes;
+
+/**
+ * Verificação dos limites de erro de {@code Aproximacoes} em relação à
+ * {@code java.lang.Math}.
+ * <p>
+ *    As funções são avaliadas numa grade uniforme e em pontos aleatórios cobrindo toda
+ *    a faixa de entradas finitas, além das vizinhanças dos cortes ({@code ±708} na
+ *    exponencial e {@code ±20} na tangente hiperbólica) e dos valores especiais.
+ * </p>
+ * <ul>
+ *    <li>{@code exp}: erro relativo menor que {@code 1e-8}.</li>
+ *    <li>{@code tanh}: erro absoluto menor que {@code 1e-8}.</li>
+ *    <li>{@code sigmoid}: erro absoluto menor que {@code 5e-9}.</li>
+ * </ul>
+ * Execução:
+ * <pre>
+ *java -cp out testes.TesteAproximacoes
+ * </pre>
+ */
+public class TesteAproximacoes{
+
+   static final double LIMITE_EXP = 1e-8;
+   static final double LIMITE_TANH = 1e-8;
+   static final double LIMITE_SIGMOID = 5e-9;
+
+   /**
+    * Pontos avaliados na grade uniforme de cada função.
+    */
+   static final int PONTOS_GRADE = 2_000_000;
+
+   /**
+    * Pontos aleatórios avaliados em cada função.
+    */
+   static final int PONTOS_ALEATORIOS = 2_000_000;
+
+   static int falhas = 0;
+
+   public static void main(String[] args){
+      SplittableRandom random = new SplittableRandom(42);
+
+      //exp: faixa completa até onde o resultado ainda não é zero ou infinito
+      Erro exp = new Erro("exp", LIMITE_EXP);
+      varrer(-745, 709.78, random, exp, TesteAproximacoes::erroExp);
+      for(double corte : new double[]{-708, 708}){
+         vizinhanca(corte, exp, TesteAproximacoes::erroExp);
+      }
+      exp.concluir();
+
+      Erro tanh = new Erro("tanh", LIMITE_TANH);
+      varrer(-40, 40, random, tanh, TesteAproximacoes::erroTanh);
+      varrer(-710, 710, random, tanh, TesteAproximacoes::erroTanh);
+      for(double corte : new double[]{-20, 20, -354, 354}){
+         vizinhanca(corte, tanh, TesteAproximacoes::erroTanh);
+      }
+      tanh.concluir();
+
+      Erro sigmoid = new Erro("sigmoid", LIMITE_SIGMOID);
+      varrer(-40, 40, random, sigmoid, TesteAproximacoes::erroSigmoid);
+      varrer(-745, 745, random, sigmoid, TesteAproximacoes::erroSigmoid);
+      for(double corte : new double[]{-708, 708}){
+         vizinhanca(corte, sigmoid, TesteAproximacoes::erroSigmoid);
+      }
+      sigmoid.concluir();
+
+      especiais();
+
+      System.out.println(falhas + " falhas");
+      if(falhas > 0){
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Erro relativo da exponencial.
+    */
+   static double erroExp(double x){
+      double e = Math.exp(x);
+      return Math.abs(Aproximacoes.exp(x) - e) / e;
+   }
+
+   /**
+    * Erro absoluto da tangente hiperbólica.
+    */
+   static double erroTanh(double x){
+      return Math.abs(Aproximacoes.tanh(x) - Math.tanh(x));
+   }
+
+   /**
+    * Erro absoluto da sigmóide.
+    */
+   static double erroSigmoid(double x){
+      return Math.abs(Aproximacoes.sigmoid(x) - 1 / (1 + Math.exp(-x)));
+   }
+
+   /**
+    * Avalia a função numa grade uniforme e em pontos aleatórios do intervalo.
+    */
+   static void varrer(double inicio, double fim, SplittableRandom random, Erro erro, Funcao f){
+      double passo = (fim - inicio) / (PONTOS_GRADE - 1);
+      for(int i = 0; i < PONTOS_GRADE; i++){
+         double x = inicio + i * passo;
+         erro.registrar(x, f.erro(x));
+      }
+      for(int i = 0; i < PONTOS_ALEATORIOS; i++){
+         double x = random.nextDouble(inicio, fim);
+         erro.registrar(x, f.erro(x));
+      }
+   }
+
+   /**
+    * Avalia a função nos valores adjacentes a um corte, tanto os mais próximos
+    * representáveis quanto os de uma pequena faixa ao redor dele.
+    */
+   static void vizinhanca(double corte, Erro erro, Funcao f){
+      double abaixo = corte, acima = corte;
+      for(int i = 0; i < 1000; i++){
+         erro.registrar(abaixo, f.erro(abaixo));
+         erro.registrar(acima, f.erro(acima));
+         abaixo = Math.nextDown(abaixo);
+         acima = Math.nextUp(acima);
+      }
+      for(int i = -1000; i <= 1000; i++){
+         double x = corte + i * 1e-3;
+         erro.registrar(x, f.erro(x));
+      }
+   }
+
+   /**
+    * Verifica os valores especiais, que devem ser iguais aos da {@code java.lang.Math}.
+    */
+   static void especiais(){
+      double[] valores = {
+         0, -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+         Double.MAX_VALUE, -Double.MAX_VALUE, Double.MIN_VALUE, -Double.MIN_VALUE, 1000, -1000
+      };
+
+      for(double x : valores){
+         igual("exp(" + x + ")", Math.exp(x), Aproximacoes.exp(x), LIMITE_EXP * Math.abs(Math.exp(x)));
+         igual("tanh(" + x + ")", Math.tanh(x), Aproximacoes.tanh(x), LIMITE_TANH);
+         igual("sigmoid(" + x + ")", 1 / (1 + Math.exp(-x)), Aproximacoes.sigmoid(x), LIMITE_SIGMOID);
+      }
+   }
+
+   static void igual(String nome, double esperado, double obtido, double tolerancia){
+      //infinitos precisam ser iguais, zeros com sinais diferentes são aceitos
+      boolean ok = (Double.isNaN(esperado) && Double.isNaN(obtido)) ||
+         esperado == obtido || Math.abs(esperado - obtido) <= tolerancia;
+
+      if(!ok){
+         falhas++;
+         System.out.println("FALHA " + nome + ": esperado " + esperado + ", obtido " + obtido);
+      }
+   }
+
+   interface Funcao{
+      double erro(double x);
+   }
+
+   /**
+    * Acumula o maior erro encontrado de uma função.
+    */
+   static class Erro{
+      final String nome;
+      final double limite;
+      double maior = 0;
+      double pior = Double.NaN;
+      long pontos = 0;
+
+      Erro(String nome, double limite){
+         this.nome = nome;
+         this.limite = limite;
+      }
+
+      void registrar(double x, double erro){
+         pontos++;
+         if(!(erro <= maior)){
+            maior = erro;
+            pior = x;
+         }
+      }
+
+      void concluir(){
+         boolean ok = maior < limite;
+         if(!ok) falhas++;
+         System.out.println(
+            nome + ": " + pontos + " pontos, maior erro " + maior + " em x = " + pior +
+            " (limite " + limite + ") " + (ok ? "ok" : "FALHA")
+         );
+      }
+   }
+}
@@ -0,0 +1,123 @@
+package testes;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import rna.avaliacao.perda.ErroMedioQuadrado;
+import rna.estrutura.RedeNeural;
+import rna.inicializadores.Xavier;
+import rna.otimizadores.SGD;
+
+/**
+ * Verificação de convergência do treino assíncrono (Hogwild!).
+ * <p>
+ *    Treina a mesma rede, com os mesmos pesos iniciais, de forma sequencial e de forma
+ *    assíncrona num problema de regressão com entradas esparsas. Como o treino assíncrono
+ *    não é determinístico, ele é repetido algumas vezes e todas as execuções precisam
+ *    chegar a uma perda comparável à do treino sequencial.
+ * </p>
+ * <p>
+ *    Também verifica que o treino assíncrono rejeita um otimizador com atualização
+ *    paralela configurada.
+ * </p>
+ * Execução:
+ * <pre>
+ *java -cp out testes.TesteHogwild [threads]
+ * </pre>
+ */
+public class TesteHogwild{
+
+   /**
+    * Razão máxima aceita entre a perda do treino assíncrono e a do sequencial.
+    */
+   static final double RAZAO_MAXIMA = 2;
+
+   static final int AMOSTRAS = 4000;
+   static final int ENTRADAS = 20;
+   static final int EPOCAS = 20;
+   static final int REPETICOES = 3;
+
+   public static void main(String[] args){
+      int threads = (args.length > 0) ? Integer.parseInt(args[0]) : 4;
+      int falhas = 0;
+
+      double[][] x = new double[AMOSTRAS][ENTRADAS];
+      double[][] y = new double[AMOSTRAS][1];
+      gerarDados(x, y);
+
+      double inicial = criarRede(null).avaliador.erroMedioQuadrado(x, y);
+      double sequencial = treinar(null, x, y);
+      System.out.printf("inicial: %.3e  sequencial: %.3e%n", inicial, sequencial);
+
+      ForkJoinPool pool = new ForkJoinPool(threads);
+      for(int i = 0; i < REPETICOES; i++){
+         double assincrono = treinar(pool, x, y);
+         boolean ok = assincrono <= sequencial * RAZAO_MAXIMA;
+         if(!ok) falhas++;
+         System.out.printf(
+            "assíncrono (%d threads): %.3e  razão: %.2f %s%n",
+            threads, assincrono, assincrono / sequencial, ok ? "ok" : "FALHA"
+         );
+      }
+
+      //o treino assíncrono não pode usar a atualização paralela do otimizador
+      RedeNeural rede = criarRede(pool);
+      rede.configurarParalelismoOtimizador(pool);
+      try{
+         rede.treinar(x, y, 1);
+         falhas++;
+         System.out.println("FALHA otimizador paralelo aceito no treino assíncrono");
+
+      }catch(IllegalArgumentException e){
+         System.out.println("otimizador paralelo rejeitado: ok");
+      }
+
+      pool.shutdown();
+
+      System.out.println(falhas + " falhas");
+      if(falhas > 0){
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Gera um problema de regressão com cerca de 20% das entradas diferentes de zero,
+    * onde a saída é a tangente hiperbólica de uma combinação linear das entradas.
+    */
+   static void gerarDados(double[][] x, double[][] y){
+      Random random = new Random(3);
+      double[] w = new double[ENTRADAS];
+      for(int i = 0; i < ENTRADAS; i++){
+         w[i] = random.nextGaussian();
+      }
+
+      for(int s = 0; s < x.length; s++){
+         double z = 0;
+         for(int i = 0; i < ENTRADAS; i++){
+            x[s][i] = (random.nextDouble() < 0.2) ? random.nextGaussian() : 0;
+            z += w[i] * x[s][i];
+         }
+         y[s][0] = Math.tanh(z);
+      }
+   }
+
+   static RedeNeural criarRede(ForkJoinPool pool){
+      RedeNeural rede = new RedeNeural(new int[]{ENTRADAS, 32, 1});
+      rede.configurarSeed(7);
+      rede.compilar(new ErroMedioQuadrado(), new SGD(0.01, 0.0), new Xavier());
+      rede.configurarAtivacao("tanh");
+      rede.configurarAtivacao(rede.obterCamadaSaida(), "linear");
+      rede.configurarTreinoAssincrono(pool);
+      return rede;
+   }
+
+   /**
+    * Treina a rede e retorna o erro médio quadrado final no conjunto de treino.
+    * @param pool pool do treino assíncrono, ou nulo para o treino sequencial.
+    */
+   static double treinar(ForkJoinPool pool, double[][] x, double[][] y){
+      RedeNeural rede = criarRede(pool);
+      rede.treinar(x, y, EPOCAS);
+      return rede.avaliador.erroMedioQuadrado(x, y);
+   }
+}
@@ -0,0 +1,89 @@
+package testes;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import rna.avaliacao.perda.ErroMedioQuadrado;
+import rna.estrutura.RedeNeural;
+import rna.inicializadores.Xavier;
+import rna.otimizadores.SGD;
+
+/**
+ * Verificação da continuidade das direções do treino {@code spsa()}.
+ * <p>
+ *    Com a seed configurada, várias chamadas com poucos passos precisam produzir
+ *    exatamente a mesma rede que uma chamada com todos os passos, e um clone precisa
+ *    continuar a sequência de direções da rede original.
+ * </p>
+ * Execução:
+ * <pre>
+ *java -cp out testes.TesteSpsa
+ * </pre>
+ */
+public class TesteSpsa{
+
+   static final int AMOSTRAS = 64;
+   static final int PASSOS = 5;
+
+   public static void main(String[] args){
+      int falhas = 0;
+
+      double[][] x = new double[AMOSTRAS][3];
+      double[][] y = new double[AMOSTRAS][1];
+      gerarDados(x, y);
+
+      //uma chamada com todos os passos
+      RedeNeural unica = criarRede();
+      unica.spsa(x, y, 1e-3, 1, PASSOS, 0);
+
+      //um passo por chamada
+      RedeNeural separada = criarRede();
+      for(int i = 0; i < PASSOS; i++){
+         separada.spsa(x, y, 1e-3, 1, 1, 0);
+      }
+      falhas += verificar("chamadas separadas", unica.calcularSaida(x), separada.calcularSaida(x));
+
+      //o clone continua a sequência da rede original
+      RedeNeural original = criarRede();
+      original.spsa(x, y, 1e-3, 1, 2, 0);
+      RedeNeural clone = original.clone();
+      original.spsa(x, y, 1e-3, 1, PASSOS-2, 0);
+      clone.spsa(x, y, 1e-3, 1, PASSOS-2, 0);
+      falhas += verificar("clone", original.calcularSaida(x), clone.calcularSaida(x));
+      falhas += verificar("clone e chamada única", unica.calcularSaida(x), clone.calcularSaida(x));
+
+      System.out.println(falhas + " falhas");
+      if(falhas > 0){
+         System.exit(1);
+      }
+   }
+
+   /**
+    * Compara as previsões de duas redes, que precisam ser idênticas.
+    * @return quantidade de falhas.
+    */
+   static int verificar(String nome, double[][] esperado, double[][] obtido){
+      boolean ok = Arrays.deepEquals(esperado, obtido);
+      System.out.println(nome + ": " + (ok ? "ok" : "FALHA"));
+      return ok ? 0 : 1;
+   }
+
+   static void gerarDados(double[][] x, double[][] y){
+      Random random = new Random(5);
+      for(int s = 0; s < x.length; s++){
+         for(int i = 0; i < x[s].length; i++){
+            x[s][i] = random.nextDouble() * 2 - 1;
+         }
+         y[s][0] = Math.sin(x[s][0] + x[s][1] * x[s][2]);
+      }
+   }
+
+   static RedeNeural criarRede(){
+      RedeNeural rede = new RedeNeural(new int[]{3, 6, 1});
+      rede.configurarSeed(7);
+      rede.compilar(new ErroMedioQuadrado(), new SGD(0.05, 0.0), new Xavier());
+      rede.configurarAtivacao("tanh");
+      rede.configurarAtivacao(rede.obterCamadaSaida(), "linear");
+      return rede;
+   }
+}